@@ -0,0 +1,128 @@
+package com.bank.backend.filter;
+
+import com.bank.backend.configuration.JwtKeyRing;
+import com.bank.backend.model.Token;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.InMemoryRepositories;
+import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.impl.JwtServiceImpl;
+import com.bank.backend.service.impl.TokenCacheServiceImpl;
+import com.bank.backend.service.impl.UserPrincipalServiceImpl;
+import com.bank.backend.util.TokenDigest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET_KEY = "4bb6d1dfbafb64a681139d1586b6f1160d18159afd57c8c79136d7490630407c";
+
+    private final FilterChain filterChain = (request, response) -> { };
+
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletRequest anonymousRequest;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing jwtKeyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(jwtKeyRing, "SECRET_KEY", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtKeyRing, "KEY_ID", "primary");
+        ReflectionTestUtils.setField(jwtKeyRing, "RETIRED_KEYS", "");
+        jwtKeyRing.init();
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("Username");
+        user.setUserRole(UserRole.USER);
+
+        TokenRepository tokenRepository = InMemoryRepositories.tokenRepository();
+
+        TokenCacheServiceImpl tokenCacheService = new TokenCacheServiceImpl();
+        ReflectionTestUtils.setField(tokenCacheService, "MAX_CACHE_SIZE", 100000);
+
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "ACCESS_TOKEN_EXPIRATION", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "REFRESH_TOKEN_EXPIRATION", 604800000L);
+        ReflectionTestUtils.setField(jwtService, "jwtKeyRing", jwtKeyRing);
+        ReflectionTestUtils.setField(jwtService, "tokenRepository", tokenRepository);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheService", tokenCacheService);
+
+        UserPrincipalServiceImpl userPrincipalService = new UserPrincipalServiceImpl();
+        ReflectionTestUtils.setField(userPrincipalService, "MAX_CACHE_SIZE", 100000);
+        ReflectionTestUtils.setField(userPrincipalService, "CACHE_TTL", 300000L);
+        ReflectionTestUtils.setField(userPrincipalService, "userRepository", InMemoryRepositories.userRepository(Map.of(
+                user.getUsername(), new UserPrincipal(user.getId(), user.getUsername(), user.getUserRole(), user.getTokenEpoch())
+        )));
+
+        jwtAuthenticationFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "userPrincipalService", userPrincipalService);
+
+        String accessToken = jwtService.generateAccessToken(user);
+
+        Token token = new Token();
+        token.setId(1L);
+        token.setAccessTokenDigest(TokenDigest.digest(accessToken));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
+        token.setExpiresAt(jwtService.parseToken(accessToken).getExpiration());
+        token.setLoggedOut(false);
+        token.setUser(user);
+        tokenRepository.save(token);
+
+        request = new MockHttpServletRequest("GET", "/api/accounts/getLoggedInAccounts");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/users/auth/loginUser");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws ServletException, IOException {
+        try {
+            jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws ServletException, IOException {
+        try {
+            jwtAuthenticationFilter.doFilterInternal(anonymousRequest, response, filterChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.Token;
+import com.bank.backend.model.UserPrincipal;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static TokenRepository tokenRepository(Map<ByteBuffer, Token> tokens) {
+        return (TokenRepository) Proxy.newProxyInstance(
+                TokenRepository.class.getClassLoader(),
+                new Class<?>[] { TokenRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByAccessTokenDigest" -> Optional.ofNullable(tokens.get(ByteBuffer.wrap((byte[]) args[0])));
+                    case "save" -> {
+                        Token token = (Token) args[0];
+                        tokens.put(ByteBuffer.wrap(token.getAccessTokenDigest()), token);
+                        yield token;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryTokenRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    public static TokenRepository tokenRepository() {
+        return tokenRepository(new ConcurrentHashMap<>());
+    }
+
+    public static UserRepository userRepository(Map<String, UserPrincipal> principals) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[] { UserRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findPrincipalByUsername" -> Optional.ofNullable(principals.get((String) args[0]));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.BackendApplication;
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.UserRepository;
+import com.bank.backend.service.BalanceReplayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BalanceReplayBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10000;
+
+    @Param({ "1000000" })
+    private int transactions;
+
+    @Param({ "10000" })
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+
+    private BalanceReplayService balanceReplayService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:replay;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=32",
+                        "--logging.level.root=WARN"
+                );
+
+        balanceReplayService = context.getBean(BalanceReplayService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = context.getBean(UserRepository.class).save(user);
+
+        List<Account> accountList = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Account account = new Account();
+            account.setAccountNumber(String.valueOf(100000 + i));
+            account.setAccountType(AccountType.CURRENT);
+            account.setUser(user);
+            accountList.add(account);
+        }
+        long[] accountIds = accountRepository.saveAll(accountList).stream().mapToLong(Account::getId).toArray();
+
+        Timestamp postedAt = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= transactions; i++) {
+            int type = i % 4 == 0 ? TransactionType.WITHDRAWAL.ordinal() : TransactionType.LODGEMENT.ordinal();
+            rows.add(new Object[]{ i, 100L, "Payment", type, postedAt, accountIds[i % accounts] });
+            if (rows.size() == INSERT_BATCH_SIZE || i == transactions) {
+                jdbcTemplate.batchUpdate("insert into transaction (id, amount, description, transaction_type, posted_at, account_id) " +
+                        "values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetReplay() {
+        context.getBean(JobCheckpointRepository.class).deleteAll();
+        jdbcTemplate.update("update account set balance = 0");
+    }
+
+    @TearDown
+    public void teardown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long replayBalances() {
+        return balanceReplayService.replayBalances();
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.configuration.JwtKeyRing;
+import com.bank.backend.model.Token;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.InMemoryRepositories;
+import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.util.TokenDigest;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceImplBenchmark {
+
+    private static final String SECRET_KEY = "4bb6d1dfbafb64a681139d1586b6f1160d18159afd57c8c79136d7490630407c";
+
+    private static final long ACCESS_TOKEN_EXPIRATION = 86400000L;
+
+    private JwtServiceImpl cachedJwtService;
+
+    private JwtServiceImpl uncachedJwtService;
+
+    private User user;
+
+    private UserPrincipal principal;
+
+    private String accessToken;
+
+    private Claims claims;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing jwtKeyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(jwtKeyRing, "SECRET_KEY", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtKeyRing, "KEY_ID", "primary");
+        ReflectionTestUtils.setField(jwtKeyRing, "RETIRED_KEYS", "");
+        jwtKeyRing.init();
+
+        TokenRepository tokenRepository = InMemoryRepositories.tokenRepository();
+
+        TokenCacheServiceImpl tokenCacheService = new TokenCacheServiceImpl();
+        ReflectionTestUtils.setField(tokenCacheService, "MAX_CACHE_SIZE", 100000);
+
+        cachedJwtService = createJwtService(jwtKeyRing, tokenRepository, tokenCacheService);
+        uncachedJwtService = createJwtService(jwtKeyRing, tokenRepository, new NoOpTokenCacheService());
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("Username");
+        user.setUserRole(UserRole.USER);
+        principal = new UserPrincipal(user.getId(), user.getUsername(), user.getUserRole(), user.getTokenEpoch());
+
+        accessToken = cachedJwtService.generateAccessToken(user);
+        claims = cachedJwtService.parseToken(accessToken);
+
+        Token token = new Token();
+        token.setId(1L);
+        token.setAccessTokenDigest(TokenDigest.digest(accessToken));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
+        token.setExpiresAt(claims.getExpiration());
+        token.setLoggedOut(false);
+        token.setUser(user);
+        tokenRepository.save(token);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return cachedJwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return cachedJwtService.extractUsername(accessToken);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return cachedJwtService.parseToken(accessToken);
+    }
+
+    @Benchmark
+    public boolean isValidCached() {
+        return cachedJwtService.isValid(accessToken, claims, principal);
+    }
+
+    @Benchmark
+    public boolean isValidRepository() {
+        return uncachedJwtService.isValid(accessToken, claims, principal);
+    }
+
+    private JwtServiceImpl createJwtService(JwtKeyRing jwtKeyRing, TokenRepository tokenRepository, TokenCacheService tokenCacheService) {
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "ACCESS_TOKEN_EXPIRATION", ACCESS_TOKEN_EXPIRATION);
+        ReflectionTestUtils.setField(jwtService, "REFRESH_TOKEN_EXPIRATION", ACCESS_TOKEN_EXPIRATION * 7);
+        ReflectionTestUtils.setField(jwtService, "jwtKeyRing", jwtKeyRing);
+        ReflectionTestUtils.setField(jwtService, "tokenRepository", tokenRepository);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheService", tokenCacheService);
+        return jwtService;
+    }
+
+    private static class NoOpTokenCacheService implements TokenCacheService {
+
+        @Override
+        public boolean isCached(String token) {
+            return false;
+        }
+
+        @Override
+        public void cacheToken(String token, Date expiration) {
+        }
+
+        @Override
+        public void evictToken(String token) {
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.BackendApplication;
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransferRequest;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.UserRepository;
+import com.bank.backend.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class TransferBenchmark {
+
+    @Param({ "2", "8" })
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionService transactionService;
+
+    private VerifiedToken verifiedToken;
+
+    private Long[] accountIds;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:transfers;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=32",
+                        "--logging.level.root=WARN"
+                );
+
+        transactionService = context.getBean(TransactionService.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = context.getBean(UserRepository.class).save(user);
+
+        accountIds = new Long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            Account account = new Account();
+            account.setAccountNumber(String.valueOf(100000 + i));
+            account.setBalance(1000000000000L);
+            account.setAccountType(AccountType.CURRENT);
+            account.setUser(user);
+            accountIds[i] = accountRepository.save(account).getId();
+        }
+
+        verifiedToken = new VerifiedToken("tokenId", user.getId(), user.getUsername(), UserRole.USER, new Date(Long.MAX_VALUE));
+    }
+
+    @TearDown
+    public void teardown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> crossTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(accountIds[from]);
+        transferRequest.setToAccountId(accountIds[to]);
+        transferRequest.setAmount(1L);
+        transferRequest.setDescription("Transfer");
+
+        return transactionService.createTransfer(transferRequest, verifiedToken);
+    }
+
+}
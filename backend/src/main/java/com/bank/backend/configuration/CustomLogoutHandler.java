@@ -2,6 +2,8 @@ package com.bank.backend.configuration;
 
 import com.bank.backend.model.Token;
 import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.util.TokenDigest;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 
+import java.util.Date;
 import java.util.Optional;
 
 @Configuration
@@ -17,6 +20,9 @@ public class CustomLogoutHandler implements LogoutHandler {
     @Autowired
     private TokenRepository tokenRepository;
 
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
     @Override
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
         String authHeader = request.getHeader("Authorization");
@@ -25,11 +31,14 @@ public class CustomLogoutHandler implements LogoutHandler {
         }
 
         String token = authHeader.substring(7);
-        Optional<Token> storedToken = tokenRepository.findByAccessToken(token);
+        Optional<Token> storedToken = tokenRepository.findByAccessTokenDigest(TokenDigest.digest(token));
 
         if(storedToken.isPresent()) {
             storedToken.get().setLoggedOut(true);
+            storedToken.get().setExpiresAt(new Date());
             tokenRepository.save(storedToken.get());
         }
+
+        tokenCacheService.evictToken(token);
     }
 }
\ No newline at end of file
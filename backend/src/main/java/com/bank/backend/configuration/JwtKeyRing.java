@@ -0,0 +1,90 @@
+package com.bank.backend.configuration;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class JwtKeyRing {
+
+    @Value("${application.security.jwt.secret-key}")
+    private String SECRET_KEY;
+
+    @Value("${application.security.jwt.key-id:primary}")
+    private String KEY_ID;
+
+    @Value("${application.security.jwt.retired-keys:}")
+    private String RETIRED_KEYS;
+
+    @Getter
+    private String activeKeyId;
+
+    @Getter
+    private SecretKey activeKey;
+
+    @Getter
+    private JwtParser parser;
+
+    private Map<String, SecretKey> keys;
+
+    @PostConstruct
+    public void init() {
+        Map<String, SecretKey> loadedKeys = new HashMap<>();
+
+        if(RETIRED_KEYS != null && !RETIRED_KEYS.isBlank()) {
+            for(String entry : RETIRED_KEYS.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if(parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                    throw new IllegalStateException("Invalid retired JWT key entry, expected kid:secret.");
+                }
+                loadedKeys.put(parts[0].trim(), createKey(parts[1].trim()));
+            }
+        }
+
+        activeKeyId = KEY_ID;
+        activeKey = createKey(SECRET_KEY);
+        loadedKeys.put(activeKeyId, activeKey);
+        keys = Map.copyOf(loadedKeys);
+
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return getKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    public SecretKey getKey(String keyId) {
+        if(keyId == null) {
+            return activeKey;
+        }
+
+        SecretKey key = keys.get(keyId);
+        if(key == null) {
+            throw new SignatureException("Unknown JWT key id.");
+        }
+
+        return key;
+    }
+
+    private SecretKey createKey(String secret) {
+        byte[] keyBytes = Decoders.BASE64URL.decode(secret);
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+
+}
@@ -3,7 +3,9 @@ package com.bank.backend.configuration;
 import com.bank.backend.filter.JwtAuthenticationFilter;
 import com.bank.backend.model.AdminEndpoints;
 import com.bank.backend.service.impl.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -38,6 +40,15 @@ public class SecurityConfiguration {
     @Autowired
     private CustomLogoutHandler logoutHandler;
 
+    @Value("${application.security.password-hashing.threads:0}")
+    private int HASHING_THREADS;
+
+    @Value("${application.security.password-hashing.queue-capacity:64}")
+    private int HASHING_QUEUE_CAPACITY;
+
+    @Value("${application.security.password-hashing.retry-after:1}")
+    private long HASHING_RETRY_AFTER;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http.cors(
@@ -72,7 +83,7 @@ public class SecurityConfiguration {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of("http://localhost:3000"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Idempotency-Key"));
         config.setAllowCredentials(true);
         source.registerCorsConfiguration("/**", config);
 
@@ -85,7 +96,7 @@ public class SecurityConfiguration {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of("http://localhost:3000"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Idempotency-Key"));
         config.setAllowCredentials(true);
         source.registerCorsConfiguration("/**", config);
 
@@ -93,8 +104,9 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = HASHING_THREADS > 0 ? HASHING_THREADS : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, HASHING_QUEUE_CAPACITY, HASHING_RETRY_AFTER, meterRegistry);
     }
 
     @Bean
@@ -3,18 +3,29 @@ package com.bank.backend.controller;
 import com.bank.backend.exception.InvalidRequestException;
 import com.bank.backend.model.Account;
 import com.bank.backend.model.AccountRequest;
+import com.bank.backend.model.BalanceAsOf;
+import com.bank.backend.model.StatementFormat;
+import com.bank.backend.model.TransactionPage;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.service.AccountService;
+import com.bank.backend.service.BalanceSnapshotService;
+import com.bank.backend.service.StatementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -24,6 +35,12 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
     @PostMapping("/createAccount")
     @Operation(summary = "Create New Account")
     @ApiResponses(value = {
@@ -47,8 +64,8 @@ public class AccountController {
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> getLoggedInAccounts(HttpServletRequest request) {
-        List<Account> accountList = accountService.getLoggedInAccounts(request);
+    public ResponseEntity<?> getLoggedInAccounts(@AuthenticationPrincipal VerifiedToken verifiedToken) {
+        List<Account> accountList = accountService.getLoggedInAccounts(verifiedToken);
         if (accountList == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No Accounts Found. Try Again!"));
         }
@@ -63,8 +80,8 @@ public class AccountController {
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> getAccountById(@PathVariable Long id, HttpServletRequest request) {
-        Account account = accountService.getAccountById(id, request);
+    public ResponseEntity<?> getAccountById(@PathVariable Long id, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        Account account = accountService.getAccountById(id, verifiedToken);
         if (account == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No Account Found. Try Again!"));
         }
@@ -72,6 +89,88 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.OK).body(account);
     }
 
+    @GetMapping("/{id}/transactions")
+    @Operation(summary = "Get Account Transactions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get Account Transactions", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = TransactionPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> getAccountTransactions(@PathVariable Long id, @RequestParam(required = false) Long cursor,
+                                                    @RequestParam(defaultValue = "20") int size, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        TransactionPage transactionPage = accountService.getAccountTransactions(id, cursor, size, verifiedToken);
+        if (transactionPage == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No Account Found. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(transactionPage);
+    }
+
+    @GetMapping("/{id}/transactions/range")
+    @Operation(summary = "Get Account Transactions By Date Range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get Account Transactions By Date Range", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = TransactionPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> getAccountTransactionsByDateRange(@PathVariable Long id,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                                               @RequestParam(required = false) Long cursor, @RequestParam(defaultValue = "20") int size,
+                                                               @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        TransactionPage transactionPage = accountService.getAccountTransactions(id, from, to, cursor, size, verifiedToken);
+        if (transactionPage == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(transactionPage);
+    }
+
+    @GetMapping("/{id}/balance")
+    @Operation(summary = "Get Account Balance As Of Date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get Account Balance As Of Date", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BalanceAsOf.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> getAccountBalanceAsOf(@PathVariable Long id, @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date asOf,
+                                                   @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        if (accountService.getAccountById(id, verifiedToken) == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No Account Found. Try Again!"));
+        }
+
+        BalanceAsOf balanceAsOf = balanceSnapshotService.getBalanceAsOf(id, asOf);
+        if (balanceAsOf == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(balanceAsOf);
+    }
+
+    @GetMapping("/{id}/statement")
+    @Operation(summary = "Export Account Statement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export Account Statement", content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> exportStatement(@PathVariable Long id, @RequestParam(defaultValue = "CSV") StatementFormat format,
+                                             @RequestParam(defaultValue = "false") boolean gzip, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        if (accountService.getAccountById(id, verifiedToken) == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No Account Found. Try Again!"));
+        }
+
+        StreamingResponseBody statement = outputStream -> statementService.writeStatement(id, format, gzip, outputStream);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + id + "." + format.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(statement);
+    }
+
     @GetMapping("/getAllAccounts")
     @Operation(summary = "Get All Accounts")
     @ApiResponses(value = {
@@ -95,8 +194,8 @@ public class AccountController {
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> deleteAccountById(@PathVariable Long id, HttpServletRequest request) {
-        if (accountService.deleteAccountById(id, request)) {
+    public ResponseEntity<?> deleteAccountById(@PathVariable Long id, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        if (accountService.deleteAccountById(id, verifiedToken)) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Account Has Been Deleted.");
         }
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
@@ -0,0 +1,74 @@
+package com.bank.backend.controller;
+
+import com.bank.backend.exception.InvalidRequestException;
+import com.bank.backend.model.StandingOrder;
+import com.bank.backend.model.StandingOrderRequest;
+import com.bank.backend.model.VerifiedToken;
+import com.bank.backend.service.StandingOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/standingOrders")
+public class StandingOrderController {
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @PostMapping("/createStandingOrder")
+    @Operation(summary = "Create New Standing Order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Create New Standing Order", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = StandingOrder.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> createNewStandingOrder(@RequestBody StandingOrderRequest standingOrderRequest, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        StandingOrder standingOrder = standingOrderService.createStandingOrder(standingOrderRequest, verifiedToken);
+        if (standingOrder == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(standingOrder);
+    }
+
+    @GetMapping("/getLoggedInStandingOrders")
+    @Operation(summary = "Get Logged In User Standing Orders")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get Logged In User Standing Orders", content = {@Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = StandingOrder.class)))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> getLoggedInStandingOrders(@AuthenticationPrincipal VerifiedToken verifiedToken) {
+        List<StandingOrder> standingOrders = standingOrderService.getLoggedInStandingOrders(verifiedToken);
+        if (standingOrders == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No Standing Orders Found. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(standingOrders);
+    }
+
+    @DeleteMapping("/cancelStandingOrder/{id}")
+    @Operation(summary = "Cancel Standing Order By ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cancel Standing Order By ID", content = {@Content(mediaType = "application/json", schema = @Schema(hidden = true))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> cancelStandingOrderById(@PathVariable Long id, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        if (standingOrderService.cancelStandingOrder(id, verifiedToken)) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Standing Order Has Been Cancelled.");
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+    }
+
+}
@@ -3,37 +3,61 @@ package com.bank.backend.controller;
 import com.bank.backend.exception.InvalidRequestException;
 import com.bank.backend.model.Transaction;
 import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.model.TransferRequest;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.service.TransactionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    @Value("${application.transactions.max-batch-size:10000}")
+    private int MAX_BATCH_SIZE;
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/createTransaction")
     @Operation(summary = "Create New Transaction")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Create New Transaction", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = Transaction.class))}),
+            @ApiResponse(responseCode = "201", description = "Create New Transaction. When the posting journal is enabled the transaction is returned once it is journaled and its id is null until it is flushed to the ledger", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = Transaction.class))}),
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> createNewTransaction(@RequestBody TransactionRequest transactionRequest, HttpServletRequest request) {
-        Transaction transaction = transactionService.createTransaction(transactionRequest, request);
+    public ResponseEntity<?> createNewTransaction(@RequestBody TransactionRequest transactionRequest, @AuthenticationPrincipal VerifiedToken verifiedToken,
+                                                  @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Transaction transaction = transactionService.createTransaction(transactionRequest, verifiedToken, idempotencyKey);
         if (transaction == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
         }
@@ -41,4 +65,59 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
     }
 
+    @PostMapping("/transfer")
+    @Operation(summary = "Create Transfer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Create Transfer", content = {@Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Transaction.class)))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> createTransfer(@RequestBody TransferRequest transferRequest, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        List<Transaction> transactions = transactionService.createTransfer(transferRequest, verifiedToken);
+        if (transactions == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactions);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create Transaction Batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Create Transaction Batch", content = {@Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Transaction.class)))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> createTransactionBatch(@RequestBody List<TransactionRequest> transactionRequests, @AuthenticationPrincipal VerifiedToken verifiedToken) {
+        List<Transaction> transactions = transactionService.createTransactions(transactionRequests, verifiedToken);
+        if (transactions == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactions);
+    }
+
+    @PostMapping(value = "/batch", consumes = NDJSON_VALUE)
+    @Operation(summary = "Create Transaction Batch From NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Create Transaction Batch From NDJSON", content = {@Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Transaction.class)))}),
+            @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
+    })
+    public ResponseEntity<?> createTransactionBatchFromNdjson(HttpServletRequest request, @AuthenticationPrincipal VerifiedToken verifiedToken) throws IOException {
+        List<TransactionRequest> transactionRequests = new ArrayList<>();
+        try (MappingIterator<TransactionRequest> iterator = objectMapper.readerFor(TransactionRequest.class).readValues(request.getInputStream())) {
+            while (iterator.hasNextValue()) {
+                if (transactionRequests.size() >= MAX_BATCH_SIZE) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+                }
+                transactionRequests.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Issue with Data Passed. Try Again!"));
+        }
+
+        return createTransactionBatch(transactionRequests, verifiedToken);
+    }
+
 }
@@ -5,6 +5,7 @@ import com.bank.backend.model.AuthenticationResponse;
 import com.bank.backend.model.LoginRequest;
 import com.bank.backend.model.User;
 import com.bank.backend.model.UserRequest;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,6 +16,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -30,6 +32,7 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Create User", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AuthenticationResponse.class))}),
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
     public ResponseEntity<?> createUser(@RequestBody UserRequest userRequest) {
@@ -46,6 +49,7 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login User", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AuthenticationResponse.class))}),
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
     public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
@@ -80,8 +84,8 @@ public class UserController {
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> getLoggedInUser(HttpServletRequest request) {
-        User user = userService.getLoggedInUser(request);
+    public ResponseEntity<?> getLoggedInUser(@AuthenticationPrincipal VerifiedToken verifiedToken) {
+        User user = userService.getLoggedInUser(verifiedToken);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No User Found."));
         }
@@ -126,10 +130,11 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Update Logged In User", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = User.class))}),
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> updateLoggedInUser(HttpServletRequest request, @RequestBody UserRequest userRequest) {
-        User user = userService.updateLoggedInUser(request, userRequest);
+    public ResponseEntity<?> updateLoggedInUser(@AuthenticationPrincipal VerifiedToken verifiedToken, @RequestBody UserRequest userRequest) {
+        User user = userService.updateLoggedInUser(verifiedToken, userRequest);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("No User Found."));
         }
@@ -142,6 +147,7 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Update User By Id", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = User.class))}),
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
     public ResponseEntity<?> updateUserById(@RequestBody UserRequest userRequest, @PathVariable Long id) {
@@ -160,8 +166,8 @@ public class UserController {
             @ApiResponse(responseCode = "400", description = "Bad Request", content = { @Content(schema = @Schema(implementation = InvalidRequestException.class))} ),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = { @Content(schema = @Schema(hidden = true))} )
     })
-    public ResponseEntity<?> deleteLoggedInUser(HttpServletRequest request) {
-        if (userService.deleteLoggedInUser(request)) {
+    public ResponseEntity<?> deleteLoggedInUser(@AuthenticationPrincipal VerifiedToken verifiedToken) {
+        if (userService.deleteLoggedInUser(verifiedToken)) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body("User Deleted Successfully.");
         }
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new InvalidRequestException("Could Not Delete User."));
@@ -1,7 +1,11 @@
 package com.bank.backend.filter;
 
+import com.bank.backend.model.UserPrincipal;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.service.JwtService;
-import com.bank.backend.service.impl.UserDetailsServiceImpl;
+import com.bank.backend.service.UserPrincipalService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,12 +13,13 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,7 +28,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtService jwtService;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private UserPrincipalService userPrincipalService;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -36,14 +41,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        Claims claims = jwtService.parseToken(token);
 
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if(claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserPrincipal principal = userPrincipalService.getUserPrincipal(
+                    claims.getSubject(), claims.get(JwtService.TOKEN_EPOCH_CLAIM, Long.class)
+            );
 
-            if(jwtService.isValid(token, userDetails)) {
+            String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+
+            if(principal != null && role != null && jwtService.isValid(token, claims, principal)) {
+                UserRole userRole = UserRole.valueOf(role);
+                VerifiedToken verifiedToken = new VerifiedToken(
+                        claims.getId(), claims.get(JwtService.USER_ID_CLAIM, Long.class), claims.getSubject(), userRole, claims.getExpiration()
+                );
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
+                        verifiedToken, null, List.of(new SimpleGrantedAuthority(userRole.name()))
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -1,6 +1,10 @@
 package com.bank.backend.model;
 
+import com.bank.backend.util.MoneyDeserializer;
+import com.bank.backend.util.MoneySerializer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,6 +12,7 @@ import lombok.Setter;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_account_account_type_id", columnList = "account_type, id"))
 @Getter
 @Setter
 public class Account {
@@ -17,8 +22,14 @@ public class Account {
     private Long id;
 
     private String accountNumber;
-    private double balance;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long balance;
+    @Column(updatable = false)
+    @JsonIgnore
+    private long interestRemainder;
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<Transaction> transactionList;
     @Enumerated(EnumType.STRING)
     private AccountType accountType;
@@ -0,0 +1,14 @@
+package com.bank.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AccountBalance {
+
+    private final Long id;
+    private final Long userId;
+    private final long balance;
+
+}
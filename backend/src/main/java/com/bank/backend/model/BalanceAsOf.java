@@ -0,0 +1,18 @@
+package com.bank.backend.model;
+
+import com.bank.backend.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class BalanceAsOf {
+
+    private final Long accountId;
+    private final Date asOf;
+    @JsonSerialize(using = MoneySerializer.class)
+    private final long balance;
+
+}
@@ -0,0 +1,13 @@
+package com.bank.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BalanceChange {
+
+    private final Long accountId;
+    private final Long amount;
+
+}
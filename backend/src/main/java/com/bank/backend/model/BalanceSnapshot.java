@@ -0,0 +1,25 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_date", columnNames = {"account_id", "snapshot_date"}))
+@Getter
+@Setter
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshot_seq")
+    @SequenceGenerator(name = "balance_snapshot_seq", sequenceName = "balance_snapshot_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+    private long balance;
+
+}
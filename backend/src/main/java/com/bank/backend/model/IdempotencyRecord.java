@@ -0,0 +1,31 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Date;
+
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+)
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+    @Column(length = 32, nullable = false)
+    private byte[] requestDigest;
+    private Long transactionId;
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+}
@@ -0,0 +1,14 @@
+package com.bank.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class InterestBalance {
+
+    private final Long id;
+    private final long balance;
+    private final long interestRemainder;
+
+}
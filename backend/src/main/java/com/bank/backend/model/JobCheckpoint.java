@@ -0,0 +1,31 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.Date;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_job_checkpoint_partition", columnNames = {"job", "run_date", "partition_index"}))
+@Getter
+@Setter
+public class JobCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String job;
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+    @Column(name = "partition_index", nullable = false)
+    private int partitionIndex;
+    private long lastId;
+    private long endId;
+    private long processed;
+    private boolean completed;
+    private Date updatedAt;
+
+}
@@ -0,0 +1,20 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Date;
+
+@Entity
+@Getter
+@Setter
+public class JobLock {
+
+    @Id
+    private String name;
+
+    private Date lockedUntil;
+    private String lockedBy;
+
+}
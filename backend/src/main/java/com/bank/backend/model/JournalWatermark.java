@@ -0,0 +1,18 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+public class JournalWatermark {
+
+    @Id
+    private String journal;
+
+    private long flushedSequence;
+
+}
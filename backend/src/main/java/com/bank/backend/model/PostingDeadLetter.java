@@ -0,0 +1,32 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Date;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_posting_dead_letter_journal_sequence", columnNames = {"journal", "journal_sequence"}))
+@Getter
+@Setter
+public class PostingDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String journal;
+    private long journalSequence;
+    @Column(nullable = false)
+    private Long accountId;
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    private long amount;
+    private String description;
+    @Column(nullable = false)
+    private Date acceptedAt;
+    @Column(nullable = false)
+    private Date recordedAt;
+
+}
@@ -0,0 +1,27 @@
+package com.bank.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Date;
+
+@Entity
+@Table(indexes = @Index(name = "idx_reconciliation_discrepancy_run_id", columnList = "run_id"))
+@Getter
+@Setter
+public class ReconciliationDiscrepancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private String runId;
+    @Column(nullable = false)
+    private Long accountId;
+    private long accountBalance;
+    private long transactionBalance;
+    @Column(nullable = false)
+    private Date detectedAt;
+
+}
@@ -0,0 +1,54 @@
+package com.bank.backend.model;
+
+import com.bank.backend.util.MoneyDeserializer;
+import com.bank.backend.util.MoneySerializer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Date;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_standing_order_due", columnList = "active, next_run_at"),
+        @Index(name = "idx_standing_order_user_id", columnList = "user_id")
+})
+@Getter
+@Setter
+public class StandingOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    @JsonIgnore
+    private Long userId;
+    @Column(nullable = false)
+    private Long fromAccountId;
+    @Column(nullable = false)
+    private Long toAccountId;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
+    private String description;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StandingOrderFrequency frequency;
+    @Column(nullable = false)
+    private Date startAt;
+    @Column(name = "next_run_at", nullable = false)
+    private Date nextRunAt;
+    private Date lastRunAt;
+    private int executions;
+    private int failedExecutions;
+    private boolean active;
+
+    @JsonIgnore
+    private String claimedBy;
+    @JsonIgnore
+    private Date claimedUntil;
+
+}
@@ -0,0 +1,9 @@
+package com.bank.backend.model;
+
+public enum StandingOrderFrequency {
+
+    DAILY,
+    WEEKLY,
+    MONTHLY
+
+}
@@ -0,0 +1,27 @@
+package com.bank.backend.model;
+
+import com.bank.backend.util.MoneyDeserializer;
+import com.bank.backend.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Date;
+
+@Getter
+@Setter
+public class StandingOrderRequest {
+
+    private Long fromAccountId;
+    private Long toAccountId;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
+    private String description;
+    @Enumerated(EnumType.STRING)
+    private StandingOrderFrequency frequency;
+    private Date startAt;
+
+}
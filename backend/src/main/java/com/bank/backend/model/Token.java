@@ -4,8 +4,10 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "idx_token_expires_at", columnList = "expires_at"))
 @Getter
 @Setter
 public class Token {
@@ -14,9 +16,15 @@ public class Token {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String accessToken;
-    private String refreshToken;
+    @Column(length = 32, nullable = false, unique = true)
+    @JsonIgnore
+    private byte[] accessTokenDigest;
+    @Column(length = 32, nullable = false, unique = true)
+    @JsonIgnore
+    private byte[] refreshTokenDigest;
     private boolean loggedOut;
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -1,22 +1,38 @@
 package com.bank.backend.model;
 
+import com.bank.backend.util.MoneyDeserializer;
+import com.bank.backend.util.MoneySerializer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import java.util.Date;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_account_id_id", columnList = "account_id, id"),
+        @Index(name = "idx_transaction_account_id_posted_at", columnList = "account_id, posted_at"),
+        @Index(name = "idx_transaction_posted_at", columnList = "posted_at")
+})
 @Getter
 @Setter
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
-    private double amount;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
     private String description;
     private TransactionType transactionType;
+    private Long linkedTransactionId;
+    @Column(nullable = false)
+    private Date postedAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
@@ -0,0 +1,14 @@
+package com.bank.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TransactionPage {
+
+    private final List<Transaction> transactions;
+    private final Long nextCursor;
+
+}
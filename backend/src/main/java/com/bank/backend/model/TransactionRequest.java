@@ -1,5 +1,9 @@
 package com.bank.backend.model;
 
+import com.bank.backend.util.MoneyDeserializer;
+import com.bank.backend.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import lombok.Getter;
@@ -10,7 +14,9 @@ import lombok.Setter;
 public class TransactionRequest {
 
     private Long accountId;
-    private double amount;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
     private String description;
     @Enumerated(value = EnumType.STRING)
     private TransactionType transactionType;
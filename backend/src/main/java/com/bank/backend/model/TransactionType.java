@@ -3,6 +3,9 @@ package com.bank.backend.model;
 public enum TransactionType {
 
     WITHDRAWAL,
-    LODGEMENT
+    LODGEMENT,
+    TRANSFER_OUT,
+    TRANSFER_IN,
+    INTEREST
 
 }
@@ -1,6 +1,7 @@
 package com.bank.backend.model;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
@@ -30,6 +31,9 @@ public class User implements UserDetails {
     private List<Account> accountList;
     @Enumerated(value = EnumType.STRING)
     private UserRole userRole;
+    @JsonIgnore
+    @Column(updatable = false)
+    private long tokenEpoch;
 
 
     @Override
@@ -0,0 +1,15 @@
+package com.bank.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserPrincipal {
+
+    private final Long id;
+    private final String username;
+    private final UserRole userRole;
+    private final long tokenEpoch;
+
+}
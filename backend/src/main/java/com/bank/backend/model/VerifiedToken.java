@@ -0,0 +1,17 @@
+package com.bank.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String tokenId;
+    private final Long userId;
+    private final String username;
+    private final UserRole userRole;
+    private final Date expiration;
+
+}
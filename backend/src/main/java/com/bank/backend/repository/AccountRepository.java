@@ -1,10 +1,77 @@
 package com.bank.backend.repository;
 
 import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountBalance;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.InterestBalance;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     boolean existsByAccountNumber(String accountNumber);
+    boolean existsByIdAndUserId(Long id, Long userId);
+    List<Account> findAllByUserId(Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balance = a.balance + :amount where a.id = :id and a.user.id = :userId and a.balance + :amount >= 0")
+    int applyBalanceChange(Long id, Long userId, long amount);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balance = a.balance + :amount where a.id = :id")
+    int creditBalance(Long id, long amount);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balance = a.balance + :amount where a.id = :id and a.balance + :amount >= 0")
+    int adjustBalance(Long id, long amount);
+
+    @Query("select new com.bank.backend.model.AccountBalance(a.id, a.user.id, a.balance) from Account a where a.id = :id")
+    Optional<AccountBalance> findAccountBalanceById(Long id);
+
+    @Query("select new com.bank.backend.model.InterestBalance(a.id, a.balance, a.interestRemainder) from Account a " +
+            "where a.accountType = :accountType and a.id > :afterId and a.id <= :toId order by a.id")
+    List<InterestBalance> findInterestBalancesByAccountType(AccountType accountType, Long afterId, Long toId, Limit limit);
+
+    @Query("select new com.bank.backend.model.AccountBalance(a.id, a.user.id, a.balance) from Account a " +
+            "where a.id > :afterId and a.id <= :toId order by a.id")
+    List<AccountBalance> findAccountBalances(Long afterId, Long toId, Limit limit);
+
+    @Query("select new com.bank.backend.model.AccountBalance(a.id, a.user.id, a.balance) from Account a where a.id in :ids")
+    List<AccountBalance> findAccountBalancesByIdIn(Collection<Long> ids);
+
+    @Query("select a.id from Account a where a.id > :afterId and a.id <= :toId order by a.id")
+    List<Long> findIds(Long afterId, Long toId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balance = (select coalesce(sum(" + TransactionRepository.SIGNED_AMOUNT + "), 0) from Transaction t " +
+            "where t.account.id = a.id) where a.id >= :fromId and a.id <= :toId")
+    int rebuildBalances(Long fromId, Long toId);
+
+    @Query("select min(a.id) from Account a")
+    Long findMinId();
+
+    @Query("select max(a.id) from Account a")
+    Long findMaxId();
+
+    @Query("select min(a.id) from Account a where a.accountType = :accountType")
+    Long findMinIdByAccountType(AccountType accountType);
+
+    @Query("select max(a.id) from Account a where a.accountType = :accountType")
+    Long findMaxIdByAccountType(AccountType accountType);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balance = :balance where a.id = :id and a.balance = :expectedBalance")
+    int compareAndSetBalance(Long id, long expectedBalance, long balance);
 
 }
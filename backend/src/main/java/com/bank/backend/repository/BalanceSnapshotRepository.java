@@ -0,0 +1,19 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(Long accountId, LocalDate snapshotDate);
+
+    @Query("select s from BalanceSnapshot s where s.accountId in :accountIds and s.snapshotDate = " +
+            "(select max(p.snapshotDate) from BalanceSnapshot p where p.accountId = s.accountId and p.snapshotDate < :snapshotDate)")
+    List<BalanceSnapshot> findLatestBefore(Collection<Long> accountIds, LocalDate snapshotDate);
+
+}
@@ -0,0 +1,30 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Query("select r.id from IdempotencyRecord r where r.expiresAt < :now order by r.expiresAt")
+    List<Long> findExpiredRecordIds(Date now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.id in :ids")
+    int deleteByIdIn(List<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.expiresAt <= :now")
+    int deleteExpiredRecord(Long id, Date now);
+
+}
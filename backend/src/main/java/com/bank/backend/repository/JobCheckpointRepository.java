@@ -0,0 +1,26 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+
+    boolean existsByJobAndRunDate(String job, LocalDate runDate);
+    Optional<JobCheckpoint> findFirstByJobAndRunDate(String job, LocalDate runDate);
+    Optional<JobCheckpoint> findFirstByJobAndCompletedTrueOrderByRunDateDesc(String job);
+    List<JobCheckpoint> findAllByJobAndCompletedFalseOrderByRunDateAscPartitionIndexAsc(String job);
+
+    @Modifying
+    @Transactional
+    @Query("update JobCheckpoint c set c.lastId = :nextLastId, c.processed = c.processed + :processed, c.completed = :completed, " +
+            "c.updatedAt = :now where c.id = :id and c.lastId = :lastId and c.completed = false")
+    int advance(Long id, long lastId, long nextLastId, long processed, boolean completed, Date now);
+
+}
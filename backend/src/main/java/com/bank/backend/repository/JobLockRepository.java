@@ -0,0 +1,27 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Date;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    @Modifying
+    @Transactional
+    @Query("update JobLock j set j.lockedUntil = :lockedUntil, j.lockedBy = :lockedBy where j.name = :name and j.lockedUntil < :now")
+    int acquire(String name, String lockedBy, Date now, Date lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query(value = "insert into job_lock (name, locked_until, locked_by) values (:name, :lockedUntil, :lockedBy)", nativeQuery = true)
+    int create(String name, String lockedBy, Date lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("update JobLock j set j.lockedUntil = :now where j.name = :name and j.lockedBy = :lockedBy")
+    int release(String name, String lockedBy, Date now);
+
+}
@@ -0,0 +1,16 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.JournalWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface JournalWatermarkRepository extends JpaRepository<JournalWatermark, String> {
+
+    @Modifying
+    @Transactional
+    @Query("update JournalWatermark w set w.flushedSequence = :sequence where w.journal = :journal and w.flushedSequence < :sequence")
+    int advance(String journal, long sequence);
+
+}
@@ -0,0 +1,7 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.PostingDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PostingDeadLetterRepository extends JpaRepository<PostingDeadLetter, Long> {
+}
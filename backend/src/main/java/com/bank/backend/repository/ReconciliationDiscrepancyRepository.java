@@ -0,0 +1,7 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.ReconciliationDiscrepancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+}
@@ -0,0 +1,56 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.StandingOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+
+    List<StandingOrder> findAllByUserId(Long userId);
+    List<StandingOrder> findAllByIdInAndClaimedBy(Collection<Long> ids, String claimedBy);
+
+    @Query("select s.id from StandingOrder s where s.active = true and s.nextRunAt <= :now " +
+            "and (s.lastRunAt is null or s.lastRunAt < :now) and (s.claimedUntil is null or s.claimedUntil < :now) order by s.nextRunAt")
+    List<Long> findDueStandingOrderIds(Date now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("update StandingOrder s set s.claimedBy = :claimedBy, s.claimedUntil = :claimedUntil where s.id in :ids " +
+            "and s.active = true and s.nextRunAt <= :now and (s.lastRunAt is null or s.lastRunAt < :now) " +
+            "and (s.claimedUntil is null or s.claimedUntil < :now)")
+    int claim(Collection<Long> ids, String claimedBy, Date now, Date claimedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("update StandingOrder s set s.nextRunAt = :nextRunAt, s.lastRunAt = :now, s.executions = s.executions + 1, " +
+            "s.claimedBy = null, s.claimedUntil = null where s.id = :id and s.claimedBy = :claimedBy")
+    int completeExecution(Long id, String claimedBy, Date now, Date nextRunAt);
+
+    @Modifying
+    @Transactional
+    @Query("update StandingOrder s set s.nextRunAt = :nextRunAt, s.lastRunAt = :now, s.executions = s.executions + 1, " +
+            "s.failedExecutions = s.failedExecutions + 1, s.claimedBy = null, s.claimedUntil = null where s.id = :id and s.claimedBy = :claimedBy")
+    int failExecution(Long id, String claimedBy, Date now, Date nextRunAt);
+
+    @Modifying
+    @Transactional
+    @Query("update StandingOrder s set s.claimedBy = null, s.claimedUntil = null where s.id = :id and s.claimedBy = :claimedBy")
+    int release(Long id, String claimedBy);
+
+    @Modifying
+    @Transactional
+    @Query("update StandingOrder s set s.active = false where s.id = :id")
+    int cancel(Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update StandingOrder s set s.active = false where s.id = :id and s.userId = :userId")
+    int cancel(Long id, Long userId);
+
+}
@@ -1,19 +1,26 @@
 package com.bank.backend.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import com.bank.backend.model.Token;
-import org.springframework.data.jpa.repository.Query;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
 
-    @Query("""
-select t from Token t inner join User u on t.user.id = u.id
-where t.user.id = :userId and t.loggedOut = false
-""")
-    List<Token> findAllAccessTokensByUser(Long userId);
-    Optional<Token> findByAccessToken(String accessToken);
-    Optional<Token> findByRefreshToken(String refreshToken);
+    Optional<Token> findByAccessTokenDigest(byte[] accessTokenDigest);
+    Optional<Token> findByRefreshTokenDigest(byte[] refreshTokenDigest);
+
+    @Query("select t.id from Token t where t.expiresAt < :now order by t.expiresAt")
+    List<Long> findExpiredTokenIds(Date now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Token t where t.id in :ids")
+    int deleteByIdIn(List<Long> ids);
 
 }
@@ -1,7 +1,55 @@
 package com.bank.backend.repository;
 
+import com.bank.backend.model.BalanceChange;
 import com.bank.backend.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    String SIGNED_AMOUNT = "case when t.transactionType in (com.bank.backend.model.TransactionType.WITHDRAWAL, " +
+            "com.bank.backend.model.TransactionType.TRANSFER_OUT) then -t.amount else t.amount end";
+
+    List<Transaction> findByAccountIdAndIdLessThanOrderByIdDesc(Long accountId, Long id, Limit limit);
+
+    Optional<Transaction> findByIdAndAccountId(Long id, Long accountId);
+
+    @Query("select t from Transaction t where t.account.id = :accountId and t.postedAt >= :from " +
+            "and (t.postedAt < :before or (t.postedAt = :before and t.id < :id)) order by t.postedAt desc, t.id desc")
+    List<Transaction> findPostedBetween(Long accountId, Date from, Date before, Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where t.account.id = :accountId order by t.id")
+    Stream<Transaction> streamByAccountId(Long accountId);
+
+    @Query("select coalesce(sum(" + SIGNED_AMOUNT + "), 0) from Transaction t where t.account.id = :accountId " +
+            "and t.postedAt >= :from and t.postedAt < :to")
+    long sumBalanceChange(Long accountId, Date from, Date to);
+
+    @Query("select count(t) from Transaction t where t.account.id >= :fromId and t.account.id <= :toId")
+    long countByAccountIdBetween(Long fromId, Long toId);
+
+    @Query("select new com.bank.backend.model.BalanceChange(t.account.id, sum(" + SIGNED_AMOUNT + ")) from Transaction t " +
+            "where t.account.id >= :fromId and t.account.id <= :toId group by t.account.id")
+    List<BalanceChange> sumBalanceChanges(Long fromId, Long toId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.bank.backend.model.BalanceChange(t.account.id, sum(" + SIGNED_AMOUNT + ")) from Transaction t " +
+            "where t.postedAt >= :from and t.postedAt < :to and t.account.id > :afterId group by t.account.id order by t.account.id")
+    Stream<BalanceChange> streamBalanceChanges(Date from, Date to, Long afterId);
+
 }
@@ -1,11 +1,26 @@
 package com.bank.backend.repository;
 
 import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    @Query("select new com.bank.backend.model.UserPrincipal(u.id, u.username, u.userRole, u.tokenEpoch) from User u where u.username = :username")
+    Optional<UserPrincipal> findPrincipalByUsername(String username);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.id = :userId")
+    int incrementTokenEpoch(Long userId);
+
+    @Query("select u.tokenEpoch from User u where u.id = :userId")
+    long findTokenEpochById(Long userId);
+
 }
\ No newline at end of file
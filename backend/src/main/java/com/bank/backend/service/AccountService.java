@@ -2,16 +2,20 @@ package com.bank.backend.service;
 
 import com.bank.backend.model.Account;
 import com.bank.backend.model.AccountRequest;
-import jakarta.servlet.http.HttpServletRequest;
+import com.bank.backend.model.TransactionPage;
+import com.bank.backend.model.VerifiedToken;
 
+import java.util.Date;
 import java.util.List;
 
 public interface AccountService {
 
     Account createAccount(AccountRequest accountRequest);
-    List<Account> getLoggedInAccounts(HttpServletRequest request);
-    Account getAccountById(Long id, HttpServletRequest request);
+    List<Account> getLoggedInAccounts(VerifiedToken verifiedToken);
+    Account getAccountById(Long id, VerifiedToken verifiedToken);
     List<Account> getAllAccounts();
-    boolean deleteAccountById(Long id, HttpServletRequest request);
+    boolean deleteAccountById(Long id, VerifiedToken verifiedToken);
+    TransactionPage getAccountTransactions(Long id, Long cursor, int size, VerifiedToken verifiedToken);
+    TransactionPage getAccountTransactions(Long id, Date from, Date to, Long cursor, int size, VerifiedToken verifiedToken);
 
 }
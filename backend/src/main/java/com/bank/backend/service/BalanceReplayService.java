@@ -0,0 +1,7 @@
+package com.bank.backend.service;
+
+public interface BalanceReplayService {
+
+    long replayBalances();
+
+}
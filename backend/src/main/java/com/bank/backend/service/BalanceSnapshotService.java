@@ -0,0 +1,13 @@
+package com.bank.backend.service;
+
+import com.bank.backend.model.BalanceAsOf;
+import java.time.LocalDate;
+import java.util.Date;
+
+public interface BalanceSnapshotService {
+
+    long createSnapshots();
+    long createSnapshots(LocalDate through);
+    BalanceAsOf getBalanceAsOf(Long accountId, Date asOf);
+
+}
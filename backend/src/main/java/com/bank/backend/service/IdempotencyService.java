@@ -0,0 +1,12 @@
+package com.bank.backend.service;
+
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    Transaction execute(Long userId, String idempotencyKey, TransactionRequest transactionRequest, Supplier<Transaction> action);
+    int purgeExpiredRecords();
+
+}
@@ -0,0 +1,10 @@
+package com.bank.backend.service;
+
+import java.time.LocalDate;
+
+public interface InterestAccrualService {
+
+    long accrueInterest();
+    long accrueInterest(LocalDate runDate);
+
+}
@@ -0,0 +1,10 @@
+package com.bank.backend.service;
+
+import java.time.Duration;
+
+public interface JobLockService {
+
+    boolean tryLock(String name, Duration duration);
+    void unlock(String name);
+
+}
@@ -1,14 +1,19 @@
 package com.bank.backend.service;
 
 import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
 import io.jsonwebtoken.Claims;
-import org.springframework.security.core.userdetails.UserDetails;
 import java.util.function.Function;
 
 public interface JwtService {
 
+    String TOKEN_EPOCH_CLAIM = "epoch";
+    String USER_ID_CLAIM = "uid";
+    String ROLE_CLAIM = "role";
+
     String extractUsername(String token);
-    boolean isValid(String token, UserDetails user);
+    Claims parseToken(String token);
+    boolean isValid(String token, Claims claims, UserPrincipal principal);
     boolean isValidRefreshToken(String token, User user);
     <T> T extractClaim(String token, Function<Claims, T> resolver);
     String generateAccessToken(User user);
@@ -0,0 +1,12 @@
+package com.bank.backend.service;
+
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+
+public interface PostingEngineService {
+
+    boolean isEnabled();
+    Transaction postTransaction(TransactionRequest transactionRequest, Long userId);
+    void invalidateBalances();
+
+}
@@ -0,0 +1,15 @@
+package com.bank.backend.service;
+
+import com.bank.backend.model.StandingOrder;
+import com.bank.backend.model.StandingOrderRequest;
+import com.bank.backend.model.VerifiedToken;
+import java.util.List;
+
+public interface StandingOrderService {
+
+    StandingOrder createStandingOrder(StandingOrderRequest standingOrderRequest, VerifiedToken verifiedToken);
+    List<StandingOrder> getLoggedInStandingOrders(VerifiedToken verifiedToken);
+    boolean cancelStandingOrder(Long id, VerifiedToken verifiedToken);
+    int executeDueStandingOrders();
+
+}
@@ -0,0 +1,11 @@
+package com.bank.backend.service;
+
+import com.bank.backend.model.StatementFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface StatementService {
+
+    long writeStatement(Long accountId, StatementFormat statementFormat, boolean gzip, OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,11 @@
+package com.bank.backend.service;
+
+import java.util.Date;
+
+public interface TokenCacheService {
+
+    boolean isCached(String token);
+    void cacheToken(String token, Date expiration);
+    void evictToken(String token);
+
+}
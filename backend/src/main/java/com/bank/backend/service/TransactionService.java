@@ -2,10 +2,15 @@ package com.bank.backend.service;
 
 import com.bank.backend.model.Transaction;
 import com.bank.backend.model.TransactionRequest;
-import jakarta.servlet.http.HttpServletRequest;
+import com.bank.backend.model.TransferRequest;
+import com.bank.backend.model.VerifiedToken;
+import java.util.List;
 
 public interface TransactionService {
 
-    Transaction createTransaction(TransactionRequest transactionRequest, HttpServletRequest request);
+    Transaction createTransaction(TransactionRequest transactionRequest, VerifiedToken verifiedToken);
+    Transaction createTransaction(TransactionRequest transactionRequest, VerifiedToken verifiedToken, String idempotencyKey);
+    List<Transaction> createTransactions(List<TransactionRequest> transactionRequests, VerifiedToken verifiedToken);
+    List<Transaction> createTransfer(TransferRequest transferRequest, VerifiedToken verifiedToken);
 
 }
@@ -0,0 +1,10 @@
+package com.bank.backend.service;
+
+import com.bank.backend.model.UserPrincipal;
+
+public interface UserPrincipalService {
+
+    UserPrincipal getUserPrincipal(String username, Long tokenEpoch);
+    void evictUserPrincipal(String username);
+
+}
@@ -4,6 +4,7 @@ import com.bank.backend.model.AuthenticationResponse;
 import com.bank.backend.model.LoginRequest;
 import com.bank.backend.model.User;
 import com.bank.backend.model.UserRequest;
+import com.bank.backend.model.VerifiedToken;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 
@@ -12,12 +13,12 @@ public interface UserService {
     AuthenticationResponse createNewUser(UserRequest userRequest);
     AuthenticationResponse loginUser(LoginRequest userRequest);
     AuthenticationResponse refreshToken(HttpServletRequest request);
-    User getLoggedInUser(HttpServletRequest request);
+    User getLoggedInUser(VerifiedToken verifiedToken);
     User getUserById(Long id);
     List<User> getAllUsers();
-    User updateLoggedInUser(HttpServletRequest request, UserRequest userRequest);
+    User updateLoggedInUser(VerifiedToken verifiedToken, UserRequest userRequest);
     User updateUserById(UserRequest userRequest, Long id);
-    boolean deleteLoggedInUser(HttpServletRequest request);
+    boolean deleteLoggedInUser(VerifiedToken verifiedToken);
     boolean deleteUserById(Long id);
 
 }
@@ -2,31 +2,36 @@ package com.bank.backend.service.impl;
 
 import com.bank.backend.model.Account;
 import com.bank.backend.model.AccountRequest;
-import com.bank.backend.model.User;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionPage;
 import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.TransactionRepository;
 import com.bank.backend.repository.UserRepository;
-import com.bank.backend.service.JwtService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import com.bank.backend.service.AccountService;
+import java.util.Date;
 import java.util.List;
-import java.util.Objects;
 import java.util.Random;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
+    @Value("${application.transactions.max-page-size:100}")
+    private int MAX_PAGE_SIZE;
+
     @Autowired
     private AccountRepository accountRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private TransactionRepository transactionRepository;
 
     @Autowired
-    private JwtService jwtService;
+    private UserRepository userRepository;
 
     @Override
     public Account createAccount(AccountRequest accountRequest) {
@@ -34,7 +39,7 @@ public class AccountServiceImpl implements AccountService {
             if (userRepository.findById(accountRequest.getUserId()).isPresent()) {
                 Account account = new Account();
                 account.setAccountNumber(createAccountNumber());
-                account.setBalance(0.0);
+                account.setBalance(0L);
                 account.setAccountType(accountRequest.getAccountType());
                 account.setUser(userRepository.findById(accountRequest.getUserId()).get());
 
@@ -46,26 +51,17 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public List<Account> getLoggedInAccounts(HttpServletRequest request) {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public List<Account> getLoggedInAccounts(VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
             return null;
         }
 
-        String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
-
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user != null) {
-            return user.getAccountList();
-        }
-
-        return null;
+        return accountRepository.findAllByUserId(verifiedToken.getUserId());
     }
 
     @Override
-    public Account getAccountById(Long id, HttpServletRequest request) {
-        if (isUserAllowed(id, request)) {
+    public Account getAccountById(Long id, VerifiedToken verifiedToken) {
+        if (isUserAllowed(id, verifiedToken)) {
             return accountRepository.findById(id).orElse(null);
         }
 
@@ -78,8 +74,8 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    public boolean deleteAccountById(Long id, HttpServletRequest request) {
-       if (accountRepository.existsById(id) && isUserAllowed(id, request)) {
+    public boolean deleteAccountById(Long id, VerifiedToken verifiedToken) {
+       if (accountRepository.existsById(id) && isUserAllowed(id, verifiedToken)) {
            accountRepository.deleteById(id);
            return true;
        }
@@ -87,6 +83,52 @@ public class AccountServiceImpl implements AccountService {
        return false;
     }
 
+    @Override
+    public TransactionPage getAccountTransactions(Long id, Long cursor, int size, VerifiedToken verifiedToken) {
+        if (size <= 0 || !isUserAllowed(id, verifiedToken)) {
+            return null;
+        }
+
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<Transaction> transactions = transactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc(
+                id, cursor == null ? Long.MAX_VALUE : cursor, Limit.of(pageSize + 1));
+
+        return createTransactionPage(transactions, pageSize);
+    }
+
+    @Override
+    public TransactionPage getAccountTransactions(Long id, Date from, Date to, Long cursor, int size, VerifiedToken verifiedToken) {
+        if (from == null || to == null || !from.before(to) || size <= 0 || !isUserAllowed(id, verifiedToken)) {
+            return null;
+        }
+
+        Date before = to;
+        Long beforeId = Long.MIN_VALUE;
+        if (cursor != null) {
+            Transaction transaction = transactionRepository.findByIdAndAccountId(cursor, id).orElse(null);
+            if (transaction == null) {
+                return null;
+            }
+
+            before = transaction.getPostedAt();
+            beforeId = transaction.getId();
+        }
+
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<Transaction> transactions = transactionRepository.findPostedBetween(id, from, before, beforeId, Limit.of(pageSize + 1));
+
+        return createTransactionPage(transactions, pageSize);
+    }
+
+    private TransactionPage createTransactionPage(List<Transaction> transactions, int pageSize) {
+        if (transactions.size() > pageSize) {
+            transactions = transactions.subList(0, pageSize);
+            return new TransactionPage(transactions, transactions.get(pageSize - 1).getId());
+        }
+
+        return new TransactionPage(transactions, null);
+    }
+
     private String createAccountNumber() {
         String accountNumber = String.format("%06d", new Random().nextInt(1000000));
         if (accountRepository.existsByAccountNumber(accountNumber)) {
@@ -103,24 +145,16 @@ public class AccountServiceImpl implements AccountService {
                 accountRequest.getUserId() != null;
     }
 
-    private boolean isUserAllowed(Long id, HttpServletRequest request) {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return false;
-        }
-
-        String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) {
+    private boolean isUserAllowed(Long id, VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
             return false;
         }
 
-        if (user.getUserRole() == UserRole.ADMIN) {
+        if (verifiedToken.getUserRole() == UserRole.ADMIN) {
             return true;
         }
 
-        return user.getAccountList().stream().anyMatch(account -> Objects.equals(account.getId(), id));
+        return accountRepository.existsByIdAndUserId(id, verifiedToken.getUserId());
     }
 
 }
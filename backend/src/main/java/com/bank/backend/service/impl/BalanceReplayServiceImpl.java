@@ -0,0 +1,223 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.JobCheckpoint;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.BalanceReplayService;
+import com.bank.backend.service.JobLockService;
+import com.bank.backend.service.PostingEngineService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class BalanceReplayServiceImpl implements BalanceReplayService, ApplicationRunner {
+
+    private static final String JOB_NAME = "balance-replay";
+
+    @Value("${application.replay.enabled:false}")
+    private boolean ENABLED;
+
+    @Value("${application.replay.chunk-size:1000}")
+    private int CHUNK_SIZE;
+
+    @Value("${application.replay.parallelism:4}")
+    private int PARALLELISM;
+
+    @Value("${application.replay.lock-duration:3600000}")
+    private long LOCK_DURATION;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private PostingEngineService postingEngineService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong throughput = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("balance.replay.progress", processed, value -> total.get() == 0 ? 0 : (double) value.get() / total.get());
+        meterRegistry.gauge("balance.replay.throughput", throughput);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (ENABLED) {
+            replayBalances();
+        }
+    }
+
+    @Override
+    public long replayBalances() {
+        if (!jobLockService.tryLock(JOB_NAME, Duration.ofMillis(LOCK_DURATION))) {
+            return 0;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            List<JobCheckpoint> jobCheckpoints = jobCheckpointRepository.findAllByJobAndCompletedFalseOrderByRunDateAscPartitionIndexAsc(JOB_NAME);
+            if (jobCheckpoints.isEmpty()) {
+                jobCheckpoints = planReplay(LocalDate.now(ZoneOffset.UTC));
+            }
+
+            total.set(accountRepository.count());
+            processed.set(jobCheckpoints.stream().mapToLong(JobCheckpoint::getProcessed).sum());
+
+            List<Callable<Long>> partitions = new ArrayList<>();
+            for (JobCheckpoint jobCheckpoint : jobCheckpoints) {
+                partitions.add(() -> replayPartition(jobCheckpoint));
+            }
+
+            long replayed = 0;
+            RuntimeException failure = null;
+            ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+            try {
+                for (Future<Long> result : pool.invokeAll(partitions)) {
+                    try {
+                        replayed += getResult(result);
+                    } catch (RuntimeException e) {
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+
+            postingEngineService.invalidateBalances();
+            if (failure != null) {
+                meterRegistry.counter("balance.replay.failed").increment();
+                throw failure;
+            }
+
+            long elapsed = System.nanoTime() - startTime;
+            meterRegistry.timer("balance.replay.duration").record(elapsed, TimeUnit.NANOSECONDS);
+            if (replayed > 0) {
+                throughput.set(replayed * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+            }
+
+            return replayed;
+        } finally {
+            jobLockService.unlock(JOB_NAME);
+        }
+    }
+
+    private List<JobCheckpoint> planReplay(LocalDate runDate) {
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        if (minId == null || maxId == null || jobCheckpointRepository.existsByJobAndRunDate(JOB_NAME, runDate)) {
+            return List.of();
+        }
+
+        List<JobCheckpoint> jobCheckpoints = new ArrayList<>();
+        long partitionSize = Math.max(1, (maxId - minId + PARALLELISM) / PARALLELISM);
+        for (long lastId = minId - 1; lastId < maxId; lastId += partitionSize) {
+            JobCheckpoint jobCheckpoint = new JobCheckpoint();
+            jobCheckpoint.setJob(JOB_NAME);
+            jobCheckpoint.setRunDate(runDate);
+            jobCheckpoint.setPartitionIndex(jobCheckpoints.size());
+            jobCheckpoint.setLastId(lastId);
+            jobCheckpoint.setEndId(Math.min(maxId, lastId + partitionSize));
+            jobCheckpoint.setUpdatedAt(new Date());
+            jobCheckpoints.add(jobCheckpoint);
+        }
+
+        return jobCheckpointRepository.saveAll(jobCheckpoints);
+    }
+
+    private long replayPartition(JobCheckpoint jobCheckpoint) {
+        long lastId = jobCheckpoint.getLastId();
+        long replayed = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = accountRepository.findIds(lastId, jobCheckpoint.getEndId(), Limit.of(CHUNK_SIZE));
+            long expectedLastId = lastId;
+            long nextLastId = ids.isEmpty() ? lastId : ids.get(ids.size() - 1);
+            boolean completed = ids.size() < CHUNK_SIZE;
+
+            Boolean committed = transactionTemplate.execute(status -> {
+                if (jobCheckpointRepository.advance(jobCheckpoint.getId(), expectedLastId, nextLastId, ids.size(), completed, new Date()) != 1) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+
+                if (!ids.isEmpty()) {
+                    accountRepository.rebuildBalances(ids.get(0), nextLastId);
+                }
+                return true;
+            });
+
+            if (!Boolean.TRUE.equals(committed)) {
+                break;
+            }
+
+            if (!ids.isEmpty()) {
+                meterRegistry.counter("balance.replay.accounts").increment(ids.size());
+                meterRegistry.counter("balance.replay.transactions").increment(transactionRepository.countByAccountIdBetween(ids.get(0), nextLastId));
+            }
+
+            replayed += ids.size();
+            processed.addAndGet(ids.size());
+            lastId = nextLastId;
+            if (completed) {
+                break;
+            }
+        }
+
+        return replayed;
+    }
+
+    private long getResult(Future<Long> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Balance replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Balance replay partition failed", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.BalanceAsOf;
+import com.bank.backend.model.BalanceChange;
+import com.bank.backend.model.BalanceSnapshot;
+import com.bank.backend.model.JobCheckpoint;
+import com.bank.backend.repository.BalanceSnapshotRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.BalanceSnapshotService;
+import com.bank.backend.service.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class BalanceSnapshotServiceImpl implements BalanceSnapshotService {
+
+    private static final String JOB_NAME = "balance-snapshot";
+
+    private static final Date EPOCH = new Date(0);
+
+    @Value("${application.balance-snapshots.chunk-size:1000}")
+    private int CHUNK_SIZE;
+
+    @Value("${application.balance-snapshots.grace-period:300000}")
+    private long GRACE_PERIOD;
+
+    @Value("${application.balance-snapshots.lock-duration:3600000}")
+    private long LOCK_DURATION;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate chunkTransactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        chunkTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.balance-snapshots.interval:600000}", initialDelayString = "${application.balance-snapshots.initial-delay:60000}")
+    public long createSnapshots() {
+        return createSnapshots(LocalDate.ofInstant(Instant.now().minusMillis(GRACE_PERIOD), ZoneOffset.UTC).minusDays(1));
+    }
+
+    @Override
+    public long createSnapshots(LocalDate through) {
+        if (!jobLockService.tryLock(JOB_NAME, Duration.ofMillis(LOCK_DURATION))) {
+            return 0;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            LocalDate snapshotDate = jobCheckpointRepository.findFirstByJobAndCompletedTrueOrderByRunDateDesc(JOB_NAME)
+                    .map(jobCheckpoint -> jobCheckpoint.getRunDate().plusDays(1))
+                    .orElse(through);
+
+            long written = 0;
+            for (; !snapshotDate.isAfter(through); snapshotDate = snapshotDate.plusDays(1)) {
+                written += createSnapshotsFor(snapshotDate);
+            }
+
+            meterRegistry.timer("balance.snapshot.duration").record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("balance.snapshot.accounts").increment(written);
+            return written;
+        } finally {
+            jobLockService.unlock(JOB_NAME);
+        }
+    }
+
+    @Override
+    public BalanceAsOf getBalanceAsOf(Long accountId, Date asOf) {
+        if (accountId == null || asOf == null) {
+            return null;
+        }
+
+        LocalDate asOfDate = LocalDate.ofInstant(asOf.toInstant(), ZoneOffset.UTC);
+        BalanceSnapshot balanceSnapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, asOfDate).orElse(null);
+
+        if (balanceSnapshot == null) {
+            return new BalanceAsOf(accountId, asOf, transactionRepository.sumBalanceChange(accountId, EPOCH, asOf));
+        }
+
+        Date from = toDate(balanceSnapshot.getSnapshotDate().plusDays(1));
+        return new BalanceAsOf(accountId, asOf, balanceSnapshot.getBalance() + transactionRepository.sumBalanceChange(accountId, from, asOf));
+    }
+
+    private long createSnapshotsFor(LocalDate snapshotDate) {
+        JobCheckpoint jobCheckpoint = jobCheckpointRepository.findFirstByJobAndRunDate(JOB_NAME, snapshotDate)
+                .orElseGet(() -> jobCheckpointRepository.save(createJobCheckpoint(snapshotDate)));
+        if (jobCheckpoint.isCompleted()) {
+            return 0;
+        }
+
+        Date from = toDate(snapshotDate);
+        Date to = toDate(snapshotDate.plusDays(1));
+        AtomicLong lastId = new AtomicLong(jobCheckpoint.getLastId());
+        AtomicLong written = new AtomicLong();
+        List<BalanceChange> balanceChanges = new ArrayList<>(CHUNK_SIZE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BalanceChange> stream = transactionRepository.streamBalanceChanges(from, to, jobCheckpoint.getLastId())) {
+                Iterator<BalanceChange> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    balanceChanges.add(iterator.next());
+                    if (balanceChanges.size() == CHUNK_SIZE) {
+                        lastId.set(writeSnapshots(jobCheckpoint, lastId.get(), balanceChanges, false));
+                        written.addAndGet(balanceChanges.size());
+                        balanceChanges.clear();
+                    }
+                }
+            }
+        });
+
+        writeSnapshots(jobCheckpoint, lastId.get(), balanceChanges, true);
+        return written.get() + balanceChanges.size();
+    }
+
+    private long writeSnapshots(JobCheckpoint jobCheckpoint, long lastId, List<BalanceChange> balanceChanges, boolean completed) {
+        LocalDate snapshotDate = jobCheckpoint.getRunDate();
+        long nextLastId = balanceChanges.isEmpty() ? lastId : balanceChanges.get(balanceChanges.size() - 1).getAccountId();
+
+        chunkTransactionTemplate.executeWithoutResult(status -> {
+            if (jobCheckpointRepository.advance(jobCheckpoint.getId(), lastId, nextLastId, balanceChanges.size(), completed, new Date()) != 1) {
+                throw new OptimisticLockingFailureException("Checkpoint moved for " + JOB_NAME + " " + snapshotDate);
+            }
+
+            if (balanceChanges.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Long> balances = balanceSnapshotRepository.findLatestBefore(
+                    balanceChanges.stream().map(BalanceChange::getAccountId).toList(), snapshotDate).stream()
+                    .collect(Collectors.toMap(BalanceSnapshot::getAccountId, BalanceSnapshot::getBalance));
+            Date from = toDate(snapshotDate);
+
+            List<BalanceSnapshot> balanceSnapshots = new ArrayList<>(balanceChanges.size());
+            for (BalanceChange balanceChange : balanceChanges) {
+                Long balance = balances.get(balanceChange.getAccountId());
+                if (balance == null) {
+                    balance = transactionRepository.sumBalanceChange(balanceChange.getAccountId(), EPOCH, from);
+                }
+
+                BalanceSnapshot balanceSnapshot = new BalanceSnapshot();
+                balanceSnapshot.setAccountId(balanceChange.getAccountId());
+                balanceSnapshot.setSnapshotDate(snapshotDate);
+                balanceSnapshot.setBalance(balance + balanceChange.getAmount());
+                balanceSnapshots.add(balanceSnapshot);
+            }
+
+            balanceSnapshotRepository.saveAll(balanceSnapshots);
+        });
+
+        return nextLastId;
+    }
+
+    private JobCheckpoint createJobCheckpoint(LocalDate snapshotDate) {
+        JobCheckpoint jobCheckpoint = new JobCheckpoint();
+        jobCheckpoint.setJob(JOB_NAME);
+        jobCheckpoint.setRunDate(snapshotDate);
+        jobCheckpoint.setEndId(Long.MAX_VALUE);
+        jobCheckpoint.setUpdatedAt(new Date());
+
+        return jobCheckpoint;
+    }
+
+    private Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.IdempotencyRecord;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.repository.IdempotencyRecordRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.IdempotencyService;
+import com.bank.backend.service.JobLockService;
+import com.bank.backend.util.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final String JOB_NAME = "idempotency-purge";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Value("${application.idempotency.ttl:86400000}")
+    private long TTL;
+
+    @Value("${application.idempotency.cache-size:100000}")
+    private int MAX_CACHE_SIZE;
+
+    @Value("${application.idempotency.batch-size:1000}")
+    private int BATCH_SIZE;
+
+    @Value("${application.idempotency.max-batches:100}")
+    private int MAX_BATCHES;
+
+    @Value("${application.idempotency.lock-duration:600000}")
+    private long LOCK_DURATION;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<IdempotentResult>> results = new ConcurrentHashMap<>();
+
+    @Override
+    public Transaction execute(Long userId, String idempotencyKey, TransactionRequest transactionRequest, Supplier<Transaction> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return null;
+        }
+
+        String cacheKey = userId + ":" + idempotencyKey;
+        byte[] requestDigest = digest(transactionRequest);
+
+        while (true) {
+            CompletableFuture<IdempotentResult> future = new CompletableFuture<>();
+            CompletableFuture<IdempotentResult> existing = results.putIfAbsent(cacheKey, future);
+
+            if (existing != null) {
+                IdempotentResult result;
+                try {
+                    result = existing.join();
+                } catch (CompletionException e) {
+                    continue;
+                }
+
+                if (result.expiresAt() <= System.currentTimeMillis()) {
+                    results.remove(cacheKey, existing);
+                    continue;
+                }
+
+                meterRegistry.counter("idempotency.replayed").increment();
+                return replay(result, requestDigest);
+            }
+
+            try {
+                IdempotentResult result = findRecord(userId, idempotencyKey)
+                        .map(this::toResult)
+                        .orElseGet(() -> executeOnce(userId, idempotencyKey, requestDigest, action));
+                future.complete(result);
+                trimCache(cacheKey, future);
+                return replay(result, requestDigest);
+            } catch (RuntimeException e) {
+                results.remove(cacheKey, future);
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.idempotency.interval:600000}", initialDelayString = "${application.idempotency.initial-delay:60000}")
+    public int purgeExpiredRecords() {
+        long now = System.currentTimeMillis();
+        results.values().removeIf(future -> future.isDone() && !future.isCompletedExceptionally() && future.join().expiresAt() <= now);
+
+        if (!jobLockService.tryLock(JOB_NAME, Duration.ofMillis(LOCK_DURATION))) {
+            return 0;
+        }
+
+        try {
+            int deleted = meterRegistry.timer("idempotency.purge.duration").record(this::deleteExpiredRecords);
+            meterRegistry.counter("idempotency.purge.deleted").increment(deleted);
+            return deleted;
+        } finally {
+            jobLockService.unlock(JOB_NAME);
+        }
+    }
+
+    private IdempotentResult executeOnce(Long userId, String idempotencyKey, byte[] requestDigest, Supplier<Transaction> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Transaction transaction = action.get();
+
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setUserId(userId);
+                record.setIdempotencyKey(idempotencyKey);
+                record.setRequestDigest(requestDigest);
+                record.setTransactionId(transaction == null ? null : transaction.getId());
+                record.setExpiresAt(new Date(System.currentTimeMillis() + TTL));
+                idempotencyRecordRepository.saveAndFlush(record);
+
+                return new IdempotentResult(requestDigest, transaction, record.getExpiresAt().getTime());
+            });
+        } catch (DataIntegrityViolationException e) {
+            return idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .filter(record -> !isExpired(record))
+                    .map(this::toResult)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<IdempotencyRecord> findRecord(Long userId, String idempotencyKey) {
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (record.isPresent() && isExpired(record.get())) {
+            idempotencyRecordRepository.deleteExpiredRecord(record.get().getId(), new Date());
+            return Optional.empty();
+        }
+
+        return record;
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return record.getExpiresAt().getTime() <= System.currentTimeMillis();
+    }
+
+    private IdempotentResult toResult(IdempotencyRecord record) {
+        Transaction transaction = record.getTransactionId() == null ? null
+                : transactionRepository.findById(record.getTransactionId()).orElse(null);
+        return new IdempotentResult(record.getRequestDigest(), transaction, record.getExpiresAt().getTime());
+    }
+
+    private Transaction replay(IdempotentResult result, byte[] requestDigest) {
+        if (!Arrays.equals(result.requestDigest(), requestDigest)) {
+            return null;
+        }
+
+        return result.transaction();
+    }
+
+    private void trimCache(String cacheKey, CompletableFuture<IdempotentResult> future) {
+        if (results.size() <= MAX_CACHE_SIZE) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        results.values().removeIf(f -> f.isDone() && !f.isCompletedExceptionally() && f.join().expiresAt() <= now);
+        if (results.size() > MAX_CACHE_SIZE) {
+            results.remove(cacheKey, future);
+        }
+    }
+
+    private int deleteExpiredRecords() {
+        Date now = new Date();
+        int deleted = 0;
+
+        for (int batch = 0; batch < MAX_BATCHES; batch++) {
+            List<Long> ids = idempotencyRecordRepository.findExpiredRecordIds(now, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            deleted += idempotencyRecordRepository.deleteByIdIn(ids);
+            if (ids.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+
+        return deleted;
+    }
+
+    private byte[] digest(TransactionRequest transactionRequest) {
+        return TokenDigest.digest(transactionRequest.getAccountId() + "|" + transactionRequest.getTransactionType()
+                + "|" + transactionRequest.getAmount() + "|" + transactionRequest.getDescription());
+    }
+
+    private record IdempotentResult(byte[] requestDigest, Transaction transaction, long expiresAt) {
+    }
+
+}
@@ -0,0 +1,292 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.InterestBalance;
+import com.bank.backend.model.JobCheckpoint;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.InterestAccrualService;
+import com.bank.backend.service.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class InterestAccrualServiceImpl implements InterestAccrualService, DisposableBean {
+
+    private static final String JOB_NAME = "interest-accrual";
+
+    private static final int REMAINDER_SCALE = 9;
+
+    @Value("${application.interest.annual-rate:0.0125}")
+    private BigDecimal ANNUAL_RATE;
+
+    @Value("${application.interest.day-count:365}")
+    private int DAY_COUNT;
+
+    @Value("${application.interest.chunk-size:1000}")
+    private int CHUNK_SIZE;
+
+    @Value("${application.interest.parallelism:4}")
+    private int PARALLELISM;
+
+    @Value("${application.interest.lock-duration:3600000}")
+    private long LOCK_DURATION;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong throughput = new AtomicLong();
+
+    private BigDecimal dailyRate;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        dailyRate = ANNUAL_RATE.divide(BigDecimal.valueOf(DAY_COUNT), MathContext.DECIMAL64);
+        meterRegistry.gauge("interest.accrual.throughput", throughput);
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "interest-accrual-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.interest.interval:600000}", initialDelayString = "${application.interest.initial-delay:60000}")
+    public long accrueInterest() {
+        return accrueInterest(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    @Override
+    public long accrueInterest(LocalDate runDate) {
+        if (!jobLockService.tryLock(JOB_NAME, Duration.ofMillis(LOCK_DURATION))) {
+            return 0;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            planRun(runDate);
+
+            List<Future<Long>> results = new ArrayList<>();
+            for (JobCheckpoint jobCheckpoint : jobCheckpointRepository.findAllByJobAndCompletedFalseOrderByRunDateAscPartitionIndexAsc(JOB_NAME)) {
+                results.add(executor.submit(() -> accruePartition(jobCheckpoint)));
+            }
+
+            long accrued = 0;
+            RuntimeException failure = null;
+            for (Future<Long> result : results) {
+                try {
+                    accrued += getResult(result);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            long elapsed = System.nanoTime() - startTime;
+            meterRegistry.timer("interest.accrual.duration").record(elapsed, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("interest.accrual.accounts").increment(accrued);
+            if (accrued > 0) {
+                throughput.set(accrued * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+            }
+
+            if (failure != null) {
+                meterRegistry.counter("interest.accrual.failed").increment();
+                throw failure;
+            }
+
+            return accrued;
+        } finally {
+            jobLockService.unlock(JOB_NAME);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void planRun(LocalDate runDate) {
+        if (jobCheckpointRepository.existsByJobAndRunDate(JOB_NAME, runDate)) {
+            return;
+        }
+
+        Long minId = accountRepository.findMinIdByAccountType(AccountType.SAVINGS);
+        Long maxId = accountRepository.findMaxIdByAccountType(AccountType.SAVINGS);
+        List<JobCheckpoint> jobCheckpoints = new ArrayList<>();
+
+        if (minId == null || maxId == null) {
+            JobCheckpoint jobCheckpoint = createJobCheckpoint(runDate, 0, 0, 0);
+            jobCheckpoint.setCompleted(true);
+            jobCheckpoints.add(jobCheckpoint);
+        } else {
+            long partitionSize = Math.max(1, (maxId - minId + PARALLELISM) / PARALLELISM);
+            for (long lastId = minId - 1; lastId < maxId; lastId += partitionSize) {
+                jobCheckpoints.add(createJobCheckpoint(runDate, jobCheckpoints.size(), lastId, Math.min(maxId, lastId + partitionSize)));
+            }
+        }
+
+        jobCheckpointRepository.saveAll(jobCheckpoints);
+    }
+
+    private long accruePartition(JobCheckpoint jobCheckpoint) {
+        String description = "Interest " + jobCheckpoint.getRunDate();
+        long lastId = jobCheckpoint.getLastId();
+        long accrued = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<InterestBalance> accounts = accountRepository.findInterestBalancesByAccountType(AccountType.SAVINGS, lastId,
+                    jobCheckpoint.getEndId(), Limit.of(CHUNK_SIZE));
+            long[] interest = new long[accounts.size()];
+            long[] remainders = new long[accounts.size()];
+            for (int i = 0; i < accounts.size(); i++) {
+                calculateInterest(accounts.get(i), interest, remainders, i);
+            }
+            long expectedLastId = lastId;
+            long nextLastId = accounts.isEmpty() ? lastId : accounts.get(accounts.size() - 1).getId();
+            boolean completed = accounts.size() < CHUNK_SIZE;
+
+            Boolean committed = transactionTemplate.execute(status -> {
+                if (jobCheckpointRepository.advance(jobCheckpoint.getId(), expectedLastId, nextLastId, accounts.size(), completed, new Date()) != 1) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+
+                postInterest(accounts, interest, remainders, description);
+                return true;
+            });
+
+            if (!Boolean.TRUE.equals(committed)) {
+                break;
+            }
+
+            accrued += accounts.size();
+            lastId = nextLastId;
+            if (completed) {
+                break;
+            }
+        }
+
+        return accrued;
+    }
+
+    private void postInterest(List<InterestBalance> accounts, long[] interest, long[] remainders, String description) {
+        List<Object[]> balanceChanges = new ArrayList<>(accounts.size());
+        List<Transaction> transactions = new ArrayList<>(accounts.size());
+        Date postedAt = new Date();
+
+        for (int i = 0; i < accounts.size(); i++) {
+            Long accountId = accounts.get(i).getId();
+            if (interest[i] > 0 || remainders[i] != accounts.get(i).getInterestRemainder()) {
+                balanceChanges.add(new Object[]{ interest[i], remainders[i], accountId });
+            }
+            if (interest[i] <= 0) {
+                continue;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setAmount(interest[i]);
+            transaction.setDescription(description);
+            transaction.setTransactionType(TransactionType.INTEREST);
+            transaction.setPostedAt(postedAt);
+            transaction.setAccount(accountRepository.getReferenceById(accountId));
+            transactions.add(transaction);
+        }
+
+        if (!balanceChanges.isEmpty()) {
+            jdbcTemplate.batchUpdate("update account set balance = balance + ?, interest_remainder = ? where id = ?", balanceChanges);
+        }
+        if (!transactions.isEmpty()) {
+            transactionRepository.saveAll(transactions);
+        }
+    }
+
+    private void calculateInterest(InterestBalance account, long[] interest, long[] remainders, int index) {
+        if (account.getBalance() <= 0) {
+            remainders[index] = account.getInterestRemainder();
+            return;
+        }
+
+        BigDecimal accrued = BigDecimal.valueOf(account.getBalance()).multiply(dailyRate)
+                .add(BigDecimal.valueOf(account.getInterestRemainder(), REMAINDER_SCALE));
+        interest[index] = accrued.setScale(0, RoundingMode.DOWN).longValueExact();
+        remainders[index] = accrued.subtract(BigDecimal.valueOf(interest[index])).movePointRight(REMAINDER_SCALE)
+                .setScale(0, RoundingMode.DOWN).longValueExact();
+    }
+
+    private long getResult(Future<Long> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interest accrual interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Interest accrual partition failed", e.getCause());
+        }
+    }
+
+    private JobCheckpoint createJobCheckpoint(LocalDate runDate, int partitionIndex, long lastId, long endId) {
+        JobCheckpoint jobCheckpoint = new JobCheckpoint();
+        jobCheckpoint.setJob(JOB_NAME);
+        jobCheckpoint.setRunDate(runDate);
+        jobCheckpoint.setPartitionIndex(partitionIndex);
+        jobCheckpoint.setLastId(lastId);
+        jobCheckpoint.setEndId(endId);
+        jobCheckpoint.setUpdatedAt(new Date());
+
+        return jobCheckpoint;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.repository.JobLockRepository;
+import com.bank.backend.service.JobLockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+@Service
+public class JobLockServiceImpl implements JobLockService {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Override
+    public boolean tryLock(String name, Duration duration) {
+        Date now = new Date();
+        Date lockedUntil = new Date(now.getTime() + duration.toMillis());
+
+        if (jobLockRepository.acquire(name, instanceId, now, lockedUntil) == 1) {
+            return true;
+        }
+
+        if (jobLockRepository.existsById(name)) {
+            return false;
+        }
+
+        try {
+            return jobLockRepository.create(name, instanceId, lockedUntil) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void unlock(String name) {
+        jobLockRepository.release(name, instanceId, new Date());
+    }
+
+}
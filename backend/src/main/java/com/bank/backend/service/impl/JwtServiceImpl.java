@@ -1,26 +1,26 @@
 package com.bank.backend.service.impl;
 
+import com.bank.backend.configuration.JwtKeyRing;
 import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
 import com.bank.backend.repository.TokenRepository;
 import com.bank.backend.service.JwtService;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.util.TokenDigest;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String SECRET_KEY;
-
     @Value("${application.security.jwt.access-token-expiration}")
     private long ACCESS_TOKEN_EXPIRATION;
 
@@ -30,39 +30,65 @@ public class JwtServiceImpl implements JwtService {
     @Autowired
     private TokenRepository tokenRepository;
 
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
     @Override
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     @Override
-    public boolean isValid(String token, UserDetails user) {
-        String username = extractUsername(token);
+    public Claims parseToken(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        boolean validToken = tokenRepository.findByAccessToken(token).map(
+    @Override
+    public boolean isValid(String token, Claims claims, UserPrincipal principal) {
+        String username = claims.getSubject();
+        if (!username.equals(principal.getUsername()) || !principal.getId().equals(claims.get(USER_ID_CLAIM, Long.class))
+                || claims.getExpiration().before(new Date()) || !isCurrentEpoch(claims, principal.getTokenEpoch())) {
+            return false;
+        }
+
+        if (tokenCacheService.isCached(token)) {
+            return true;
+        }
+
+        boolean validToken = tokenRepository.findByAccessTokenDigest(TokenDigest.digest(token)).map(
                 t -> !t.isLoggedOut()
         ).orElse(false);
 
-        return (username.equals(user.getUsername())) && !isTokenExpired(token) && validToken;
+        if (validToken) {
+            tokenCacheService.cacheToken(token, claims.getExpiration());
+        }
+
+        return validToken;
     }
 
     @Override
     public boolean isValidRefreshToken(String token, User user) {
-        String username = extractUsername(token);
+        Claims claims = extractAllClaims(token);
+        String username = claims.getSubject();
+        if (!username.equals(user.getUsername()) || claims.getExpiration().before(new Date()) || !isCurrentEpoch(claims, user.getTokenEpoch())) {
+            return false;
+        }
 
-        boolean validRefreshToken = tokenRepository.findByRefreshToken(token).map(
+        return tokenRepository.findByRefreshTokenDigest(TokenDigest.digest(token)).map(
                 t -> !t.isLoggedOut()
         ).orElse(false);
-
-        return (username.equals(user.getUsername())) && !isTokenExpired(token) && validRefreshToken;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isCurrentEpoch(Claims claims, long userEpoch) {
+        Long tokenEpoch = claims.get(TOKEN_EPOCH_CLAIM, Long.class);
+        return tokenEpoch != null && tokenEpoch == userEpoch;
     }
 
     @Override
@@ -72,9 +98,7 @@ public class JwtServiceImpl implements JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtKeyRing.getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -91,18 +115,18 @@ public class JwtServiceImpl implements JwtService {
 
     private String generateToken(User user, long expireTime) {
         String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyRing.getActiveKeyId())
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getUserRole().name())
+                .claim(TOKEN_EPOCH_CLAIM, user.getTokenEpoch())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expireTime))
-                .signWith(getSignInKey())
+                .signWith(jwtKeyRing.getActiveKey())
                 .compact();
 
         return token;
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,646 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.exception.ServiceUnavailableException;
+import com.bank.backend.model.AccountBalance;
+import com.bank.backend.model.JournalWatermark;
+import com.bank.backend.model.PostingDeadLetter;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JournalWatermarkRepository;
+import com.bank.backend.repository.PostingDeadLetterRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.PostingEngineService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Service
+public class PostingEngineServiceImpl implements PostingEngineService, DisposableBean {
+
+    @Value("${application.posting-engine.enabled:false}")
+    private boolean ENABLED;
+
+    @Value("${application.posting-engine.shards:4}")
+    private int SHARDS;
+
+    @Value("${application.posting-engine.queue-capacity:10000}")
+    private int QUEUE_CAPACITY;
+
+    @Value("${application.posting-engine.batch-size:256}")
+    private int BATCH_SIZE;
+
+    @Value("${application.posting-engine.accounts-per-shard:10000}")
+    private int ACCOUNTS_PER_SHARD;
+
+    @Value("${application.posting-engine.retry-after:1}")
+    private long RETRY_AFTER;
+
+    @Value("${application.posting-engine.timeout:5000}")
+    private long TIMEOUT;
+
+    @Value("${application.posting-engine.journal.enabled:false}")
+    private boolean JOURNAL_ENABLED;
+
+    @Value("${application.posting-engine.journal.directory:journal}")
+    private String JOURNAL_DIRECTORY;
+
+    @Value("${application.posting-engine.journal.node:node-1}")
+    private String JOURNAL_NODE;
+
+    @Value("${application.posting-engine.journal.capacity:67108864}")
+    private int JOURNAL_CAPACITY;
+
+    @Value("${application.posting-engine.journal.flush-batch-size:1000}")
+    private int FLUSH_BATCH_SIZE;
+
+    @Value("${application.posting-engine.journal.flush-retry-delay:1000}")
+    private long FLUSH_RETRY_DELAY;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JournalWatermarkRepository journalWatermarkRepository;
+
+    @Autowired
+    private PostingDeadLetterRepository postingDeadLetterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong balanceEpoch = new AtomicLong();
+
+    private Shard[] shards;
+
+    @PostConstruct
+    public void init() {
+        if (!ENABLED) {
+            return;
+        }
+
+        shards = new Shard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(i);
+            shards[i].start();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public Transaction postTransaction(TransactionRequest transactionRequest, Long userId) {
+        Shard shard = shards[Math.floorMod(transactionRequest.getAccountId(), shards.length)];
+        Posting posting = new Posting(transactionRequest, userId, System.nanoTime());
+
+        if (!shard.queue.offer(posting)) {
+            meterRegistry.counter("posting.engine.rejected").increment();
+            throw new ServiceUnavailableException("Server Is Busy. Try Again Later!", RETRY_AFTER);
+        }
+
+        try {
+            try {
+                return posting.result.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (posting.result.completeExceptionally(new ServiceUnavailableException("Server Is Busy. Try Again Later!", RETRY_AFTER))) {
+                    meterRegistry.counter("posting.engine.timeout").increment();
+                }
+                return posting.result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Server Is Busy. Try Again Later!", RETRY_AFTER);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void invalidateBalances() {
+        balanceEpoch.incrementAndGet();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (shards == null) {
+            return;
+        }
+
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        for (Shard shard : shards) {
+            shard.stopFlusher();
+            shard.gauges.forEach(meterRegistry::remove);
+        }
+    }
+
+    private class Shard implements Runnable {
+
+        private final BlockingQueue<Posting> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Map<Long, AccountBalance> accounts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AccountBalance> eldest) {
+                return size() > ACCOUNTS_PER_SHARD;
+            }
+        };
+        private final Map<Long, Long> pendingBalances = new HashMap<>();
+        private final BlockingQueue<PostingJournal.Entry> flushQueue = new LinkedBlockingQueue<>();
+        private final Queue<FlushedBatch> flushedBatches = new ConcurrentLinkedQueue<>();
+        private final AtomicLong flushVersion = new AtomicLong();
+        private final List<Gauge> gauges = new ArrayList<>();
+        private final Thread thread;
+        private final Timer latency;
+        private final DistributionSummary batchSize;
+        private final String journalName;
+        private PostingJournal journal;
+        private Thread flusher;
+        private Timer fsync;
+        private DistributionSummary flushSize;
+        private volatile boolean running = true;
+        private volatile boolean flushing = true;
+        private volatile long appendedSequence;
+        private volatile long flushedSequence;
+        private long seenBalanceEpoch;
+
+        private Shard(int index) {
+            Tags tags = Tags.of("shard", String.valueOf(index));
+            this.thread = new Thread(this, "posting-shard-" + index);
+            this.latency = meterRegistry.timer("posting.engine.latency", tags);
+            this.batchSize = meterRegistry.summary("posting.engine.batch.size", tags);
+            this.journalName = JOURNAL_NODE + "-" + index;
+            gauges.add(Gauge.builder("posting.engine.queue.size", queue, BlockingQueue::size).tags(tags).register(meterRegistry));
+
+            if (JOURNAL_ENABLED) {
+                try {
+                    this.journal = new PostingJournal(Path.of(JOURNAL_DIRECTORY, journalName + ".journal"), JOURNAL_CAPACITY);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.flusher = new Thread(this::flush, "posting-flush-" + index);
+                this.fsync = meterRegistry.timer("posting.journal.fsync", tags);
+                this.flushSize = meterRegistry.summary("posting.journal.flush.size", tags);
+                gauges.add(Gauge.builder("posting.journal.lag", this, shard -> shard.appendedSequence - shard.flushedSequence).tags(tags).register(meterRegistry));
+            }
+        }
+
+        private void start() {
+            if (journal != null) {
+                replay();
+                flusher.setDaemon(true);
+                flusher.start();
+            }
+
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void stop() {
+            running = false;
+            thread.interrupt();
+        }
+
+        private void stopFlusher() throws InterruptedException {
+            if (journal == null) {
+                return;
+            }
+
+            flushing = false;
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Posting> batch = new ArrayList<>(BATCH_SIZE);
+
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                process(batch);
+                batch.clear();
+            }
+
+            queue.drainTo(batch);
+            batch.forEach(posting -> posting.result.completeExceptionally(
+                    new ServiceUnavailableException("Server Is Busy. Try Again Later!", RETRY_AFTER)
+            ));
+        }
+
+        private void process(List<Posting> batch) {
+            batchSize.record(batch.size());
+
+            long currentBalanceEpoch = balanceEpoch.get();
+            if (currentBalanceEpoch != seenBalanceEpoch) {
+                accounts.clear();
+                seenBalanceEpoch = currentBalanceEpoch;
+            }
+            applyFlushedBatches();
+
+            List<Posting> pending = batch;
+            for (int attempt = 0; !pending.isEmpty(); attempt++) {
+                Set<Long> conflicts;
+                try {
+                    conflicts = commit(pending);
+                } catch (RuntimeException e) {
+                    pending.forEach(posting -> accounts.remove(posting.request.getAccountId()));
+                    if (attempt > 0) {
+                        pending.forEach(posting -> posting.result.completeExceptionally(e));
+                        return;
+                    }
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                List<Posting> conflicted = new ArrayList<>();
+                for (Posting posting : pending) {
+                    if (conflicts.contains(posting.request.getAccountId())) {
+                        conflicted.add(posting);
+                    } else {
+                        latency.record(now - posting.enqueuedAt, TimeUnit.NANOSECONDS);
+                        posting.result.complete(posting.transaction);
+                    }
+                }
+
+                conflicts.forEach(accounts::remove);
+                if (attempt > 0) {
+                    conflicted.forEach(posting -> posting.result.completeExceptionally(
+                            new OptimisticLockingFailureException("Balance changed outside the posting engine for account " + posting.request.getAccountId())
+                    ));
+                    return;
+                }
+                pending = conflicted;
+            }
+        }
+
+        private Set<Long> commit(List<Posting> batch) {
+            Map<Long, Long> expectedBalances = new TreeMap<>();
+            Map<Long, Long> balances = new TreeMap<>();
+            List<Transaction> transactions = new ArrayList<>();
+            Date postedAt = new Date();
+
+            for (Posting posting : batch) {
+                Long accountId = posting.request.getAccountId();
+                posting.transaction = null;
+                if (posting.result.isDone()) {
+                    continue;
+                }
+
+                AccountBalance account = getAccount(accountId);
+                if (account == null || !account.getUserId().equals(posting.userId)) {
+                    continue;
+                }
+
+                long balance = Math.addExact(balances.getOrDefault(accountId, account.getBalance()), posting.amount());
+                if (balance < 0) {
+                    continue;
+                }
+
+                expectedBalances.putIfAbsent(accountId, account.getBalance());
+                balances.put(accountId, balance);
+
+                Transaction transaction = new Transaction();
+                transaction.setAmount(posting.request.getAmount());
+                transaction.setDescription(posting.request.getDescription());
+                transaction.setTransactionType(posting.request.getTransactionType());
+                transaction.setPostedAt(postedAt);
+                posting.transaction = transaction;
+                transactions.add(transaction);
+            }
+
+            Set<Long> conflicts = new HashSet<>();
+            if (transactions.isEmpty()) {
+                return conflicts;
+            }
+
+            if (journal != null) {
+                append(batch, postedAt);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Map.Entry<Long, Long> entry : balances.entrySet()) {
+                        if (accountRepository.compareAndSetBalance(entry.getKey(), expectedBalances.get(entry.getKey()), entry.getValue()) != 1) {
+                            conflicts.add(entry.getKey());
+                        }
+                    }
+
+                    List<Transaction> committed = new ArrayList<>();
+                    for (Posting posting : batch) {
+                        if (posting.transaction != null && conflicts.contains(posting.request.getAccountId())) {
+                            posting.transaction = null;
+                        } else if (posting.transaction != null) {
+                            posting.transaction.setAccount(accountRepository.getReferenceById(posting.request.getAccountId()));
+                            committed.add(posting.transaction);
+                        }
+                    }
+
+                    transactionRepository.saveAll(committed);
+                });
+                conflicts.forEach(balances::remove);
+            }
+
+            balances.forEach((accountId, balance) -> {
+                AccountBalance account = accounts.get(accountId);
+                if (account != null) {
+                    accounts.put(accountId, new AccountBalance(accountId, account.getUserId(), balance));
+                }
+            });
+
+            return conflicts;
+        }
+
+        private void append(List<Posting> batch, Date postedAt) {
+            List<PostingJournal.Entry> entries = new ArrayList<>();
+            for (Posting posting : batch) {
+                if (posting.transaction != null) {
+                    entries.add(new PostingJournal.Entry(appendedSequence + entries.size() + 1, posting.request.getAccountId(),
+                            posting.request.getTransactionType(), posting.request.getAmount(), postedAt.getTime(), posting.request.getDescription()));
+                }
+            }
+
+            long startTime = System.nanoTime();
+            if (!journal.append(entries)) {
+                while (flushedSequence < appendedSequence) {
+                    if (!running) {
+                        throw new ServiceUnavailableException("Server Is Busy. Try Again Later!", RETRY_AFTER);
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+
+                journal.reset();
+                if (!journal.append(entries)) {
+                    throw new IllegalStateException("Posting batch exceeds the journal capacity");
+                }
+            }
+            fsync.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+
+            entries.forEach(entry -> pendingBalances.merge(entry.getAccountId(), entry.signedAmount(), Long::sum));
+            appendedSequence += entries.size();
+            flushQueue.addAll(entries);
+        }
+
+        private void flush() {
+            List<PostingJournal.Entry> entries = new ArrayList<>(FLUSH_BATCH_SIZE);
+
+            while (flushing || !flushQueue.isEmpty()) {
+                try {
+                    PostingJournal.Entry entry = flushQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (entry == null) {
+                        continue;
+                    }
+                    entries.add(entry);
+                } catch (InterruptedException e) {
+                    break;
+                }
+
+                flushQueue.drainTo(entries, FLUSH_BATCH_SIZE - 1);
+                while (!flush(entries)) {
+                    if (!flushing) {
+                        return;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(FLUSH_RETRY_DELAY));
+                }
+                entries.clear();
+            }
+        }
+
+        private boolean flush(List<PostingJournal.Entry> entries) {
+            Map<Long, List<PostingJournal.Entry>> accountEntries = new TreeMap<>();
+            entries.forEach(entry -> accountEntries.computeIfAbsent(entry.getAccountId(), accountId -> new ArrayList<>()).add(entry));
+            Map<Long, Long> deltas = new TreeMap<>();
+            accountEntries.forEach((accountId, pending) -> deltas.put(accountId,
+                    pending.stream().mapToLong(PostingJournal.Entry::signedAmount).reduce(0, Math::addExact)));
+            long lastSequence = entries.get(entries.size() - 1).getSequence();
+            Map<Long, Long> balances = new HashMap<>();
+            List<PostingDeadLetter> deadLetters = new ArrayList<>();
+
+            flushVersion.incrementAndGet();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    balances.clear();
+                    deadLetters.clear();
+                    Date postedAt = new Date();
+                    List<Transaction> transactions = new ArrayList<>();
+                    accountEntries.forEach((accountId, pending) -> {
+                        if (accountRepository.creditBalance(accountId, deltas.get(accountId)) == 1) {
+                            pending.forEach(entry -> transactions.add(createTransaction(entry, postedAt)));
+                        } else {
+                            pending.forEach(entry -> deadLetters.add(createDeadLetter(entry, postedAt)));
+                        }
+                    });
+                    accountRepository.findAccountBalancesByIdIn(deltas.keySet())
+                            .forEach(account -> balances.put(account.getId(), account.getBalance()));
+                    transactionRepository.saveAll(transactions);
+                    postingDeadLetterRepository.saveAll(deadLetters);
+
+                    if (journalWatermarkRepository.advance(journalName, lastSequence) != 1) {
+                        throw new OptimisticLockingFailureException("Journal " + journalName + " was already flushed past " + lastSequence);
+                    }
+                });
+                flushedBatches.add(new FlushedBatch(deltas, balances));
+            } catch (RuntimeException e) {
+                meterRegistry.counter("posting.journal.flush.failed").increment();
+                return false;
+            } finally {
+                flushVersion.incrementAndGet();
+            }
+
+            long overdrawn = deltas.entrySet().stream()
+                    .filter(delta -> delta.getValue() < 0 && balances.getOrDefault(delta.getKey(), 0L) < 0)
+                    .count();
+            if (overdrawn > 0) {
+                meterRegistry.counter("posting.journal.overdrawn").increment(overdrawn);
+            }
+            if (!deadLetters.isEmpty()) {
+                meterRegistry.counter("posting.journal.dead.letters").increment(deadLetters.size());
+            }
+            flushedSequence = lastSequence;
+            flushSize.record(entries.size());
+            return true;
+        }
+
+        private Transaction createTransaction(PostingJournal.Entry entry, Date postedAt) {
+            Transaction transaction = new Transaction();
+            transaction.setAmount(entry.getAmount());
+            transaction.setDescription(entry.getDescription());
+            transaction.setTransactionType(entry.getTransactionType());
+            transaction.setPostedAt(postedAt);
+            transaction.setAccount(accountRepository.getReferenceById(entry.getAccountId()));
+
+            return transaction;
+        }
+
+        private PostingDeadLetter createDeadLetter(PostingJournal.Entry entry, Date recordedAt) {
+            PostingDeadLetter postingDeadLetter = new PostingDeadLetter();
+            postingDeadLetter.setJournal(journalName);
+            postingDeadLetter.setJournalSequence(entry.getSequence());
+            postingDeadLetter.setAccountId(entry.getAccountId());
+            postingDeadLetter.setTransactionType(entry.getTransactionType());
+            postingDeadLetter.setAmount(entry.getAmount());
+            postingDeadLetter.setDescription(entry.getDescription());
+            postingDeadLetter.setAcceptedAt(new Date(entry.getPostedAt()));
+            postingDeadLetter.setRecordedAt(recordedAt);
+
+            return postingDeadLetter;
+        }
+
+        private void applyFlushedBatches() {
+            FlushedBatch flushedBatch;
+            while ((flushedBatch = flushedBatches.poll()) != null) {
+                Map<Long, Long> balances = flushedBatch.balances();
+                flushedBatch.deltas().forEach((accountId, delta) -> {
+                    pendingBalances.computeIfPresent(accountId, (key, pending) -> pending.equals(delta) ? null : pending - delta);
+
+                    Long balance = balances.get(accountId);
+                    AccountBalance account = accounts.get(accountId);
+                    if (balance == null) {
+                        accounts.remove(accountId);
+                    } else if (account != null) {
+                        accounts.put(accountId, new AccountBalance(accountId, account.getUserId(), balance + pendingBalances.getOrDefault(accountId, 0L)));
+                    }
+                });
+            }
+        }
+
+        private void replay() {
+            JournalWatermark journalWatermark = journalWatermarkRepository.findById(journalName).orElseGet(() -> {
+                JournalWatermark created = new JournalWatermark();
+                created.setJournal(journalName);
+                return journalWatermarkRepository.save(created);
+            });
+
+            List<PostingJournal.Entry> entries = journal.read().stream()
+                    .filter(entry -> entry.getSequence() > journalWatermark.getFlushedSequence())
+                    .toList();
+            entries.forEach(entry -> pendingBalances.merge(entry.getAccountId(), entry.signedAmount(), Long::sum));
+
+            for (int i = 0; i < entries.size(); i += FLUSH_BATCH_SIZE) {
+                if (!flush(entries.subList(i, Math.min(entries.size(), i + FLUSH_BATCH_SIZE)))) {
+                    throw new IllegalStateException("Unable to replay posting journal " + journalName);
+                }
+            }
+            meterRegistry.counter("posting.journal.replayed").increment(entries.size());
+
+            appendedSequence = entries.isEmpty() ? journalWatermark.getFlushedSequence() : entries.get(entries.size() - 1).getSequence();
+            flushedSequence = appendedSequence;
+            journal.reset();
+        }
+
+        private AccountBalance getAccount(Long accountId) {
+            AccountBalance account = accounts.get(accountId);
+            if (account == null) {
+                account = loadAccount(accountId);
+                if (account != null) {
+                    accounts.put(accountId, account);
+                }
+            }
+
+            return account;
+        }
+
+        private AccountBalance loadAccount(Long accountId) {
+            if (journal == null) {
+                return accountRepository.findAccountBalanceById(accountId).orElse(null);
+            }
+
+            while (true) {
+                long version = flushVersion.get();
+                applyFlushedBatches();
+                if (version % 2 == 0) {
+                    Optional<AccountBalance> account = accountRepository.findAccountBalanceById(accountId);
+                    if (flushVersion.get() == version) {
+                        return account.map(loaded -> new AccountBalance(loaded.getId(), loaded.getUserId(),
+                                        loaded.getBalance() + pendingBalances.getOrDefault(accountId, 0L)))
+                                .orElse(null);
+                    }
+                } else if (!running) {
+                    throw new ServiceUnavailableException("Server Is Busy. Try Again Later!", RETRY_AFTER);
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        }
+
+    }
+
+    private record FlushedBatch(Map<Long, Long> deltas, Map<Long, Long> balances) {
+    }
+
+    private static class Posting {
+
+        private final TransactionRequest request;
+        private final Long userId;
+        private final long enqueuedAt;
+        private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+        private Transaction transaction;
+
+        private Posting(TransactionRequest request, Long userId, long enqueuedAt) {
+            this.request = request;
+            this.userId = userId;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private long amount() {
+            return request.getTransactionType() == TransactionType.WITHDRAWAL ? -request.getAmount() : request.getAmount();
+        }
+
+    }
+
+}
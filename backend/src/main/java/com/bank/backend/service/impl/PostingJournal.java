@@ -0,0 +1,160 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class PostingJournal implements Closeable {
+
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    public PostingJournal(Path path, int capacity) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    public List<Entry> read() {
+        List<Entry> entries = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        long lastSequence = Long.MIN_VALUE;
+        int position = 0;
+
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            long checksum = buffer.getLong(position + Integer.BYTES);
+            if (length <= 0 || length > buffer.capacity() - position - HEADER_SIZE) {
+                break;
+            }
+
+            ByteBuffer payload = buffer.slice(position + HEADER_SIZE, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                break;
+            }
+
+            Entry entry = Entry.decode(payload);
+            if (entry.getSequence() <= lastSequence) {
+                break;
+            }
+
+            entries.add(entry);
+            lastSequence = entry.getSequence();
+            position += HEADER_SIZE + length;
+        }
+
+        buffer.position(position);
+        return entries;
+    }
+
+    public boolean append(List<Entry> entries) {
+        List<ByteBuffer> payloads = new ArrayList<>(entries.size());
+        int size = Integer.BYTES;
+        for (Entry entry : entries) {
+            ByteBuffer payload = entry.encode();
+            payloads.add(payload);
+            size += HEADER_SIZE + payload.remaining();
+        }
+
+        if (buffer.position() + size > buffer.capacity()) {
+            return false;
+        }
+
+        int start = buffer.position();
+        CRC32 crc = new CRC32();
+        try {
+            for (ByteBuffer payload : payloads) {
+                crc.reset();
+                crc.update(payload.duplicate());
+                buffer.putInt(payload.remaining());
+                buffer.putLong(crc.getValue());
+                buffer.put(payload);
+            }
+            buffer.putInt(buffer.position(), 0);
+            buffer.force(start, buffer.position() - start + Integer.BYTES);
+        } catch (RuntimeException e) {
+            truncate(start);
+            throw e;
+        }
+
+        return true;
+    }
+
+    private void truncate(int position) {
+        buffer.position(position);
+        buffer.putInt(position, 0);
+        buffer.force(position, Integer.BYTES);
+    }
+
+    public void reset() {
+        truncate(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+
+        private final long sequence;
+        private final long accountId;
+        private final TransactionType transactionType;
+        private final long amount;
+        private final long postedAt;
+        private final String description;
+
+        public long signedAmount() {
+            return transactionType == TransactionType.WITHDRAWAL ? -amount : amount;
+        }
+
+        private ByteBuffer encode() {
+            byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer payload = ByteBuffer.allocate(4 * Long.BYTES + 2 * Integer.BYTES + descriptionBytes.length);
+            payload.putLong(sequence);
+            payload.putLong(accountId);
+            payload.putInt(transactionType.ordinal());
+            payload.putLong(amount);
+            payload.putLong(postedAt);
+            payload.putInt(descriptionBytes.length);
+            payload.put(descriptionBytes);
+
+            return payload.flip();
+        }
+
+        private static Entry decode(ByteBuffer payload) {
+            long sequence = payload.getLong();
+            long accountId = payload.getLong();
+            TransactionType transactionType = TransactionType.values()[payload.getInt()];
+            long amount = payload.getLong();
+            long postedAt = payload.getLong();
+            byte[] descriptionBytes = new byte[payload.getInt()];
+            payload.get(descriptionBytes);
+
+            return new Entry(sequence, accountId, transactionType, amount, postedAt, new String(descriptionBytes, StandardCharsets.UTF_8));
+        }
+
+    }
+
+}
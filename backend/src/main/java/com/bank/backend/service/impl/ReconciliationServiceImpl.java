@@ -0,0 +1,218 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.AccountBalance;
+import com.bank.backend.model.BalanceChange;
+import com.bank.backend.model.ReconciliationDiscrepancy;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.ReconciliationDiscrepancyRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.JobLockService;
+import com.bank.backend.service.ReconciliationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService, DisposableBean {
+
+    private static final String JOB_NAME = "reconciliation";
+
+    @Value("${application.reconciliation.chunk-size:1000}")
+    private int CHUNK_SIZE;
+
+    @Value("${application.reconciliation.parallelism:4}")
+    private int PARALLELISM;
+
+    @Value("${application.reconciliation.lock-duration:3600000}")
+    private long LOCK_DURATION;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong throughput = new AtomicLong();
+
+    private TransactionTemplate readTransactionTemplate;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        readTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readTransactionTemplate.setReadOnly(true);
+        readTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        meterRegistry.gauge("reconciliation.throughput", throughput);
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "reconciliation-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.reconciliation.interval:86400000}", initialDelayString = "${application.reconciliation.initial-delay:60000}")
+    public long reconcileBalances() {
+        if (!jobLockService.tryLock(JOB_NAME, Duration.ofMillis(LOCK_DURATION))) {
+            return 0;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            String runId = UUID.randomUUID().toString();
+            Long minId = accountRepository.findMinId();
+            Long maxId = accountRepository.findMaxId();
+            if (minId == null || maxId == null) {
+                return 0;
+            }
+
+            AtomicLong accounts = new AtomicLong();
+            List<Future<Long>> results = new ArrayList<>();
+            long partitionSize = Math.max(1, (maxId - minId + PARALLELISM) / PARALLELISM);
+            for (long lastId = minId - 1; lastId < maxId; lastId += partitionSize) {
+                long afterId = lastId;
+                long toId = Math.min(maxId, lastId + partitionSize);
+                results.add(executor.submit(() -> reconcilePartition(runId, afterId, toId, accounts)));
+            }
+
+            long discrepancies = 0;
+            RuntimeException failure = null;
+            for (Future<Long> result : results) {
+                try {
+                    discrepancies += getResult(result);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            long elapsed = System.nanoTime() - startTime;
+            meterRegistry.timer("reconciliation.duration").record(elapsed, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("reconciliation.accounts").increment(accounts.get());
+            meterRegistry.counter("reconciliation.discrepancies").increment(discrepancies);
+            throughput.set(accounts.get() * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+
+            if (failure != null) {
+                meterRegistry.counter("reconciliation.failed").increment();
+                throw failure;
+            }
+
+            return discrepancies;
+        } finally {
+            jobLockService.unlock(JOB_NAME);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private long reconcilePartition(String runId, long afterId, long toId, AtomicLong accounts) {
+        long lastId = afterId;
+        long discrepancies = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            long chunkAfterId = lastId;
+            List<ReconciliationDiscrepancy> reconciliationDiscrepancies = new ArrayList<>();
+            List<AccountBalance> accountBalances = readTransactionTemplate.execute(status -> {
+                List<AccountBalance> chunk = accountRepository.findAccountBalances(chunkAfterId, toId, Limit.of(CHUNK_SIZE));
+                if (chunk.isEmpty()) {
+                    return chunk;
+                }
+
+                Map<Long, Long> transactionBalances = transactionRepository.sumBalanceChanges(chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId())
+                        .stream().collect(Collectors.toMap(BalanceChange::getAccountId, BalanceChange::getAmount));
+                for (AccountBalance accountBalance : chunk) {
+                    long transactionBalance = transactionBalances.getOrDefault(accountBalance.getId(), 0L);
+                    if (transactionBalance != accountBalance.getBalance() || accountBalance.getBalance() < 0) {
+                        reconciliationDiscrepancies.add(createDiscrepancy(runId, accountBalance, transactionBalance));
+                    }
+                }
+
+                return chunk;
+            });
+
+            if (accountBalances == null || accountBalances.isEmpty()) {
+                break;
+            }
+
+            if (!reconciliationDiscrepancies.isEmpty()) {
+                reconciliationDiscrepancyRepository.saveAll(reconciliationDiscrepancies);
+                discrepancies += reconciliationDiscrepancies.size();
+            }
+
+            accounts.addAndGet(accountBalances.size());
+            meterRegistry.summary("reconciliation.chunk.size").record(accountBalances.size());
+            lastId = accountBalances.get(accountBalances.size() - 1).getId();
+            if (accountBalances.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        return discrepancies;
+    }
+
+    private long getResult(Future<Long> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Reconciliation partition failed", e.getCause());
+        }
+    }
+
+    private ReconciliationDiscrepancy createDiscrepancy(String runId, AccountBalance accountBalance, long transactionBalance) {
+        ReconciliationDiscrepancy reconciliationDiscrepancy = new ReconciliationDiscrepancy();
+        reconciliationDiscrepancy.setRunId(runId);
+        reconciliationDiscrepancy.setAccountId(accountBalance.getId());
+        reconciliationDiscrepancy.setAccountBalance(accountBalance.getBalance());
+        reconciliationDiscrepancy.setTransactionBalance(transactionBalance);
+        reconciliationDiscrepancy.setDetectedAt(new Date());
+
+        return reconciliationDiscrepancy;
+    }
+
+}
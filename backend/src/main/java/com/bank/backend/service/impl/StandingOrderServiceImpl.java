@@ -0,0 +1,245 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.StandingOrder;
+import com.bank.backend.model.StandingOrderRequest;
+import com.bank.backend.model.TransferRequest;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.StandingOrderRepository;
+import com.bank.backend.service.StandingOrderService;
+import com.bank.backend.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class StandingOrderServiceImpl implements StandingOrderService, DisposableBean {
+
+    @Value("${application.standing-orders.batch-size:100}")
+    private int BATCH_SIZE;
+
+    @Value("${application.standing-orders.max-batches:100}")
+    private int MAX_BATCHES;
+
+    @Value("${application.standing-orders.parallelism:4}")
+    private int PARALLELISM;
+
+    @Value("${application.standing-orders.claim-duration:300000}")
+    private long CLAIM_DURATION;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "standing-order-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public StandingOrder createStandingOrder(StandingOrderRequest standingOrderRequest, VerifiedToken verifiedToken) {
+        Date now = new Date();
+        if (!isValidStandingOrderRequest(standingOrderRequest, now) || verifiedToken == null ||
+                !accountRepository.existsByIdAndUserId(standingOrderRequest.getFromAccountId(), verifiedToken.getUserId()) ||
+                !accountRepository.existsById(standingOrderRequest.getToAccountId())) {
+            return null;
+        }
+
+        Date startAt = standingOrderRequest.getStartAt() == null ? now : standingOrderRequest.getStartAt();
+
+        StandingOrder standingOrder = new StandingOrder();
+        standingOrder.setUserId(verifiedToken.getUserId());
+        standingOrder.setFromAccountId(standingOrderRequest.getFromAccountId());
+        standingOrder.setToAccountId(standingOrderRequest.getToAccountId());
+        standingOrder.setAmount(standingOrderRequest.getAmount());
+        standingOrder.setDescription(standingOrderRequest.getDescription());
+        standingOrder.setFrequency(standingOrderRequest.getFrequency());
+        standingOrder.setStartAt(startAt);
+        standingOrder.setNextRunAt(startAt);
+        standingOrder.setActive(true);
+
+        return standingOrderRepository.save(standingOrder);
+    }
+
+    @Override
+    public List<StandingOrder> getLoggedInStandingOrders(VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
+            return null;
+        }
+
+        return standingOrderRepository.findAllByUserId(verifiedToken.getUserId());
+    }
+
+    @Override
+    public boolean cancelStandingOrder(Long id, VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
+            return false;
+        }
+
+        if (verifiedToken.getUserRole() == UserRole.ADMIN) {
+            return standingOrderRepository.cancel(id) == 1;
+        }
+
+        return standingOrderRepository.cancel(id, verifiedToken.getUserId()) == 1;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.standing-orders.interval:60000}", initialDelayString = "${application.standing-orders.initial-delay:60000}")
+    public int executeDueStandingOrders() {
+        long startTime = System.nanoTime();
+        Date now = new Date();
+        String claimedBy = UUID.randomUUID().toString();
+        int executed = 0;
+        int failed = 0;
+
+        for (int batch = 0; batch < MAX_BATCHES; batch++) {
+            List<Long> ids = standingOrderRepository.findDueStandingOrderIds(now, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            if (standingOrderRepository.claim(ids, claimedBy, now, new Date(System.currentTimeMillis() + CLAIM_DURATION)) > 0) {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (StandingOrder standingOrder : standingOrderRepository.findAllByIdInAndClaimedBy(ids, claimedBy)) {
+                    results.add(executor.submit(() -> execute(standingOrder, claimedBy)));
+                }
+
+                for (Future<Boolean> result : results) {
+                    if (getResult(result)) {
+                        executed++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+
+            if (ids.size() < BATCH_SIZE || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+
+        meterRegistry.timer("standing.order.run.duration").record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("standing.order.executed").increment(executed);
+        meterRegistry.counter("standing.order.failed").increment(failed);
+
+        return executed;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private boolean execute(StandingOrder standingOrder, String claimedBy) {
+        Date now = new Date();
+        Date nextRunAt = getRunDate(standingOrder, standingOrder.getExecutions() + 1);
+
+        try {
+            Boolean completed = transactionTemplate.execute(status -> {
+                if (transactionService.createTransfer(createTransferRequest(standingOrder), createVerifiedToken(standingOrder)) == null ||
+                        standingOrderRepository.completeExecution(standingOrder.getId(), claimedBy, now, nextRunAt) != 1) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(completed)) {
+                return true;
+            }
+
+            standingOrderRepository.failExecution(standingOrder.getId(), claimedBy, now, nextRunAt);
+            return false;
+        } catch (RuntimeException e) {
+            standingOrderRepository.release(standingOrder.getId(), claimedBy);
+            throw e;
+        }
+    }
+
+    private boolean getResult(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private Date getRunDate(StandingOrder standingOrder, int occurrence) {
+        ZonedDateTime startAt = standingOrder.getStartAt().toInstant().atZone(ZoneOffset.UTC);
+        ZonedDateTime runAt = switch (standingOrder.getFrequency()) {
+            case DAILY -> startAt.plusDays(occurrence);
+            case WEEKLY -> startAt.plusWeeks(occurrence);
+            case MONTHLY -> startAt.plusMonths(occurrence);
+        };
+
+        return Date.from(runAt.toInstant());
+    }
+
+    private TransferRequest createTransferRequest(StandingOrder standingOrder) {
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(standingOrder.getFromAccountId());
+        transferRequest.setToAccountId(standingOrder.getToAccountId());
+        transferRequest.setAmount(standingOrder.getAmount());
+        transferRequest.setDescription(standingOrder.getDescription());
+
+        return transferRequest;
+    }
+
+    private VerifiedToken createVerifiedToken(StandingOrder standingOrder) {
+        return new VerifiedToken(null, standingOrder.getUserId(), null, UserRole.USER, null);
+    }
+
+    private boolean isValidStandingOrderRequest(StandingOrderRequest standingOrderRequest, Date now) {
+        return standingOrderRequest != null &&
+                standingOrderRequest.getFromAccountId() != null &&
+                standingOrderRequest.getToAccountId() != null &&
+                !standingOrderRequest.getFromAccountId().equals(standingOrderRequest.getToAccountId()) &&
+                standingOrderRequest.getAmount() > 0 &&
+                standingOrderRequest.getDescription() != null &&
+                standingOrderRequest.getFrequency() != null &&
+                (standingOrderRequest.getStartAt() == null || !standingOrderRequest.getStartAt().before(now));
+    }
+
+}
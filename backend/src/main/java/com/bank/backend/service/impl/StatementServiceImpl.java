@@ -0,0 +1,114 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.StatementFormat;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.StatementService;
+import com.bank.backend.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "id,postedAt,transactionType,amount,description,linkedTransactionId\n";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public long writeStatement(Long accountId, StatementFormat statementFormat, boolean gzip, OutputStream outputStream) throws IOException {
+        long startTime = System.nanoTime();
+        GZIPOutputStream gzipOutputStream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipOutputStream : outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        AtomicLong rows = new AtomicLong();
+
+        if (statementFormat == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Transaction> transactions = transactionRepository.streamByAccountId(accountId)) {
+                    Iterator<Transaction> iterator = transactions.iterator();
+                    while (iterator.hasNext()) {
+                        Transaction transaction = iterator.next();
+                        writer.write(statementFormat == StatementFormat.CSV ? toCsv(transaction) : toNdjson(transaction));
+                        entityManager.detach(transaction);
+                        rows.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipOutputStream != null) {
+            gzipOutputStream.finish();
+        }
+
+        meterRegistry.counter("statement.export.rows", "format", statementFormat.name()).increment(rows.get());
+        meterRegistry.timer("statement.export.duration", "format", statementFormat.name()).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+
+        return rows.get();
+    }
+
+    private String toCsv(Transaction transaction) {
+        return transaction.getId() + "," +
+                transaction.getPostedAt().toInstant() + "," +
+                transaction.getTransactionType() + "," +
+                Money.toDecimal(transaction.getAmount()).toPlainString() + "," +
+                escapeCsv(transaction.getDescription()) + "," +
+                (transaction.getLinkedTransactionId() == null ? "" : transaction.getLinkedTransactionId()) + "\n";
+    }
+
+    private String toNdjson(Transaction transaction) throws IOException {
+        return objectMapper.writeValueAsString(transaction) + "\n";
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class TokenCacheServiceImpl implements TokenCacheService {
+
+    @Value("${application.security.jwt.token-cache-size:100000}")
+    private int MAX_CACHE_SIZE;
+
+    private final Map<String, Long> validTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_CACHE_SIZE || eldest.getValue() <= System.currentTimeMillis();
+        }
+    };
+
+    @Override
+    public boolean isCached(String token) {
+        String key = TokenDigest.sha256(token);
+        synchronized (validTokens) {
+            Long expiresAt = validTokens.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+
+            if (expiresAt <= System.currentTimeMillis()) {
+                validTokens.remove(key);
+                return false;
+            }
+
+            return true;
+        }
+    }
+
+    @Override
+    public void cacheToken(String token, Date expiration) {
+        if (token == null || expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+
+        String key = TokenDigest.sha256(token);
+        synchronized (validTokens) {
+            validTokens.put(key, expiration.getTime());
+        }
+    }
+
+    @Override
+    public void evictToken(String token) {
+        if (token == null) {
+            return;
+        }
+
+        String key = TokenDigest.sha256(token);
+        synchronized (validTokens) {
+            validTokens.remove(key);
+        }
+    }
+
+}
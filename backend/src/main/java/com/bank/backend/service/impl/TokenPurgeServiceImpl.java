@@ -0,0 +1,74 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.JobLockService;
+import com.bank.backend.service.TokenPurgeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class TokenPurgeServiceImpl implements TokenPurgeService {
+
+    private static final String JOB_NAME = "token-purge";
+
+    @Value("${application.token-purge.batch-size:1000}")
+    private int BATCH_SIZE;
+
+    @Value("${application.token-purge.max-batches:100}")
+    private int MAX_BATCHES;
+
+    @Value("${application.token-purge.lock-duration:600000}")
+    private long LOCK_DURATION;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.token-purge.interval:600000}", initialDelayString = "${application.token-purge.initial-delay:60000}")
+    public int purgeExpiredTokens() {
+        if (!jobLockService.tryLock(JOB_NAME, Duration.ofMillis(LOCK_DURATION))) {
+            return 0;
+        }
+
+        try {
+            int deleted = meterRegistry.timer("token.purge.duration").record(this::deleteExpiredTokens);
+            meterRegistry.counter("token.purge.deleted").increment(deleted);
+            return deleted;
+        } finally {
+            jobLockService.unlock(JOB_NAME);
+        }
+    }
+
+    private int deleteExpiredTokens() {
+        Date now = new Date();
+        int deleted = 0;
+
+        for (int batch = 0; batch < MAX_BATCHES; batch++) {
+            List<Long> ids = tokenRepository.findExpiredTokenIds(now, PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            deleted += tokenRepository.deleteByIdIn(ids);
+            if (ids.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+
+        return deleted;
+    }
+
+}
@@ -1,21 +1,31 @@
 package com.bank.backend.service.impl;
 
-import com.bank.backend.model.Account;
 import com.bank.backend.model.Transaction;
 import com.bank.backend.model.TransactionRequest;
 import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.TransferRequest;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.repository.AccountRepository;
 import com.bank.backend.repository.TransactionRepository;
-import com.bank.backend.service.AccountService;
+import com.bank.backend.service.IdempotencyService;
+import com.bank.backend.service.PostingEngineService;
 import com.bank.backend.service.TransactionService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.Objects;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    @Value("${application.transactions.max-batch-size:10000}")
+    private int MAX_BATCH_SIZE;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -23,44 +33,150 @@ public class TransactionServiceImpl implements TransactionService {
     private AccountRepository accountRepository;
 
     @Autowired
-    private AccountService accountService;
+    private PostingEngineService postingEngineService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Override
-    public Transaction createTransaction(TransactionRequest transactionRequest, HttpServletRequest request) {
-        if (isValidTransactionRequest(transactionRequest)) {
-            Account account = accountRepository.findById(transactionRequest.getAccountId()).orElse(null);
-            double amount = transactionRequest.getTransactionType() == TransactionType.WITHDRAWAL ?
-                    transactionRequest.getAmount() : (transactionRequest.getAmount() * -1);
-
-            if (account != null && isUserAllowed(transactionRequest.getAccountId(), request)
-                    && (account.getBalance() - amount >= 0.0)) {
-                account.setBalance(account.getBalance() - transactionRequest.getAmount());
-                accountRepository.save(account);
-
-                Transaction transaction = new Transaction();
-                transaction.setAmount(transactionRequest.getAmount());
-                transaction.setDescription(transactionRequest.getDescription());
-                transaction.setTransactionType(transactionRequest.getTransactionType());
-                transaction.setAccount(account);
-
-                return transactionRepository.save(transaction);
+    public Transaction createTransaction(TransactionRequest transactionRequest, VerifiedToken verifiedToken) {
+        if (isValidTransactionRequest(transactionRequest) && verifiedToken != null) {
+            if (postingEngineService.isEnabled()) {
+                return postingEngineService.postTransaction(transactionRequest, verifiedToken.getUserId());
             }
+
+            return transactionTemplate.execute(status -> postTransaction(transactionRequest, verifiedToken.getUserId()));
+        }
+
+        return null;
+    }
+
+    @Override
+    public Transaction createTransaction(TransactionRequest transactionRequest, VerifiedToken verifiedToken, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createTransaction(transactionRequest, verifiedToken);
+        }
+
+        if (isValidTransactionRequest(transactionRequest) && verifiedToken != null && !postingEngineService.isEnabled()) {
+            return idempotencyService.execute(verifiedToken.getUserId(), idempotencyKey, transactionRequest,
+                    () -> postTransaction(transactionRequest, verifiedToken.getUserId()));
         }
 
         return null;
     }
 
+    @Override
+    public List<Transaction> createTransactions(List<TransactionRequest> transactionRequests, VerifiedToken verifiedToken) {
+        if (transactionRequests == null || transactionRequests.isEmpty() || transactionRequests.size() > MAX_BATCH_SIZE
+                || verifiedToken == null || !transactionRequests.stream().allMatch(this::isValidTransactionRequest)) {
+            return null;
+        }
+
+        return transactionTemplate.execute(status -> {
+            Map<Long, Long> balanceChanges = new TreeMap<>();
+            for (TransactionRequest transactionRequest : transactionRequests) {
+                balanceChanges.merge(transactionRequest.getAccountId(), getBalanceChange(transactionRequest), Math::addExact);
+            }
+
+            for (Map.Entry<Long, Long> balanceChange : balanceChanges.entrySet()) {
+                if (accountRepository.applyBalanceChange(balanceChange.getKey(), verifiedToken.getUserId(), balanceChange.getValue()) != 1) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+            }
+
+            List<Transaction> transactions = new ArrayList<>(transactionRequests.size());
+            for (TransactionRequest transactionRequest : transactionRequests) {
+                transactions.add(createTransactionEntity(transactionRequest));
+            }
+
+            return transactionRepository.saveAll(transactions);
+        });
+    }
+
+    @Override
+    public List<Transaction> createTransfer(TransferRequest transferRequest, VerifiedToken verifiedToken) {
+        if (!isValidTransferRequest(transferRequest) || verifiedToken == null) {
+            return null;
+        }
+
+        return transactionTemplate.execute(status -> {
+            boolean applied = transferRequest.getFromAccountId() < transferRequest.getToAccountId() ?
+                    debitTransfer(transferRequest, verifiedToken.getUserId()) && creditTransfer(transferRequest) :
+                    creditTransfer(transferRequest) && debitTransfer(transferRequest, verifiedToken.getUserId());
+            if (!applied) {
+                status.setRollbackOnly();
+                return null;
+            }
+
+            Transaction debit = transactionRepository.save(createTransactionEntity(transferRequest.getFromAccountId(),
+                    transferRequest.getAmount(), transferRequest.getDescription(), TransactionType.TRANSFER_OUT));
+            Transaction credit = createTransactionEntity(transferRequest.getToAccountId(),
+                    transferRequest.getAmount(), transferRequest.getDescription(), TransactionType.TRANSFER_IN);
+            credit.setLinkedTransactionId(debit.getId());
+            credit = transactionRepository.save(credit);
+            debit.setLinkedTransactionId(credit.getId());
+
+            return List.of(debit, credit);
+        });
+    }
+
+    private boolean debitTransfer(TransferRequest transferRequest, Long userId) {
+        return accountRepository.applyBalanceChange(transferRequest.getFromAccountId(), userId, -transferRequest.getAmount()) == 1;
+    }
+
+    private boolean creditTransfer(TransferRequest transferRequest) {
+        return accountRepository.creditBalance(transferRequest.getToAccountId(), transferRequest.getAmount()) == 1;
+    }
+
+    private Transaction postTransaction(TransactionRequest transactionRequest, Long userId) {
+        if (accountRepository.applyBalanceChange(transactionRequest.getAccountId(), userId, getBalanceChange(transactionRequest)) != 1) {
+            return null;
+        }
+
+        return transactionRepository.save(createTransactionEntity(transactionRequest));
+    }
+
+    private Transaction createTransactionEntity(TransactionRequest transactionRequest) {
+        return createTransactionEntity(transactionRequest.getAccountId(), transactionRequest.getAmount(),
+                transactionRequest.getDescription(), transactionRequest.getTransactionType());
+    }
+
+    private Transaction createTransactionEntity(Long accountId, long amount, String description, TransactionType transactionType) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setTransactionType(transactionType);
+        transaction.setPostedAt(new Date());
+        transaction.setAccount(accountRepository.getReferenceById(accountId));
+
+        return transaction;
+    }
+
+    private long getBalanceChange(TransactionRequest transactionRequest) {
+        return transactionRequest.getTransactionType() == TransactionType.WITHDRAWAL ?
+                -transactionRequest.getAmount() : transactionRequest.getAmount();
+    }
+
     private boolean isValidTransactionRequest(TransactionRequest transactionRequest) {
         return transactionRequest != null &&
                 transactionRequest.getAccountId() != null &&
-                transactionRequest.getTransactionType() != null &&
-                transactionRequest.getAmount() != 0.0 &&
+                (transactionRequest.getTransactionType() == TransactionType.WITHDRAWAL ||
+                        transactionRequest.getTransactionType() == TransactionType.LODGEMENT) &&
+                transactionRequest.getAmount() > 0 &&
                 transactionRequest.getDescription() != null;
     }
 
-    private boolean isUserAllowed(Long id, HttpServletRequest request) {
-        return accountService.getLoggedInAccounts(request).stream()
-                .anyMatch(account -> Objects.equals(account.getId(), id));
+    private boolean isValidTransferRequest(TransferRequest transferRequest) {
+        return transferRequest != null &&
+                transferRequest.getFromAccountId() != null &&
+                transferRequest.getToAccountId() != null &&
+                !transferRequest.getFromAccountId().equals(transferRequest.getToAccountId()) &&
+                transferRequest.getAmount() > 0 &&
+                transferRequest.getDescription() != null;
     }
 
 }
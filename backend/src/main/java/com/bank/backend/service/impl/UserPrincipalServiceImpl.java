@@ -0,0 +1,70 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.UserPrincipal;
+import com.bank.backend.repository.UserRepository;
+import com.bank.backend.service.UserPrincipalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class UserPrincipalServiceImpl implements UserPrincipalService {
+
+    @Value("${application.security.principal-cache-size:100000}")
+    private int MAX_CACHE_SIZE;
+
+    @Value("${application.security.principal-cache-ttl:300000}")
+    private long CACHE_TTL;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, CachedPrincipal> principals = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+            return size() > MAX_CACHE_SIZE || eldest.getValue().expiresAt <= System.currentTimeMillis();
+        }
+    };
+
+    @Override
+    public UserPrincipal getUserPrincipal(String username, Long tokenEpoch) {
+        CachedPrincipal cached;
+        synchronized (principals) {
+            cached = principals.get(username);
+        }
+        long now = System.currentTimeMillis();
+
+        if (cached != null && cached.expiresAt > now && (tokenEpoch == null || cached.principal.getTokenEpoch() >= tokenEpoch)) {
+            return cached.principal;
+        }
+
+        UserPrincipal principal = userRepository.findPrincipalByUsername(username).orElse(null);
+        synchronized (principals) {
+            if (principal == null) {
+                principals.remove(username);
+                return null;
+            }
+
+            principals.put(username, new CachedPrincipal(principal, now + CACHE_TTL));
+        }
+
+        return principal;
+    }
+
+    @Override
+    public void evictUserPrincipal(String username) {
+        if (username == null) {
+            return;
+        }
+
+        synchronized (principals) {
+            principals.remove(username);
+        }
+    }
+
+    private record CachedPrincipal(UserPrincipal principal, long expiresAt) {
+    }
+
+}
@@ -5,6 +5,10 @@ import com.bank.backend.repository.TokenRepository;
 import com.bank.backend.repository.UserRepository;
 import com.bank.backend.service.UserService;
 import com.bank.backend.service.JwtService;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.service.UserPrincipalService;
+import com.bank.backend.util.TokenDigest;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -33,6 +37,12 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
+    @Autowired
+    private UserPrincipalService userPrincipalService;
+
     @Override
     public AuthenticationResponse createNewUser(UserRequest userRequest) {
         if (!isValidUserRequest(userRequest) || userRepository.findByUsername(userRequest.getUsername()).isPresent()) {
@@ -59,9 +69,9 @@ public class UserServiceImpl implements UserService {
         ));
 
         User user = userRepository.findByUsername(loginRequest.getUsername()).get();
+        revokeAllTokenByUser(user);
         String accessToken = jwtService.generateAccessToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
-        revokeAllTokenByUser(user);
         saveUserToken(accessToken, refreshToken, user);
 
         return new AuthenticationResponse(accessToken, refreshToken, "User Login Was Successful.");
@@ -80,9 +90,9 @@ public class UserServiceImpl implements UserService {
         Optional<User> user = userRepository.findByUsername(username);
 
         if (user.isPresent() && jwtService.isValidRefreshToken(token, user.get())) {
+            revokeAllTokenByUser(user.get());
             String accessToken = jwtService.generateAccessToken(user.get());
             String refreshToken = jwtService.generateRefreshToken(user.get());
-            revokeAllTokenByUser(user.get());
             saveUserToken(accessToken, refreshToken, user.get());
 
             return new AuthenticationResponse(accessToken, refreshToken, "New Token Generated.");
@@ -92,16 +102,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User getLoggedInUser(HttpServletRequest request) {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public User getLoggedInUser(VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
             return null;
         }
 
-        String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
-
-        return userRepository.findByUsername(username).orElse(null);
+        return userRepository.findByUsername(verifiedToken.getUsername()).orElse(null);
     }
 
     @Override
@@ -115,16 +121,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User updateLoggedInUser(HttpServletRequest request, UserRequest userRequest) {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public User updateLoggedInUser(VerifiedToken verifiedToken, UserRequest userRequest) {
+        if (verifiedToken == null) {
             return null;
         }
 
-        String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
-
-        Optional<User> user = userRepository.findByUsername(username);
+        Optional<User> user = userRepository.findByUsername(verifiedToken.getUsername());
         return user.map(value -> saveUser(userRequest, value)).orElse(null);
     }
 
@@ -135,18 +137,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public boolean deleteLoggedInUser(HttpServletRequest request) {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public boolean deleteLoggedInUser(VerifiedToken verifiedToken) {
+        if (verifiedToken == null) {
             return false;
         }
 
-        String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
-
-        Optional<User> user = userRepository.findByUsername(username);
+        Optional<User> user = userRepository.findByUsername(verifiedToken.getUsername());
         if (user.isPresent()) {
             userRepository.deleteById(user.get().getId());
+            userPrincipalService.evictUserPrincipal(user.get().getUsername());
             return true;
         }
 
@@ -155,14 +154,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean deleteUserById(Long id) {
-        if (userRepository.existsById(id)) {
+        Optional<User> user = userRepository.findById(id);
+        if (user.isPresent()) {
             userRepository.deleteById(id);
+            userPrincipalService.evictUserPrincipal(user.get().getUsername());
             return true;
         }
         return false;
     }
 
     private User saveUser(UserRequest userRequest, User user) {
+        String previousUsername = user.getUsername();
+        UserRole previousRole = user.getUserRole();
         user.setFirstName(userRequest.getFirstName());
         user.setLastName(userRequest.getLastName());
         user.setEmail(userRequest.getEmail());
@@ -171,27 +174,32 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
         user.setUserRole(userRequest.getUserRole());
 
-        return userRepository.save(user);
-    }
+        User savedUser = userRepository.save(user);
+        userPrincipalService.evictUserPrincipal(previousUsername);
 
-    private void revokeAllTokenByUser(User user) {
-        List<Token> validTokens = tokenRepository.findAllAccessTokensByUser(user.getId());
-        if(validTokens.isEmpty()) {
-            return;
+        if (previousUsername != null && (!previousUsername.equals(savedUser.getUsername()) || previousRole != savedUser.getUserRole())) {
+            revokeAllTokenByUser(savedUser);
         }
 
-        validTokens.forEach(t-> t.setLoggedOut(true));
-        tokenRepository.saveAll(validTokens);
+        return savedUser;
+    }
+
+    private void revokeAllTokenByUser(User user) {
+        userRepository.incrementTokenEpoch(user.getId());
+        user.setTokenEpoch(userRepository.findTokenEpochById(user.getId()));
+        userPrincipalService.evictUserPrincipal(user.getUsername());
     }
 
     private void saveUserToken(String accessToken, String refreshToken, User user) {
         Token token = new Token();
-        token.setAccessToken(accessToken);
-        token.setRefreshToken(refreshToken);
+        token.setAccessTokenDigest(TokenDigest.digest(accessToken));
+        token.setRefreshTokenDigest(TokenDigest.digest(refreshToken));
         token.setLoggedOut(false);
+        token.setExpiresAt(jwtService.extractClaim(refreshToken, Claims::getExpiration));
         token.setUser(user);
 
         tokenRepository.save(token);
+        tokenCacheService.cacheToken(accessToken, jwtService.extractClaim(accessToken, Claims::getExpiration));
     }
 
     private boolean isValidUserRequest(UserRequest userRequest) {
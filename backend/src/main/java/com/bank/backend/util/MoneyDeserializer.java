@@ -0,0 +1,36 @@
+package com.bank.backend.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+public class MoneyDeserializer extends StdDeserializer<Long> {
+
+    public MoneyDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        String text = parser.getText();
+
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Money.toMinorUnits(parser.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return Money.toMinorUnits(new BigDecimal(text.trim()));
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return (Long) context.handleWeirdStringValue(Long.class, text,
+                    "Amount must be a decimal with at most " + Money.SCALE + " fractional digits");
+        }
+
+        return (Long) context.handleUnexpectedToken(Long.class, parser);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.bank.backend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+public class MoneySerializer extends StdSerializer<Long> {
+
+    public MoneySerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeNumber(Money.toDecimal(value));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.bank.backend.configuration;
+
+import com.bank.backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoderTests {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 5, meterRegistry);
+    }
+
+    @AfterEach
+    public void teardown() {
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    public void testEncodeDelegates() {
+        Mockito.when(delegate.encode("Password")).thenReturn("Encoded");
+
+        Assertions.assertEquals("Encoded", passwordEncoder.encode("Password"));
+        Assertions.assertEquals(1, meterRegistry.get("password.hash.duration").timer().count());
+
+        Mockito.verify(delegate, Mockito.times(1)).encode("Password");
+    }
+
+    @Test
+    public void testMatchesDelegates() {
+        Mockito.when(delegate.matches("Password", "Encoded")).thenReturn(true);
+
+        Assertions.assertTrue(passwordEncoder.matches("Password", "Encoded"));
+
+        Mockito.verify(delegate, Mockito.times(1)).matches("Password", "Encoded");
+    }
+
+    @Test
+    public void testDelegateExceptionPropagates() {
+        Mockito.when(delegate.encode("Password")).thenThrow(new IllegalArgumentException("Bad Password"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> passwordEncoder.encode("Password"));
+    }
+
+    @Test
+    public void testSaturatedPoolRejects() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Mockito.when(delegate.encode(Mockito.anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "Encoded";
+        });
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("Running"));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("Queued"));
+        waitForQueue(1);
+
+        ServiceUnavailableException exception = Assertions.assertThrows(ServiceUnavailableException.class, () -> passwordEncoder.encode("Rejected"));
+
+        release.countDown();
+
+        Assertions.assertEquals(5, exception.getRetryAfterSeconds());
+        Assertions.assertEquals("Encoded", running.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("Encoded", queued.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+
+    private void waitForQueue(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(meterRegistry.get("password.hash.queue.size").gauge().value() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+}
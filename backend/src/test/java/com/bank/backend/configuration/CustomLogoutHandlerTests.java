@@ -4,8 +4,11 @@ import com.bank.backend.model.Token;
 import com.bank.backend.model.User;
 import com.bank.backend.model.UserRole;
 import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.util.TokenDigest;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -21,6 +24,9 @@ public class CustomLogoutHandlerTests {
     @Mock
     private TokenRepository tokenRepository;
 
+    @Mock
+    private TokenCacheService tokenCacheService;
+
     @InjectMocks
     private CustomLogoutHandler customLogoutHandler;
 
@@ -37,15 +43,18 @@ public class CustomLogoutHandlerTests {
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         Authentication authentication = Mockito.mock(Authentication.class);
 
-        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token.getRefreshToken());
-        Mockito.when(tokenRepository.findByAccessToken(Mockito.anyString())).thenReturn(Optional.of(token));
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(tokenRepository.findByAccessTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
         Mockito.when(tokenRepository.save(Mockito.any(Token.class))).thenReturn(token);
 
         customLogoutHandler.logout(request, response, authentication);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
-        Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessToken(Mockito.anyString());
+        Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessTokenDigest(Mockito.any(byte[].class));
         Mockito.verify(tokenRepository, Mockito.times(1)).save(Mockito.any(Token.class));
+        Mockito.verify(tokenCacheService, Mockito.times(1)).evictToken("refreshToken");
+        Assertions.assertTrue(token.isLoggedOut());
+        Assertions.assertNotNull(token.getExpiresAt());
     }
 
     @Test
@@ -59,6 +68,7 @@ public class CustomLogoutHandlerTests {
         customLogoutHandler.logout(request, response, authentication);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
+        Mockito.verifyNoInteractions(tokenCacheService);
     }
 
     @Test
@@ -82,13 +92,13 @@ public class CustomLogoutHandlerTests {
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         Authentication authentication = Mockito.mock(Authentication.class);
 
-        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token.getRefreshToken());
-        Mockito.when(tokenRepository.findByAccessToken(Mockito.anyString())).thenReturn(Optional.empty());
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(tokenRepository.findByAccessTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.empty());
 
         customLogoutHandler.logout(request, response, authentication);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
-        Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessToken(Mockito.anyString());
+        Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessTokenDigest(Mockito.any(byte[].class));
     }
 
     private User createUser() {
@@ -104,8 +114,8 @@ public class CustomLogoutHandlerTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
@@ -0,0 +1,86 @@
+package com.bank.backend.configuration;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.crypto.SecretKey;
+
+public class JwtKeyRingTests {
+
+    private static final String ACTIVE_SECRET = "4bb6d1dfbafb64a681139d1586b6f1160d18159afd57c8c79136d7490630407c";
+
+    private static final String RETIRED_SECRET = "9f1c2e7a4b8d3f6e0a5c1b9d7e2f4a8c6b0d3e5f7a9c1e3b5d7f9a2c4e6b8d0f";
+
+    private JwtKeyRing jwtKeyRing;
+
+    @BeforeEach
+    public void setup() {
+        jwtKeyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(jwtKeyRing, "SECRET_KEY", ACTIVE_SECRET);
+        ReflectionTestUtils.setField(jwtKeyRing, "KEY_ID", "current");
+        ReflectionTestUtils.setField(jwtKeyRing, "RETIRED_KEYS", "previous:" + RETIRED_SECRET);
+        jwtKeyRing.init();
+    }
+
+    @Test
+    public void parseActiveKeyToken() {
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyRing.getActiveKeyId())
+                .setSubject("Username")
+                .signWith(jwtKeyRing.getActiveKey())
+                .compact();
+
+        Assertions.assertEquals("current", jwtKeyRing.getActiveKeyId());
+        Assertions.assertEquals("Username", jwtKeyRing.getParser().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    public void parseRetiredKeyToken() {
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "previous")
+                .setSubject("Username")
+                .signWith(createKey(RETIRED_SECRET))
+                .compact();
+
+        Assertions.assertEquals("Username", jwtKeyRing.getParser().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    public void parseTokenWithoutKeyId() {
+        String token = Jwts.builder()
+                .setSubject("Username")
+                .signWith(createKey(ACTIVE_SECRET))
+                .compact();
+
+        Assertions.assertEquals("Username", jwtKeyRing.getParser().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    public void parseUnknownKeyIdToken() {
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+                .setSubject("Username")
+                .signWith(jwtKeyRing.getActiveKey())
+                .compact();
+
+        Assertions.assertThrows(SignatureException.class, () -> jwtKeyRing.getParser().parseClaimsJws(token));
+    }
+
+    @Test
+    public void initInvalidRetiredKeys() {
+        ReflectionTestUtils.setField(jwtKeyRing, "RETIRED_KEYS", "previous");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> jwtKeyRing.init());
+    }
+
+    private SecretKey createKey(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(secret));
+    }
+
+}
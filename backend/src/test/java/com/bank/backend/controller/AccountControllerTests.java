@@ -2,7 +2,8 @@ package com.bank.backend.controller;
 
 import com.bank.backend.model.*;
 import com.bank.backend.service.AccountService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.bank.backend.service.BalanceSnapshotService;
+import com.bank.backend.service.StatementService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,8 +11,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
 import java.util.Collections;
 import java.util.List;
 
@@ -21,7 +27,13 @@ public class AccountControllerTests {
     private AccountService accountService;
 
     @Mock
-    private HttpServletRequest request;
+    private StatementService statementService;
+
+    @Mock
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private VerifiedToken verifiedToken;
 
     @InjectMocks
     private AccountController accountController;
@@ -65,54 +77,54 @@ public class AccountControllerTests {
     public void testGetLoggedInAccountsSuccess() {
         List<Account> accountList = createUser().getAccountList();
 
-        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(HttpServletRequest.class))).thenReturn(accountList);
+        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(VerifiedToken.class))).thenReturn(accountList);
 
-        ResponseEntity<?> response = accountController.getLoggedInAccounts(request);
+        ResponseEntity<?> response = accountController.getLoggedInAccounts(verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
         Assertions.assertEquals(accountList, response.getBody());
 
-        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(VerifiedToken.class));
     }
 
     @Test
     public void testGetLoggedInAccountsFail() {
-        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(HttpServletRequest.class))).thenReturn(null);
+        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(VerifiedToken.class))).thenReturn(null);
 
-        ResponseEntity<?> response = accountController.getLoggedInAccounts(request);
+        ResponseEntity<?> response = accountController.getLoggedInAccounts(verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(VerifiedToken.class));
     }
 
     @Test
     public void testGetAccountByIdSuccess() {
         Account account = createUser().getAccountList().get(0);
 
-        Mockito.when(accountService.getAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class))).thenReturn(account);
+        Mockito.when(accountService.getAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class))).thenReturn(account);
 
-        ResponseEntity<?> response = accountController.getAccountById(1L, request);
+        ResponseEntity<?> response = accountController.getAccountById(1L, verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
         Assertions.assertEquals(account, response.getBody());
 
-        Mockito.verify(accountService, Mockito.times(1)).getAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class));
+        Mockito.verify(accountService, Mockito.times(1)).getAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class));
     }
 
     @Test
     public void testGetAccountByIdFail() {
-        Mockito.when(accountService.getAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class))).thenReturn(null);
+        Mockito.when(accountService.getAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class))).thenReturn(null);
 
-        ResponseEntity<?> response = accountController.getAccountById(1L, request);
+        ResponseEntity<?> response = accountController.getAccountById(1L, verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(accountService, Mockito.times(1)).getAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class));
+        Mockito.verify(accountService, Mockito.times(1)).getAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class));
     }
 
     @Test
@@ -144,26 +156,139 @@ public class AccountControllerTests {
 
     @Test
     public void testDeleteAccountByIdSuccess() {
-        Mockito.when(accountService.deleteAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class))).thenReturn(true);
+        Mockito.when(accountService.deleteAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class))).thenReturn(true);
 
-        ResponseEntity<?> response = accountController.deleteAccountById(1L, request);
+        ResponseEntity<?> response = accountController.deleteAccountById(1L, verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
 
-        Mockito.verify(accountService, Mockito.times(1)).deleteAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class));
+        Mockito.verify(accountService, Mockito.times(1)).deleteAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class));
     }
 
     @Test
     public void testDeleteAccountByIdFail() {
-        Mockito.when(accountService.deleteAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class))).thenReturn(false);
+        Mockito.when(accountService.deleteAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class))).thenReturn(false);
 
-        ResponseEntity<?> response = accountController.deleteAccountById(1L, request);
+        ResponseEntity<?> response = accountController.deleteAccountById(1L, verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(accountService, Mockito.times(1)).deleteAccountById(Mockito.any(Long.class), Mockito.any(HttpServletRequest.class));
+        Mockito.verify(accountService, Mockito.times(1)).deleteAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class));
+    }
+
+    @Test
+    public void testGetAccountTransactionsSuccess() {
+        TransactionPage transactionPage = new TransactionPage(Collections.emptyList(), null);
+
+        Mockito.when(accountService.getAccountTransactions(1L, 50L, 20, verifiedToken)).thenReturn(transactionPage);
+
+        ResponseEntity<?> response = accountController.getAccountTransactions(1L, 50L, 20, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(transactionPage, response.getBody());
+
+        Mockito.verify(accountService, Mockito.times(1)).getAccountTransactions(1L, 50L, 20, verifiedToken);
+    }
+
+    @Test
+    public void testGetAccountTransactionsFail() {
+        Mockito.when(accountService.getAccountTransactions(Mockito.any(Long.class), Mockito.isNull(), Mockito.anyInt(), Mockito.any(VerifiedToken.class))).thenReturn(null);
+
+        ResponseEntity<?> response = accountController.getAccountTransactions(1L, null, 20, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetAccountTransactionsByDateRangeSuccess() {
+        TransactionPage transactionPage = new TransactionPage(Collections.emptyList(), null);
+        Date from = new Date(1000L);
+        Date to = new Date(5000L);
+
+        Mockito.when(accountService.getAccountTransactions(1L, from, to, null, 20, verifiedToken)).thenReturn(transactionPage);
+
+        ResponseEntity<?> response = accountController.getAccountTransactionsByDateRange(1L, from, to, null, 20, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(transactionPage, response.getBody());
+    }
+
+    @Test
+    public void testGetAccountTransactionsByDateRangeFail() {
+        ResponseEntity<?> response = accountController.getAccountTransactionsByDateRange(1L, new Date(5000L), new Date(1000L), null, 20, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetAccountBalanceAsOfSuccess() {
+        Account account = createUser().getAccountList().get(0);
+        Date asOf = new Date(5000L);
+        BalanceAsOf balanceAsOf = new BalanceAsOf(1L, asOf, 1000L);
+
+        Mockito.when(accountService.getAccountById(1L, verifiedToken)).thenReturn(account);
+        Mockito.when(balanceSnapshotService.getBalanceAsOf(1L, asOf)).thenReturn(balanceAsOf);
+
+        ResponseEntity<?> response = accountController.getAccountBalanceAsOf(1L, asOf, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(balanceAsOf, response.getBody());
+    }
+
+    @Test
+    public void testGetAccountBalanceAsOfFail() {
+        Mockito.when(accountService.getAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class))).thenReturn(null);
+
+        ResponseEntity<?> response = accountController.getAccountBalanceAsOf(1L, new Date(5000L), verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        Mockito.verifyNoInteractions(balanceSnapshotService);
+    }
+
+    @Test
+    public void testExportStatementSuccess() throws IOException {
+        Account account = createUser().getAccountList().get(0);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        Mockito.when(accountService.getAccountById(1L, verifiedToken)).thenReturn(account);
+
+        ResponseEntity<?> response = accountController.exportStatement(1L, StatementFormat.NDJSON, false, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        Assertions.assertEquals("attachment; filename=\"statement-1.ndjson\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+
+        Mockito.verify(statementService, Mockito.times(1)).writeStatement(1L, StatementFormat.NDJSON, false, outputStream);
+    }
+
+    @Test
+    public void testExportStatementGzip() {
+        Account account = createUser().getAccountList().get(0);
+
+        Mockito.when(accountService.getAccountById(1L, verifiedToken)).thenReturn(account);
+
+        ResponseEntity<?> response = accountController.exportStatement(1L, StatementFormat.CSV, true, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        Assertions.assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testExportStatementFail() {
+        Mockito.when(accountService.getAccountById(Mockito.any(Long.class), Mockito.any(VerifiedToken.class))).thenReturn(null);
+
+        ResponseEntity<?> response = accountController.exportStatement(1L, StatementFormat.CSV, false, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        Mockito.verifyNoInteractions(statementService);
     }
 
     private User createUser() {
@@ -180,7 +305,7 @@ public class AccountControllerTests {
         Account account = new Account();
         account.setId(1L);
         account.setAccountNumber("123456");
-        account.setBalance(0.0);
+        account.setBalance(0L);
         account.setAccountType(AccountType.CURRENT);
         account.setUser(user);
 
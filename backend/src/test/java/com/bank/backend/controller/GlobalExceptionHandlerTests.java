@@ -0,0 +1,25 @@
+package com.bank.backend.controller;
+
+import com.bank.backend.exception.InvalidRequestException;
+import com.bank.backend.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+
+    @Test
+    public void testHandleServiceUnavailable() {
+        ResponseEntity<?> response = globalExceptionHandler.handleServiceUnavailable(new ServiceUnavailableException("Server Is Busy. Try Again Later!", 3));
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Assertions.assertInstanceOf(InvalidRequestException.class, response.getBody());
+        Assertions.assertEquals("Server Is Busy. Try Again Later!", ((InvalidRequestException) response.getBody()).getMessage());
+    }
+
+}
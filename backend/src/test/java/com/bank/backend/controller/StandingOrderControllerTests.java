@@ -0,0 +1,97 @@
+package com.bank.backend.controller;
+
+import com.bank.backend.exception.InvalidRequestException;
+import com.bank.backend.model.StandingOrder;
+import com.bank.backend.model.StandingOrderRequest;
+import com.bank.backend.model.VerifiedToken;
+import com.bank.backend.service.StandingOrderService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.util.List;
+
+public class StandingOrderControllerTests {
+
+    @Mock
+    private StandingOrderService standingOrderService;
+
+    @Mock
+    private VerifiedToken verifiedToken;
+
+    @InjectMocks
+    private StandingOrderController standingOrderController;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testCreateNewStandingOrderSuccess() {
+        StandingOrderRequest standingOrderRequest = new StandingOrderRequest();
+        StandingOrder standingOrder = new StandingOrder();
+
+        Mockito.when(standingOrderService.createStandingOrder(standingOrderRequest, verifiedToken)).thenReturn(standingOrder);
+
+        ResponseEntity<?> response = standingOrderController.createNewStandingOrder(standingOrderRequest, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertEquals(standingOrder, response.getBody());
+    }
+
+    @Test
+    public void testCreateNewStandingOrderFail() {
+        Mockito.when(standingOrderService.createStandingOrder(Mockito.any(StandingOrderRequest.class), Mockito.any(VerifiedToken.class))).thenReturn(null);
+
+        ResponseEntity<?> response = standingOrderController.createNewStandingOrder(new StandingOrderRequest(), verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertInstanceOf(InvalidRequestException.class, response.getBody());
+    }
+
+    @Test
+    public void testGetLoggedInStandingOrdersSuccess() {
+        List<StandingOrder> standingOrders = List.of(new StandingOrder());
+
+        Mockito.when(standingOrderService.getLoggedInStandingOrders(verifiedToken)).thenReturn(standingOrders);
+
+        ResponseEntity<?> response = standingOrderController.getLoggedInStandingOrders(verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(standingOrders, response.getBody());
+    }
+
+    @Test
+    public void testGetLoggedInStandingOrdersFail() {
+        Mockito.when(standingOrderService.getLoggedInStandingOrders(null)).thenReturn(null);
+
+        ResponseEntity<?> response = standingOrderController.getLoggedInStandingOrders(null);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testCancelStandingOrderSuccess() {
+        Mockito.when(standingOrderService.cancelStandingOrder(1L, verifiedToken)).thenReturn(true);
+
+        ResponseEntity<?> response = standingOrderController.cancelStandingOrderById(1L, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+
+    @Test
+    public void testCancelStandingOrderFail() {
+        Mockito.when(standingOrderService.cancelStandingOrder(1L, verifiedToken)).thenReturn(false);
+
+        ResponseEntity<?> response = standingOrderController.cancelStandingOrderById(1L, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+}
@@ -1,34 +1,50 @@
 package com.bank.backend.controller;
 
+import com.bank.backend.exception.InvalidRequestException;
 import com.bank.backend.model.*;
 import com.bank.backend.service.TransactionService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.bank.backend.util.TokenDigest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class TransactionControllerTests {
 
     @Mock
-    private HttpServletRequest request;
+    private VerifiedToken verifiedToken;
 
     @Mock
     private TransactionService transactionService;
 
+    @Captor
+    private ArgumentCaptor<List<TransactionRequest>> transactionRequestCaptor;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private TransactionController transactionController;
 
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(transactionController, "MAX_BATCH_SIZE", 2);
     }
 
     @Test
@@ -36,34 +52,148 @@ public class TransactionControllerTests {
         TransactionRequest transactionRequest = createTransactionRequest();
         Transaction transaction = createUser().getAccountList().get(0).getTransactionList().get(0);
 
-        Mockito.when(transactionService.createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(HttpServletRequest.class))).thenReturn(transaction);
+        Mockito.when(transactionService.createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(VerifiedToken.class), Mockito.isNull())).thenReturn(transaction);
 
-        ResponseEntity<?> response = transactionController.createNewTransaction(transactionRequest, request);
+        ResponseEntity<?> response = transactionController.createNewTransaction(transactionRequest, verifiedToken, null);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
         Assertions.assertEquals(transaction, response.getBody());
 
-        Mockito.verify(transactionService, Mockito.times(1)).createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(HttpServletRequest.class));
+        Mockito.verify(transactionService, Mockito.times(1)).createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(VerifiedToken.class), Mockito.isNull());
     }
 
     @Test
     public void testCreateNewTransactionFail() {
         TransactionRequest transactionRequest = createTransactionRequest();
 
-        Mockito.when(transactionService.createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(HttpServletRequest.class))).thenReturn(null);
+        Mockito.when(transactionService.createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(VerifiedToken.class), Mockito.isNull())).thenReturn(null);
 
-        ResponseEntity<?> response = transactionController.createNewTransaction(transactionRequest, request);
+        ResponseEntity<?> response = transactionController.createNewTransaction(transactionRequest, verifiedToken, null);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(transactionService, Mockito.times(1)).createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(HttpServletRequest.class));
+        Mockito.verify(transactionService, Mockito.times(1)).createTransaction(Mockito.any(TransactionRequest.class), Mockito.any(VerifiedToken.class), Mockito.isNull());
+    }
+
+    @Test
+    public void testCreateNewTransactionIdempotencyKey() {
+        TransactionRequest transactionRequest = createTransactionRequest();
+        Transaction transaction = createUser().getAccountList().get(0).getTransactionList().get(0);
+
+        Mockito.when(transactionService.createTransaction(transactionRequest, verifiedToken, "key")).thenReturn(transaction);
+
+        ResponseEntity<?> response = transactionController.createNewTransaction(transactionRequest, verifiedToken, "key");
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertEquals(transaction, response.getBody());
+
+        Mockito.verify(transactionService, Mockito.times(1)).createTransaction(transactionRequest, verifiedToken, "key");
+    }
+
+    @Test
+    public void testCreateTransactionBatchSuccess() {
+        List<TransactionRequest> transactionRequests = List.of(createTransactionRequest(), createTransactionRequest());
+        List<Transaction> transactions = createUser().getAccountList().get(0).getTransactionList();
+
+        Mockito.when(transactionService.createTransactions(Mockito.anyList(), Mockito.any(VerifiedToken.class))).thenReturn(transactions);
+
+        ResponseEntity<?> response = transactionController.createTransactionBatch(transactionRequests, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertEquals(transactions, response.getBody());
+
+        Mockito.verify(transactionService, Mockito.times(1)).createTransactions(transactionRequests, verifiedToken);
+    }
+
+    @Test
+    public void testCreateTransactionBatchFail() {
+        Mockito.when(transactionService.createTransactions(Mockito.anyList(), Mockito.any(VerifiedToken.class))).thenReturn(null);
+
+        ResponseEntity<?> response = transactionController.createTransactionBatch(List.of(createTransactionRequest()), verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testCreateTransactionBatchFromNdjsonSuccess() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent((
+                "{\"accountId\":1,\"amount\":10.50,\"description\":\"Salary\",\"transactionType\":\"LODGEMENT\"}\n" +
+                "{\"accountId\":2,\"amount\":\"20\",\"description\":\"Salary\",\"transactionType\":\"LODGEMENT\"}\n"
+        ).getBytes(StandardCharsets.UTF_8));
+        List<Transaction> transactions = createUser().getAccountList().get(0).getTransactionList();
+
+        Mockito.when(transactionService.createTransactions(Mockito.anyList(), Mockito.any(VerifiedToken.class))).thenReturn(transactions);
+
+        ResponseEntity<?> response = transactionController.createTransactionBatchFromNdjson(request, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        Mockito.verify(transactionService, Mockito.times(1)).createTransactions(transactionRequestCaptor.capture(), Mockito.eq(verifiedToken));
+        Assertions.assertEquals(2, transactionRequestCaptor.getValue().size());
+        Assertions.assertEquals(1050L, transactionRequestCaptor.getValue().get(0).getAmount());
+        Assertions.assertEquals(2L, transactionRequestCaptor.getValue().get(1).getAccountId());
+        Assertions.assertEquals(2000L, transactionRequestCaptor.getValue().get(1).getAmount());
+    }
+
+    @Test
+    public void testCreateTransactionBatchFromNdjsonMalformed() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{\"accountId\":1,\"amount\":10.505}\n".getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<?> response = transactionController.createTransactionBatchFromNdjson(request, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        Mockito.verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    public void testCreateTransactionBatchFromNdjsonTooLarge() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent((
+                "{\"accountId\":1,\"amount\":10,\"description\":\"Salary\",\"transactionType\":\"LODGEMENT\"}\n" +
+                "{\"accountId\":1,\"amount\":10,\"description\":\"Salary\",\"transactionType\":\"LODGEMENT\"}\n" +
+                "{\"accountId\":1,\"amount\":10,\"description\":\"Salary\",\"transactionType\":\"LODGEMENT\"}\n"
+        ).getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<?> response = transactionController.createTransactionBatchFromNdjson(request, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        Mockito.verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    public void testCreateTransferSuccess() {
+        TransferRequest transferRequest = new TransferRequest();
+        List<Transaction> transactions = createUser().getAccountList().get(0).getTransactionList();
+
+        Mockito.when(transactionService.createTransfer(transferRequest, verifiedToken)).thenReturn(transactions);
+
+        ResponseEntity<?> response = transactionController.createTransfer(transferRequest, verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertEquals(transactions, response.getBody());
+
+        Mockito.verify(transactionService, Mockito.times(1)).createTransfer(transferRequest, verifiedToken);
+    }
+
+    @Test
+    public void testCreateTransferFail() {
+        Mockito.when(transactionService.createTransfer(Mockito.any(TransferRequest.class), Mockito.any(VerifiedToken.class))).thenReturn(null);
+
+        ResponseEntity<?> response = transactionController.createTransfer(new TransferRequest(), verifiedToken);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertInstanceOf(InvalidRequestException.class, response.getBody());
     }
 
     private TransactionRequest createTransactionRequest() {
         TransactionRequest transactionRequest = new TransactionRequest();
-        transactionRequest.setAmount(10.00);
+        transactionRequest.setAmount(1000L);
         transactionRequest.setDescription("Payment");
         transactionRequest.setTransactionType(TransactionType.WITHDRAWAL);
         transactionRequest.setAccountId(1L);
@@ -84,21 +214,21 @@ public class TransactionControllerTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
         Account account = new Account();
         account.setId(1L);
         account.setAccountNumber("123456");
-        account.setBalance(100.00);
+        account.setBalance(10000L);
         account.setAccountType(AccountType.CURRENT);
         account.setUser(user);
 
         Transaction transaction = new Transaction();
         transaction.setId(1L);
-        transaction.setAmount(10.00);
+        transaction.setAmount(1000L);
         transaction.setDescription("Payment");
         transaction.setTransactionType(TransactionType.WITHDRAWAL);
         transaction.setAccount(account);
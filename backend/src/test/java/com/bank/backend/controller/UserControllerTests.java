@@ -2,6 +2,7 @@ package com.bank.backend.controller;
 
 import com.bank.backend.model.*;
 import com.bank.backend.service.UserService;
+import com.bank.backend.util.TokenDigest;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,6 +24,9 @@ public class UserControllerTests {
     @Mock
     private HttpServletRequest request;
 
+    @Mock
+    private VerifiedToken verifiedToken;
+
     @InjectMocks
     private UserController userController;
 
@@ -122,27 +126,27 @@ public class UserControllerTests {
     public void testGetLoggedInUserSuccess() {
         User user = createUser();
 
-        Mockito.when(userService.getLoggedInUser(Mockito.any(HttpServletRequest.class))).thenReturn(user);
+        Mockito.when(userService.getLoggedInUser(Mockito.any(VerifiedToken.class))).thenReturn(user);
 
-        ResponseEntity<?> response = userController.getLoggedInUser(request);
+        ResponseEntity<?> response = userController.getLoggedInUser(verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
         Assertions.assertEquals(user, response.getBody());
 
-        Mockito.verify(userService, Mockito.times(1)).getLoggedInUser(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(userService, Mockito.times(1)).getLoggedInUser(Mockito.any(VerifiedToken.class));
     }
 
     @Test
     public void testGetLoggedInUserFail() {
-        Mockito.when(userService.getLoggedInUser(Mockito.any(HttpServletRequest.class))).thenReturn(null);
+        Mockito.when(userService.getLoggedInUser(Mockito.any(VerifiedToken.class))).thenReturn(null);
 
-        ResponseEntity<?> response = userController.getLoggedInUser(request);
+        ResponseEntity<?> response = userController.getLoggedInUser(verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(userService, Mockito.times(1)).getLoggedInUser(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(userService, Mockito.times(1)).getLoggedInUser(Mockito.any(VerifiedToken.class));
     }
 
     @Test
@@ -204,29 +208,29 @@ public class UserControllerTests {
         UserRequest userRequest = createUserRequest();
         User user = createUser();
 
-        Mockito.when(userService.updateLoggedInUser(Mockito.any(HttpServletRequest.class), Mockito.any(UserRequest.class))).thenReturn(user);
+        Mockito.when(userService.updateLoggedInUser(Mockito.any(VerifiedToken.class), Mockito.any(UserRequest.class))).thenReturn(user);
 
-        ResponseEntity<?> response = userController.updateLoggedInUser(request, userRequest);
+        ResponseEntity<?> response = userController.updateLoggedInUser(verifiedToken, userRequest);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
         Assertions.assertEquals(user, response.getBody());
 
-        Mockito.verify(userService, Mockito.times(1)).updateLoggedInUser(Mockito.any(HttpServletRequest.class), Mockito.any(UserRequest.class));
+        Mockito.verify(userService, Mockito.times(1)).updateLoggedInUser(Mockito.any(VerifiedToken.class), Mockito.any(UserRequest.class));
     }
 
     @Test
     public void testUpdateLoggedInUserFail() {
         UserRequest userRequest = createUserRequest();
 
-        Mockito.when(userService.updateLoggedInUser(Mockito.any(HttpServletRequest.class), Mockito.any(UserRequest.class))).thenReturn(null);
+        Mockito.when(userService.updateLoggedInUser(Mockito.any(VerifiedToken.class), Mockito.any(UserRequest.class))).thenReturn(null);
 
-        ResponseEntity<?> response = userController.updateLoggedInUser(request, userRequest);
+        ResponseEntity<?> response = userController.updateLoggedInUser(verifiedToken, userRequest);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(userService, Mockito.times(1)).updateLoggedInUser(Mockito.any(HttpServletRequest.class), Mockito.any(UserRequest.class));
+        Mockito.verify(userService, Mockito.times(1)).updateLoggedInUser(Mockito.any(VerifiedToken.class), Mockito.any(UserRequest.class));
     }
 
     @Test
@@ -260,26 +264,26 @@ public class UserControllerTests {
 
     @Test
     public void testDeleteLoggedInUserSuccess() {
-        Mockito.when(userService.deleteLoggedInUser(Mockito.any(HttpServletRequest.class))).thenReturn(true);
+        Mockito.when(userService.deleteLoggedInUser(Mockito.any(VerifiedToken.class))).thenReturn(true);
 
-        ResponseEntity<?> response = userController.deleteLoggedInUser(request);
+        ResponseEntity<?> response = userController.deleteLoggedInUser(verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
 
-        Mockito.verify(userService, Mockito.times(1)).deleteLoggedInUser(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(userService, Mockito.times(1)).deleteLoggedInUser(Mockito.any(VerifiedToken.class));
     }
 
     @Test
     public void testDeleteLoggedInUserFail() {
-        Mockito.when(userService.deleteLoggedInUser(Mockito.any(HttpServletRequest.class))).thenReturn(false);
+        Mockito.when(userService.deleteLoggedInUser(Mockito.any(VerifiedToken.class))).thenReturn(false);
 
-        ResponseEntity<?> response = userController.deleteLoggedInUser(request);
+        ResponseEntity<?> response = userController.deleteLoggedInUser(verifiedToken);
 
         Assertions.assertNotNull(response);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
-        Mockito.verify(userService, Mockito.times(1)).deleteLoggedInUser(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(userService, Mockito.times(1)).deleteLoggedInUser(Mockito.any(VerifiedToken.class));
     }
 
     @Test
@@ -340,8 +344,8 @@ public class UserControllerTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
@@ -2,15 +2,22 @@ package com.bank.backend.filter;
 
 import com.bank.backend.model.Token;
 import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
 import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
 import com.bank.backend.service.JwtService;
-import com.bank.backend.service.impl.UserDetailsServiceImpl;
+import com.bank.backend.service.UserPrincipalService;
+import com.bank.backend.util.TokenDigest;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -18,7 +25,6 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import java.io.IOException;
 import java.util.List;
 
@@ -28,7 +34,13 @@ public class JwtAuthenticationFilterTests {
     private JwtService jwtService;
 
     @Mock
-    private UserDetailsServiceImpl userDetailsService;
+    private UserPrincipalService userPrincipalService;
+
+    @Mock
+    private Claims claims;
+
+    @Captor
+    private ArgumentCaptor<Authentication> authenticationCaptor;
 
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -45,24 +57,36 @@ public class JwtAuthenticationFilterTests {
         HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         FilterChain filterChain = Mockito.mock(FilterChain.class);
-        UserDetails userDetails = Mockito.mock(UserDetails.class);
+        UserPrincipal principal = new UserPrincipal(user.getId(), user.getUsername(), user.getUserRole(), 0L);
         SecurityContext securityContext = Mockito.mock(SecurityContext.class);
 
-        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token.getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(jwtService.parseToken(Mockito.anyString())).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getId()).thenReturn("tokenId");
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(user.getId());
+        Mockito.when(claims.get("role", String.class)).thenReturn("ADMIN");
         Mockito.when(securityContext.getAuthentication()).thenReturn(null);
-        Mockito.when(userDetailsService.loadUserByUsername(Mockito.anyString())).thenReturn(userDetails);
-        Mockito.when(jwtService.isValid(Mockito.anyString(), Mockito.any(UserDetails.class))).thenReturn(true);
+        Mockito.when(userPrincipalService.getUserPrincipal(Mockito.anyString(), Mockito.any())).thenReturn(principal);
+        Mockito.when(jwtService.isValid(Mockito.anyString(), Mockito.any(Claims.class), Mockito.any(UserPrincipal.class))).thenReturn(true);
 
         SecurityContextHolder.setContext(securityContext);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userDetailsService, Mockito.times(1)).loadUserByUsername(Mockito.anyString());
-        Mockito.verify(jwtService, Mockito.times(1)).isValid(Mockito.anyString(), Mockito.any(UserDetails.class));
+        Mockito.verify(jwtService, Mockito.times(1)).parseToken(Mockito.anyString());
+        Mockito.verify(userPrincipalService, Mockito.times(1)).getUserPrincipal(Mockito.anyString(), Mockito.any());
+        Mockito.verify(jwtService, Mockito.times(1)).isValid(Mockito.anyString(), Mockito.any(Claims.class), Mockito.any(UserPrincipal.class));
+        Mockito.verify(securityContext, Mockito.times(1)).setAuthentication(authenticationCaptor.capture());
         Mockito.verify(filterChain, Mockito.times(1)).doFilter(request, response);
+
+        VerifiedToken verifiedToken = (VerifiedToken) authenticationCaptor.getValue().getPrincipal();
+        Assertions.assertEquals(user.getUsername(), verifiedToken.getUsername());
+        Assertions.assertEquals("tokenId", verifiedToken.getTokenId());
+        Assertions.assertEquals(user.getId(), verifiedToken.getUserId());
+        Assertions.assertEquals(UserRole.ADMIN, verifiedToken.getUserRole());
+        Assertions.assertEquals("ADMIN", authenticationCaptor.getValue().getAuthorities().iterator().next().getAuthority());
     }
 
     @Test
@@ -100,28 +124,53 @@ public class JwtAuthenticationFilterTests {
         HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         FilterChain filterChain = Mockito.mock(FilterChain.class);
-        UserDetails userDetails = Mockito.mock(UserDetails.class);
+        UserPrincipal principal = new UserPrincipal(user.getId(), user.getUsername(), user.getUserRole(), 0L);
         SecurityContext securityContext = Mockito.mock(SecurityContext.class);
 
-        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token.getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(jwtService.parseToken(Mockito.anyString())).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.get("role", String.class)).thenReturn("USER");
         Mockito.when(SecurityContextHolder.getContext().getAuthentication()).thenReturn(null);
-        Mockito.when(userDetailsService.loadUserByUsername(Mockito.anyString())).thenReturn(userDetails);
-        Mockito.when(jwtService.isValid(Mockito.anyString(), Mockito.any(UserDetails.class))).thenReturn(false);
+        Mockito.when(userPrincipalService.getUserPrincipal(Mockito.anyString(), Mockito.any())).thenReturn(principal);
+        Mockito.when(jwtService.isValid(Mockito.anyString(), Mockito.any(Claims.class), Mockito.any(UserPrincipal.class))).thenReturn(false);
 
         SecurityContextHolder.setContext(securityContext);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userDetailsService, Mockito.times(1)).loadUserByUsername(Mockito.anyString());
-        Mockito.verify(jwtService, Mockito.times(1)).isValid(Mockito.anyString(), Mockito.any(UserDetails.class));
+        Mockito.verify(jwtService, Mockito.times(1)).parseToken(Mockito.anyString());
+        Mockito.verify(userPrincipalService, Mockito.times(1)).getUserPrincipal(Mockito.anyString(), Mockito.any());
+        Mockito.verify(jwtService, Mockito.times(1)).isValid(Mockito.anyString(), Mockito.any(Claims.class), Mockito.any(UserPrincipal.class));
+        Mockito.verify(filterChain, Mockito.times(1)).doFilter(request, response);
+    }
+
+    @Test
+    public void doFilterInternalUnknownUser() throws ServletException, IOException {
+        User user = createUser();
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        FilterChain filterChain = Mockito.mock(FilterChain.class);
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(jwtService.parseToken(Mockito.anyString())).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(securityContext.getAuthentication()).thenReturn(null);
+        Mockito.when(userPrincipalService.getUserPrincipal(Mockito.anyString(), Mockito.any())).thenReturn(null);
+
+        SecurityContextHolder.setContext(securityContext);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        Mockito.verify(jwtService, Mockito.never()).isValid(Mockito.anyString(), Mockito.any(Claims.class), Mockito.any(UserPrincipal.class));
+        Mockito.verify(securityContext, Mockito.never()).setAuthentication(Mockito.any(Authentication.class));
         Mockito.verify(filterChain, Mockito.times(1)).doFilter(request, response);
     }
 
     @Test
-    public void doFilterInternalNullUsername() throws ServletException, IOException {
+    public void doFilterInternalInvalidSignature() throws ServletException, IOException {
         User user = createUser();
         Token token = user.getTokenList().get(0);
         HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
@@ -129,8 +178,8 @@ public class JwtAuthenticationFilterTests {
         FilterChain filterChain = Mockito.mock(FilterChain.class);
         SecurityContext securityContext = Mockito.mock(SecurityContext.class);
 
-        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token.getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(null);
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(jwtService.parseToken(Mockito.anyString())).thenReturn(null);
         Mockito.when(securityContext.getAuthentication()).thenReturn(null);
 
         SecurityContextHolder.setContext(securityContext);
@@ -138,7 +187,7 @@ public class JwtAuthenticationFilterTests {
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
+        Mockito.verify(jwtService, Mockito.times(1)).parseToken(Mockito.anyString());
         Mockito.verify(filterChain, Mockito.times(1)).doFilter(request, response);
     }
 
@@ -152,8 +201,9 @@ public class JwtAuthenticationFilterTests {
         SecurityContext securityContext = Mockito.mock(SecurityContext.class);
         Authentication authentication = Mockito.mock(Authentication.class);
 
-        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token.getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer refreshToken");
+        Mockito.when(jwtService.parseToken(Mockito.anyString())).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
         Mockito.when(securityContext.getAuthentication()).thenReturn(authentication);
 
         SecurityContextHolder.setContext(securityContext);
@@ -161,7 +211,7 @@ public class JwtAuthenticationFilterTests {
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         Mockito.verify(request, Mockito.times(1)).getHeader("Authorization");
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
+        Mockito.verify(jwtService, Mockito.times(1)).parseToken(Mockito.anyString());
         Mockito.verify(filterChain, Mockito.times(1)).doFilter(request, response);
     }
 
@@ -178,8 +228,8 @@ public class JwtAuthenticationFilterTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
@@ -0,0 +1,109 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transaction-repository;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+public class TransactionRepositoryTests {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Account account;
+
+    private Account otherAccount;
+
+    @BeforeEach
+    public void setup() {
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        account = createAccount(user, "123456");
+        otherAccount = createAccount(user, "654321");
+    }
+
+    @Test
+    public void testFindByAccountIdAndIdLessThan() {
+        List<Transaction> transactions = createTransactions(account, 5, 1000L);
+        createTransactions(otherAccount, 5, 1000L);
+
+        List<Transaction> page = transactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), transactions.get(3).getId(), Limit.of(2));
+
+        Assertions.assertEquals(List.of(transactions.get(2).getId(), transactions.get(1).getId()), page.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    public void testFindPostedBetween() {
+        List<Transaction> transactions = createTransactions(account, 6, 1000L);
+        transactions.addAll(createTransactions(account, 2, 3000L));
+        createTransactions(otherAccount, 6, 1000L);
+
+        List<Transaction> firstPage = transactionRepository.findPostedBetween(account.getId(), new Date(2000L), new Date(7000L), Long.MIN_VALUE, Limit.of(3));
+
+        Assertions.assertEquals(List.of(transactions.get(5).getId(), transactions.get(4).getId(), transactions.get(7).getId()),
+                firstPage.stream().map(Transaction::getId).toList());
+
+        Transaction cursor = firstPage.get(2);
+        List<Transaction> secondPage = transactionRepository.findPostedBetween(account.getId(), new Date(2000L), cursor.getPostedAt(), cursor.getId(), Limit.of(3));
+
+        Assertions.assertEquals(List.of(transactions.get(3).getId(), transactions.get(2).getId()),
+                secondPage.stream().map(Transaction::getId).toList());
+    }
+
+    private Account createAccount(User user, String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(0L);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+
+        return accountRepository.save(account);
+    }
+
+    private List<Transaction> createTransactions(Account account, int count, long postedAtStep) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAmount(100L);
+            transaction.setDescription("Payment");
+            transaction.setTransactionType(TransactionType.LODGEMENT);
+            transaction.setPostedAt(new Date(postedAtStep * i));
+            transaction.setAccount(account);
+            transactions.add(transactionRepository.save(transaction));
+        }
+
+        return transactions;
+    }
+
+}
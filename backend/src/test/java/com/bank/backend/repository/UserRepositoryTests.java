@@ -0,0 +1,51 @@
+package com.bank.backend.repository;
+
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-repository;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserRepositoryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testSaveDoesNotOverwriteTokenEpoch() {
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        User stale = userRepository.save(user);
+
+        userRepository.incrementTokenEpoch(stale.getId());
+
+        stale.setFirstName("First");
+        userRepository.save(stale);
+
+        Assertions.assertEquals(1L, userRepository.findTokenEpochById(stale.getId()));
+        Assertions.assertEquals("First", userRepository.findById(stale.getId()).orElseThrow().getFirstName());
+    }
+
+}
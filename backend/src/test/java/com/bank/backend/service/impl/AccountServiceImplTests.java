@@ -2,9 +2,9 @@ package com.bank.backend.service.impl;
 
 import com.bank.backend.model.*;
 import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.TransactionRepository;
 import com.bank.backend.repository.UserRepository;
-import com.bank.backend.service.JwtService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.bank.backend.util.TokenDigest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,9 +12,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -31,13 +34,9 @@ public class AccountServiceImplTests {
     private UserRepository userRepository;
 
     @Mock
-    private HttpServletRequest request;
+    private TransactionRepository transactionRepository;
 
-    @Mock
-    private HttpServletRequest requestNull;
-
-    @Mock
-    private JwtService jwtService;
+    private final VerifiedToken verifiedToken = new VerifiedToken("tokenId", 1L, "Username", UserRole.USER, new Date(1767139200000L));
 
     @InjectMocks
     private AccountServiceImpl accountService;
@@ -45,6 +44,7 @@ public class AccountServiceImplTests {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(accountService, "MAX_PAGE_SIZE", 3);
     }
 
     @Test
@@ -95,50 +95,36 @@ public class AccountServiceImplTests {
         User user = createUser();
         List<Account> accountList = user.getAccountList();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
+        Mockito.when(accountRepository.findAllByUserId(Mockito.any(Long.class))).thenReturn(accountList);
 
-        List<Account> accountListResponse = accountService.getLoggedInAccounts(request);
+        List<Account> accountListResponse = accountService.getLoggedInAccounts(verifiedToken);
 
         Assertions.assertNotNull(accountListResponse);
         Assertions.assertEquals(accountList, accountListResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.times(1)).findAllByUserId(verifiedToken.getUserId());
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
-    public void testGetLoggedInAccountsNullHeader() {
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Test: Token");
-        Mockito.when(requestNull.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(null);
-
-        List<Account> accountListResponse = accountService.getLoggedInAccounts(request);
-        List<Account> accountListResponseNull = accountService.getLoggedInAccounts(requestNull);
+    public void testGetLoggedInAccountsNullToken() {
+        List<Account> accountListResponse = accountService.getLoggedInAccounts(null);
 
         Assertions.assertNull(accountListResponse);
-        Assertions.assertNull(accountListResponseNull);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(Mockito.any());
-        Mockito.verify(requestNull, Mockito.times(1)).getHeader(Mockito.any());
+        Mockito.verifyNoInteractions(accountRepository);
     }
 
     @Test
-    public void testGetLoggedInAccountsNullUser() {
-        User user = createUser();
+    public void testGetLoggedInAccountsNoAccounts() {
+        Mockito.when(accountRepository.findAllByUserId(Mockito.any(Long.class))).thenReturn(Collections.emptyList());
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
+        List<Account> accountListResponse = accountService.getLoggedInAccounts(verifiedToken);
 
-        List<Account> accountListResponse = accountService.getLoggedInAccounts(request);
-
-        Assertions.assertNull(accountListResponse);
+        Assertions.assertNotNull(accountListResponse);
+        Assertions.assertTrue(accountListResponse.isEmpty());
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.times(1)).findAllByUserId(verifiedToken.getUserId());
     }
 
     @Test
@@ -146,12 +132,10 @@ public class AccountServiceImplTests {
         User user = createUser();
         Account account = user.getAccountList().get(0);
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
+        Mockito.when(accountRepository.existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(true);
         Mockito.when(accountRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(account));
 
-        Account accountResponse = accountService.getAccountById(1L, request);
+        Account accountResponse = accountService.getAccountById(1L, verifiedToken);
 
         Assertions.assertNotNull(accountResponse);
         Assertions.assertEquals(account.getId(), accountResponse.getId());
@@ -159,27 +143,21 @@ public class AccountServiceImplTests {
         Assertions.assertEquals(account.getBalance(), accountResponse.getBalance());
         Assertions.assertEquals(account.getAccountType(), accountResponse.getAccountType());
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.times(1)).existsByIdAndUserId(1L, verifiedToken.getUserId());
         Mockito.verify(accountRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
     public void testGetAccountByIdFail() {
-        User user = createUser();
+        Mockito.when(accountRepository.existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(false);
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
-
-        Account accountResponse = accountService.getAccountById(1L, request);
+        Account accountResponse = accountService.getAccountById(1L, verifiedToken);
 
         Assertions.assertNull(accountResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.times(1)).existsByIdAndUserId(1L, verifiedToken.getUserId());
+        Mockito.verify(accountRepository, Mockito.never()).findById(Mockito.any(Long.class));
     }
 
     @Test
@@ -213,22 +191,16 @@ public class AccountServiceImplTests {
 
     @Test
     public void testDeleteByIdSuccess() {
-        User user = createUser();
-
         Mockito.when(accountRepository.existsById(Mockito.any(Long.class))).thenReturn(true);
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
+        Mockito.when(accountRepository.existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(true);
         Mockito.doNothing().when(accountRepository).deleteById(Mockito.any(Long.class));
 
-        boolean deleteResponse = accountService.deleteAccountById(1L, request);
+        boolean deleteResponse = accountService.deleteAccountById(1L, verifiedToken);
 
         Assertions.assertTrue(deleteResponse);
 
         Mockito.verify(accountRepository, Mockito.times(1)).existsById(Mockito.any(Long.class));
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.times(1)).existsByIdAndUserId(1L, verifiedToken.getUserId());
         Mockito.verify(accountRepository, Mockito.times(1)).deleteById(Mockito.any(Long.class));
     }
 
@@ -236,7 +208,7 @@ public class AccountServiceImplTests {
     public void testDeleteByIdFail() {
         Mockito.when(accountRepository.existsById(Mockito.any(Long.class))).thenReturn(false);
 
-        boolean deleteResponse = accountService.deleteAccountById(1L, request);
+        boolean deleteResponse = accountService.deleteAccountById(1L, verifiedToken);
 
         Assertions.assertFalse(deleteResponse);
 
@@ -244,61 +216,173 @@ public class AccountServiceImplTests {
     }
 
     @Test
-    public void testDeleteByIdNullHeader() {
+    public void testDeleteByIdNullToken() {
         Mockito.when(accountRepository.existsById(Mockito.any(Long.class))).thenReturn(true);
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Test: Token");
-        Mockito.when(requestNull.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(null);
 
-        boolean deleteAccountResponse = accountService.deleteAccountById(1L, request);
-        boolean deleteAccountResponseNull = accountService.deleteAccountById(1L, requestNull);
+        boolean deleteAccountResponse = accountService.deleteAccountById(1L, null);
 
         Assertions.assertFalse(deleteAccountResponse);
-        Assertions.assertFalse(deleteAccountResponseNull);
 
-        Mockito.verify(accountRepository, Mockito.times(2)).existsById(Mockito.any(Long.class));
-        Mockito.verify(request, Mockito.times(1)).getHeader(Mockito.any());
-        Mockito.verify(requestNull, Mockito.times(1)).getHeader(Mockito.any());
+        Mockito.verify(accountRepository, Mockito.times(1)).existsById(Mockito.any(Long.class));
+        Mockito.verify(accountRepository, Mockito.never()).existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class));
     }
 
     @Test
-    public void testDeleteByIdNullUser() {
-        User user = createUser();
-
+    public void testDeleteByIdNotOwner() {
         Mockito.when(accountRepository.existsById(Mockito.any(Long.class))).thenReturn(true);
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
+        Mockito.when(accountRepository.existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(false);
 
-        boolean deleteAccountResponse = accountService.deleteAccountById(1L, request);
+        boolean deleteAccountResponse = accountService.deleteAccountById(1L, verifiedToken);
 
         Assertions.assertFalse(deleteAccountResponse);
 
         Mockito.verify(accountRepository, Mockito.times(1)).existsById(Mockito.any(Long.class));
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.times(1)).existsByIdAndUserId(1L, verifiedToken.getUserId());
+        Mockito.verify(accountRepository, Mockito.never()).deleteById(Mockito.any(Long.class));
     }
 
     @Test
     public void testDeleteByIdAdmin() {
-        User user = createUser();
-        user.setUserRole(UserRole.ADMIN);
+        VerifiedToken adminToken = new VerifiedToken("tokenId", 2L, "Admin", UserRole.ADMIN, new Date(1767139200000L));
 
         Mockito.when(accountRepository.existsById(Mockito.any(Long.class))).thenReturn(true);
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
         Mockito.doNothing().when(accountRepository).deleteById(Mockito.any(Long.class));
 
-        boolean deleteResponse = accountService.deleteAccountById(1L, request);
+        boolean deleteResponse = accountService.deleteAccountById(1L, adminToken);
 
         Assertions.assertTrue(deleteResponse);
 
         Mockito.verify(accountRepository, Mockito.times(1)).existsById(Mockito.any(Long.class));
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
-        Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
+        Mockito.verify(accountRepository, Mockito.never()).existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class));
         Mockito.verify(accountRepository, Mockito.times(1)).deleteById(Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testGetAccountTransactionsFirstPage() {
+        Mockito.when(accountRepository.existsByIdAndUserId(1L, verifiedToken.getUserId())).thenReturn(true);
+        Mockito.when(transactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.any(Limit.class)))
+                .thenReturn(createTransactions(10L, 9L, 8L));
+
+        TransactionPage transactionPage = accountService.getAccountTransactions(1L, null, 2, verifiedToken);
+
+        Assertions.assertNotNull(transactionPage);
+        Assertions.assertEquals(2, transactionPage.getTransactions().size());
+        Assertions.assertEquals(9L, transactionPage.getNextCursor());
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).findByAccountIdAndIdLessThanOrderByIdDesc(1L, Long.MAX_VALUE, Limit.of(3));
+    }
+
+    @Test
+    public void testGetAccountTransactionsLastPage() {
+        Mockito.when(accountRepository.existsByIdAndUserId(1L, verifiedToken.getUserId())).thenReturn(true);
+        Mockito.when(transactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.any(Limit.class)))
+                .thenReturn(createTransactions(8L));
+
+        TransactionPage transactionPage = accountService.getAccountTransactions(1L, 9L, 2, verifiedToken);
+
+        Assertions.assertNotNull(transactionPage);
+        Assertions.assertEquals(1, transactionPage.getTransactions().size());
+        Assertions.assertNull(transactionPage.getNextCursor());
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).findByAccountIdAndIdLessThanOrderByIdDesc(1L, 9L, Limit.of(3));
+    }
+
+    @Test
+    public void testGetAccountTransactionsPageSizeCapped() {
+        Mockito.when(accountRepository.existsByIdAndUserId(1L, verifiedToken.getUserId())).thenReturn(true);
+        Mockito.when(transactionRepository.findByAccountIdAndIdLessThanOrderByIdDesc(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.any(Limit.class)))
+                .thenReturn(createTransactions(10L, 9L, 8L, 7L));
+
+        TransactionPage transactionPage = accountService.getAccountTransactions(1L, null, 1000, verifiedToken);
+
+        Assertions.assertEquals(3, transactionPage.getTransactions().size());
+        Assertions.assertEquals(8L, transactionPage.getNextCursor());
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).findByAccountIdAndIdLessThanOrderByIdDesc(1L, Long.MAX_VALUE, Limit.of(4));
+    }
+
+    @Test
+    public void testGetAccountTransactionsNotAllowed() {
+        Mockito.when(accountRepository.existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(false);
+
+        Assertions.assertNull(accountService.getAccountTransactions(1L, null, 20, verifiedToken));
+        Assertions.assertNull(accountService.getAccountTransactions(1L, null, 20, null));
+        Assertions.assertNull(accountService.getAccountTransactions(1L, null, 0, verifiedToken));
+
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    public void testGetAccountTransactionsByDateRangeFirstPage() {
+        Date from = new Date(1000L);
+        Date to = new Date(5000L);
+
+        Mockito.when(accountRepository.existsByIdAndUserId(1L, verifiedToken.getUserId())).thenReturn(true);
+        Mockito.when(transactionRepository.findPostedBetween(Mockito.any(Long.class), Mockito.any(Date.class), Mockito.any(Date.class), Mockito.any(Long.class), Mockito.any(Limit.class)))
+                .thenReturn(createTransactions(10L, 9L, 8L));
+
+        TransactionPage transactionPage = accountService.getAccountTransactions(1L, from, to, null, 2, verifiedToken);
+
+        Assertions.assertNotNull(transactionPage);
+        Assertions.assertEquals(2, transactionPage.getTransactions().size());
+        Assertions.assertEquals(9L, transactionPage.getNextCursor());
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).findPostedBetween(1L, from, to, Long.MIN_VALUE, Limit.of(3));
+        Mockito.verify(transactionRepository, Mockito.never()).findByIdAndAccountId(Mockito.any(Long.class), Mockito.any(Long.class));
+    }
+
+    @Test
+    public void testGetAccountTransactionsByDateRangeCursor() {
+        Date from = new Date(1000L);
+        Transaction cursor = createTransactions(9L).get(0);
+        cursor.setPostedAt(new Date(3000L));
+
+        Mockito.when(accountRepository.existsByIdAndUserId(1L, verifiedToken.getUserId())).thenReturn(true);
+        Mockito.when(transactionRepository.findByIdAndAccountId(9L, 1L)).thenReturn(Optional.of(cursor));
+        Mockito.when(transactionRepository.findPostedBetween(Mockito.any(Long.class), Mockito.any(Date.class), Mockito.any(Date.class), Mockito.any(Long.class), Mockito.any(Limit.class)))
+                .thenReturn(createTransactions(8L));
+
+        TransactionPage transactionPage = accountService.getAccountTransactions(1L, from, new Date(5000L), 9L, 2, verifiedToken);
+
+        Assertions.assertNotNull(transactionPage);
+        Assertions.assertEquals(1, transactionPage.getTransactions().size());
+        Assertions.assertNull(transactionPage.getNextCursor());
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).findPostedBetween(1L, from, new Date(3000L), 9L, Limit.of(3));
+    }
+
+    @Test
+    public void testGetAccountTransactionsByDateRangeUnknownCursor() {
+        Mockito.when(accountRepository.existsByIdAndUserId(1L, verifiedToken.getUserId())).thenReturn(true);
+        Mockito.when(transactionRepository.findByIdAndAccountId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(Optional.empty());
+
+        Assertions.assertNull(accountService.getAccountTransactions(1L, new Date(1000L), new Date(5000L), 9L, 2, verifiedToken));
+
+        Mockito.verify(transactionRepository, Mockito.never()).findPostedBetween(Mockito.any(Long.class), Mockito.any(Date.class), Mockito.any(Date.class), Mockito.any(Long.class), Mockito.any(Limit.class));
+    }
+
+    @Test
+    public void testGetAccountTransactionsByDateRangeInvalid() {
+        Mockito.when(accountRepository.existsByIdAndUserId(Mockito.any(Long.class), Mockito.any(Long.class))).thenReturn(true);
+
+        Assertions.assertNull(accountService.getAccountTransactions(1L, new Date(5000L), new Date(1000L), null, 20, verifiedToken));
+        Assertions.assertNull(accountService.getAccountTransactions(1L, null, new Date(1000L), null, 20, verifiedToken));
+        Assertions.assertNull(accountService.getAccountTransactions(1L, new Date(1000L), new Date(5000L), null, 0, verifiedToken));
+        Assertions.assertNull(accountService.getAccountTransactions(1L, new Date(1000L), new Date(5000L), null, 20, null));
+
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    private List<Transaction> createTransactions(Long... ids) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Long id : ids) {
+            Transaction transaction = new Transaction();
+            transaction.setId(id);
+            transactions.add(transaction);
+        }
+
+        return transactions;
     }
 
     private User createUser() {
@@ -314,15 +398,15 @@ public class AccountServiceImplTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
         Account account = new Account();
         account.setId(1L);
         account.setAccountNumber("123456");
-        account.setBalance(0.0);
+        account.setBalance(0L);
         account.setAccountType(AccountType.CURRENT);
         account.setUser(user);
 
@@ -0,0 +1,202 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.JobCheckpoint;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.JobLockRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:balance-replay;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.replay.chunk-size=3",
+        "application.replay.parallelism=2"
+})
+@Import({ BalanceReplayServiceImpl.class, PostingEngineServiceImpl.class, JobLockServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BalanceReplayServiceImplTests {
+
+    @Autowired
+    private BalanceReplayServiceImpl balanceReplayService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Account> accounts;
+
+    @BeforeEach
+    public void setup() {
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        accounts = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            Account account = new Account();
+            account.setAccountNumber(String.valueOf(100000 + i));
+            account.setBalance(999999L);
+            account.setAccountType(AccountType.CURRENT);
+            account.setUser(user);
+            account = accountRepository.save(account);
+            accounts.add(account);
+
+            if (i > 0) {
+                createTransaction(account, TransactionType.LODGEMENT, 1000L * i);
+                createTransaction(account, TransactionType.WITHDRAWAL, 100L);
+                createTransaction(account, TransactionType.TRANSFER_IN, 50L);
+                createTransaction(account, TransactionType.TRANSFER_OUT, 25L);
+                createTransaction(account, TransactionType.INTEREST, 5L);
+            }
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        jobCheckpointRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testReplayBalances() {
+        double transactions = meterRegistry.counter("balance.replay.transactions").count();
+
+        long replayed = balanceReplayService.replayBalances();
+
+        Assertions.assertEquals(9L, replayed);
+        for (int i = 0; i < accounts.size(); i++) {
+            Assertions.assertEquals(getExpectedBalance(i), accountRepository.findById(accounts.get(i).getId()).orElseThrow().getBalance());
+        }
+
+        List<JobCheckpoint> jobCheckpoints = jobCheckpointRepository.findAll();
+        Assertions.assertEquals(2, jobCheckpoints.size());
+        Assertions.assertTrue(jobCheckpoints.stream().allMatch(JobCheckpoint::isCompleted));
+        Assertions.assertEquals(1.0, meterRegistry.get("balance.replay.progress").gauge().value());
+        Assertions.assertEquals(transactions + 40, meterRegistry.counter("balance.replay.transactions").count());
+    }
+
+    @Test
+    public void testReplayBalancesResumesFromCheckpoint() {
+        JobCheckpoint jobCheckpoint = new JobCheckpoint();
+        jobCheckpoint.setJob("balance-replay");
+        jobCheckpoint.setRunDate(LocalDate.now(ZoneOffset.UTC));
+        jobCheckpoint.setLastId(accounts.get(3).getId());
+        jobCheckpoint.setEndId(accounts.get(8).getId());
+        jobCheckpoint.setProcessed(4);
+        jobCheckpointRepository.save(jobCheckpoint);
+
+        long replayed = balanceReplayService.replayBalances();
+
+        Assertions.assertEquals(5L, replayed);
+        Assertions.assertEquals(999999L, accountRepository.findById(accounts.get(3).getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(getExpectedBalance(4), accountRepository.findById(accounts.get(4).getId()).orElseThrow().getBalance());
+
+        JobCheckpoint stored = jobCheckpointRepository.findById(jobCheckpoint.getId()).orElseThrow();
+        Assertions.assertTrue(stored.isCompleted());
+        Assertions.assertEquals(9L, stored.getProcessed());
+        Assertions.assertEquals(1, jobCheckpointRepository.count());
+    }
+
+    @Test
+    public void testReplayBalancesOncePerDay() {
+        Assertions.assertEquals(9L, balanceReplayService.replayBalances());
+        Assertions.assertEquals(0L, balanceReplayService.replayBalances());
+    }
+
+    @Test
+    public void testReplayBalancesPartitionFailure() {
+        double failed = meterRegistry.counter("balance.replay.failed").count();
+
+        jdbcTemplate.execute("alter table account add constraint ck_replay_failure check (balance <> " + getExpectedBalance(4) + ")");
+        try {
+            Assertions.assertThrows(IllegalStateException.class, () -> balanceReplayService.replayBalances());
+        } finally {
+            jdbcTemplate.execute("alter table account drop constraint ck_replay_failure");
+        }
+
+        Assertions.assertEquals(failed + 1, meterRegistry.counter("balance.replay.failed").count());
+        Assertions.assertEquals(999999L, accountRepository.findById(accounts.get(4).getId()).orElseThrow().getBalance());
+        Assertions.assertTrue(jobCheckpointRepository.findAll().stream().anyMatch(jobCheckpoint -> !jobCheckpoint.isCompleted()));
+
+        Assertions.assertTrue(balanceReplayService.replayBalances() > 0);
+        for (int i = 0; i < accounts.size(); i++) {
+            Assertions.assertEquals(getExpectedBalance(i), accountRepository.findById(accounts.get(i).getId()).orElseThrow().getBalance());
+        }
+        Assertions.assertTrue(jobCheckpointRepository.findAll().stream().allMatch(JobCheckpoint::isCompleted));
+    }
+
+    @Test
+    public void testRunDisabled() {
+        balanceReplayService.run(null);
+
+        Assertions.assertEquals(999999L, accountRepository.findById(accounts.get(1).getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, jobCheckpointRepository.count());
+    }
+
+    private long getExpectedBalance(int index) {
+        return index == 0 ? 0L : 1000L * index - 100L + 50L - 25L + 5L;
+    }
+
+    private void createTransaction(Account account, TransactionType transactionType, long amount) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDescription("Payment");
+        transaction.setTransactionType(transactionType);
+        transaction.setPostedAt(new Date());
+        transaction.setAccount(account);
+        transactionRepository.save(transaction);
+    }
+
+}
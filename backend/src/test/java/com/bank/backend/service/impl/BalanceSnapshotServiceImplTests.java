@@ -0,0 +1,182 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.BalanceSnapshot;
+import com.bank.backend.model.JobCheckpoint;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.BalanceSnapshotRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.JobLockRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:balance-snapshots;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.balance-snapshots.chunk-size=1"
+})
+@Import({ BalanceSnapshotServiceImpl.class, JobLockServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BalanceSnapshotServiceImplTests {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private BalanceSnapshotServiceImpl balanceSnapshotService;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Account account;
+
+    private Account otherAccount;
+
+    @BeforeEach
+    public void setup() {
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        account = createAccount(user, "123456");
+        otherAccount = createAccount(user, "654321");
+
+        createTransaction(account, TransactionType.LODGEMENT, 1000L, "2026-03-01T09:00:00Z");
+        createTransaction(account, TransactionType.WITHDRAWAL, 200L, "2026-03-01T10:00:00Z");
+        createTransaction(otherAccount, TransactionType.TRANSFER_IN, 300L, "2026-03-02T09:00:00Z");
+        createTransaction(account, TransactionType.LODGEMENT, 500L, "2026-03-03T09:00:00Z");
+        createTransaction(account, TransactionType.TRANSFER_OUT, 100L, "2026-03-04T09:00:00Z");
+    }
+
+    @AfterEach
+    public void teardown() {
+        balanceSnapshotRepository.deleteAll();
+        jobCheckpointRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testCreateSnapshots() {
+        Assertions.assertEquals(1L, balanceSnapshotService.createSnapshots(DAY_ONE));
+        Assertions.assertEquals(2L, balanceSnapshotService.createSnapshots(DAY_ONE.plusDays(2)));
+
+        Assertions.assertEquals(800L, getSnapshot(account, DAY_ONE).getBalance());
+        Assertions.assertEquals(300L, getSnapshot(otherAccount, DAY_ONE.plusDays(1)).getBalance());
+        Assertions.assertEquals(1300L, getSnapshot(account, DAY_ONE.plusDays(2)).getBalance());
+        Assertions.assertEquals(3, balanceSnapshotRepository.count());
+
+        List<JobCheckpoint> jobCheckpoints = jobCheckpointRepository.findAll();
+        Assertions.assertEquals(3, jobCheckpoints.size());
+        Assertions.assertTrue(jobCheckpoints.stream().allMatch(JobCheckpoint::isCompleted));
+    }
+
+    @Test
+    public void testCreateSnapshotsFromHistory() {
+        Assertions.assertEquals(1L, balanceSnapshotService.createSnapshots(DAY_ONE.plusDays(2)));
+
+        Assertions.assertEquals(1300L, getSnapshot(account, DAY_ONE.plusDays(2)).getBalance());
+        Assertions.assertEquals(1, balanceSnapshotRepository.count());
+    }
+
+    @Test
+    public void testCreateSnapshotsOnce() {
+        Assertions.assertEquals(1L, balanceSnapshotService.createSnapshots(DAY_ONE));
+        Assertions.assertEquals(0L, balanceSnapshotService.createSnapshots(DAY_ONE));
+        Assertions.assertEquals(1, balanceSnapshotRepository.count());
+    }
+
+    @Test
+    public void testGetBalanceAsOf() {
+        balanceSnapshotService.createSnapshots(DAY_ONE);
+        balanceSnapshotService.createSnapshots(DAY_ONE.plusDays(2));
+
+        Assertions.assertEquals(1000L, getBalanceAsOf(account, "2026-03-01T09:30:00Z"));
+        Assertions.assertEquals(800L, getBalanceAsOf(account, "2026-03-02T12:00:00Z"));
+        Assertions.assertEquals(800L, getBalanceAsOf(account, "2026-03-03T09:00:00Z"));
+        Assertions.assertEquals(1300L, getBalanceAsOf(account, "2026-03-03T12:00:00Z"));
+        Assertions.assertEquals(1200L, getBalanceAsOf(account, "2026-03-04T12:00:00Z"));
+        Assertions.assertEquals(0L, getBalanceAsOf(otherAccount, "2026-03-01T12:00:00Z"));
+        Assertions.assertEquals(300L, getBalanceAsOf(otherAccount, "2026-03-10T12:00:00Z"));
+    }
+
+    @Test
+    public void testGetBalanceAsOfInvalid() {
+        Assertions.assertNull(balanceSnapshotService.getBalanceAsOf(account.getId(), null));
+        Assertions.assertNull(balanceSnapshotService.getBalanceAsOf(null, new Date()));
+    }
+
+    private long getBalanceAsOf(Account account, String asOf) {
+        return balanceSnapshotService.getBalanceAsOf(account.getId(), Date.from(Instant.parse(asOf))).getBalance();
+    }
+
+    private BalanceSnapshot getSnapshot(Account account, LocalDate snapshotDate) {
+        return balanceSnapshotRepository.findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(account.getId(), snapshotDate.plusDays(1))
+                .filter(balanceSnapshot -> balanceSnapshot.getSnapshotDate().equals(snapshotDate))
+                .orElseThrow();
+    }
+
+    private Account createAccount(User user, String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(0L);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+
+        return accountRepository.save(account);
+    }
+
+    private void createTransaction(Account account, TransactionType transactionType, long amount, String postedAt) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDescription("Payment");
+        transaction.setTransactionType(transactionType);
+        transaction.setPostedAt(Date.from(Instant.parse(postedAt)));
+        transaction.setAccount(account);
+        transactionRepository.save(transaction);
+    }
+
+}
@@ -0,0 +1,303 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.IdempotencyRecord;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.repository.IdempotencyRecordRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.service.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class IdempotencyServiceImplTests {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(idempotencyService, "TTL", 60000L);
+        ReflectionTestUtils.setField(idempotencyService, "MAX_CACHE_SIZE", 100);
+        ReflectionTestUtils.setField(idempotencyService, "BATCH_SIZE", 2);
+        ReflectionTestUtils.setField(idempotencyService, "MAX_BATCHES", 3);
+        ReflectionTestUtils.setField(idempotencyService, "LOCK_DURATION", 60000L);
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        Mockito.when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(Mockito.any(Long.class), Mockito.anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void testExecuteFirstRequest() {
+        Transaction transaction = createTransaction();
+
+        Transaction response = idempotencyService.execute(1L, "key", createTransactionRequest(), () -> transaction);
+
+        Assertions.assertEquals(transaction, response);
+
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).saveAndFlush(Mockito.argThat(record ->
+                record.getUserId().equals(1L) && record.getIdempotencyKey().equals("key") && record.getTransactionId().equals(1L)
+        ));
+    }
+
+    @Test
+    public void testExecuteDuplicateReplaysCachedResult() {
+        Transaction transaction = createTransaction();
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<Transaction> action = () -> {
+            executions.incrementAndGet();
+            return transaction;
+        };
+
+        Transaction first = idempotencyService.execute(1L, "key", createTransactionRequest(), action);
+        Transaction second = idempotencyService.execute(1L, "key", createTransactionRequest(), action);
+
+        Assertions.assertEquals(transaction, first);
+        Assertions.assertEquals(transaction, second);
+        Assertions.assertEquals(1, executions.get());
+        Assertions.assertEquals(1.0, meterRegistry.counter("idempotency.replayed").count());
+
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).findByUserIdAndIdempotencyKey(1L, "key");
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).saveAndFlush(Mockito.any(IdempotencyRecord.class));
+    }
+
+    @Test
+    public void testExecuteKeysScopedByUser() {
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<Transaction> action = () -> {
+            executions.incrementAndGet();
+            return createTransaction();
+        };
+
+        idempotencyService.execute(1L, "key", createTransactionRequest(), action);
+        idempotencyService.execute(2L, "key", createTransactionRequest(), action);
+
+        Assertions.assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testExecuteKeyReusedWithDifferentRequest() {
+        TransactionRequest otherRequest = createTransactionRequest();
+        otherRequest.setAmount(5000L);
+
+        idempotencyService.execute(1L, "key", createTransactionRequest(), this::createTransaction);
+        Transaction response = idempotencyService.execute(1L, "key", otherRequest, this::createTransaction);
+
+        Assertions.assertNull(response);
+
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).saveAndFlush(Mockito.any(IdempotencyRecord.class));
+    }
+
+    @Test
+    public void testExecuteReplaysStoredRecord() {
+        Transaction transaction = createTransaction();
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(1L);
+        record.setIdempotencyKey("key");
+        record.setTransactionId(1L);
+        record.setExpiresAt(new Date(System.currentTimeMillis() + 60000));
+
+        Mockito.when(idempotencyRecordRepository.saveAndFlush(Mockito.any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            record.setRequestDigest(invocation.<IdempotencyRecord>getArgument(0).getRequestDigest());
+            return record;
+        });
+        idempotencyService.execute(9L, "other", createTransactionRequest(), this::createTransaction);
+
+        Mockito.when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key")).thenReturn(Optional.of(record));
+        Mockito.when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+
+        Transaction response = idempotencyService.execute(1L, "key", createTransactionRequest(), () -> Assertions.fail("Action must not run"));
+
+        Assertions.assertEquals(transaction, response);
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    public void testExecuteIgnoresExpiredRecord() {
+        Transaction transaction = createTransaction();
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(5L);
+        record.setUserId(1L);
+        record.setIdempotencyKey("key");
+        record.setTransactionId(2L);
+        record.setExpiresAt(new Date(System.currentTimeMillis() - 1000));
+
+        Mockito.when(idempotencyRecordRepository.saveAndFlush(Mockito.any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            record.setRequestDigest(invocation.<IdempotencyRecord>getArgument(0).getRequestDigest());
+            return invocation.getArgument(0);
+        });
+        idempotencyService.execute(9L, "other", createTransactionRequest(), this::createTransaction);
+
+        Mockito.when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key")).thenReturn(Optional.of(record));
+
+        Transaction response = idempotencyService.execute(1L, "key", createTransactionRequest(), () -> transaction);
+
+        Assertions.assertEquals(transaction, response);
+
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).deleteExpiredRecord(Mockito.eq(5L), Mockito.any(Date.class));
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).saveAndFlush(Mockito.argThat(saved ->
+                saved.getUserId().equals(1L) && saved.getTransactionId().equals(1L) && saved.getExpiresAt().after(new Date())
+        ));
+        Mockito.verify(transactionRepository, Mockito.never()).findById(2L);
+    }
+
+    @Test
+    public void testExecuteLosesInsertRace() {
+        Transaction transaction = createTransaction();
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setTransactionId(1L);
+        record.setExpiresAt(new Date(System.currentTimeMillis() + 60000));
+
+        Mockito.when(idempotencyRecordRepository.saveAndFlush(Mockito.any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            record.setRequestDigest(invocation.<IdempotencyRecord>getArgument(0).getRequestDigest());
+            throw new DataIntegrityViolationException("Duplicate key");
+        });
+        Mockito.when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key")).thenReturn(Optional.empty()).thenReturn(Optional.of(record));
+        Mockito.when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+
+        Transaction response = idempotencyService.execute(1L, "key", createTransactionRequest(), this::createTransaction);
+
+        Assertions.assertEquals(transaction, response);
+    }
+
+    @Test
+    public void testExecuteConcurrentDuplicatesCoalesce() throws Exception {
+        Transaction transaction = createTransaction();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<Transaction> action = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return transaction;
+        };
+
+        CompletableFuture<Transaction> first = CompletableFuture.supplyAsync(() -> idempotencyService.execute(1L, "key", createTransactionRequest(), action));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Transaction> second = CompletableFuture.supplyAsync(() -> idempotencyService.execute(1L, "key", createTransactionRequest(), action));
+
+        release.countDown();
+
+        Assertions.assertEquals(transaction, first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(transaction, second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testExecuteFailureIsNotCached() {
+        AtomicInteger executions = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> idempotencyService.execute(1L, "key", createTransactionRequest(), () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("Database down");
+        }));
+        Transaction response = idempotencyService.execute(1L, "key", createTransactionRequest(), () -> {
+            executions.incrementAndGet();
+            return createTransaction();
+        });
+
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testExecuteInvalidKey() {
+        Assertions.assertNull(idempotencyService.execute(1L, " ", createTransactionRequest(), this::createTransaction));
+        Assertions.assertNull(idempotencyService.execute(1L, "k".repeat(256), createTransactionRequest(), this::createTransaction));
+
+        Mockito.verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    public void testPurgeExpiredRecords() {
+        Mockito.when(jobLockService.tryLock(Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(true);
+        Mockito.when(idempotencyRecordRepository.findExpiredRecordIds(Mockito.any(Date.class), Mockito.any(Pageable.class))).thenReturn(List.of(1L, 2L)).thenReturn(List.of(3L));
+        Mockito.when(idempotencyRecordRepository.deleteByIdIn(Mockito.anyList())).thenReturn(2, 1);
+
+        int deleted = idempotencyService.purgeExpiredRecords();
+
+        Assertions.assertEquals(3, deleted);
+        Assertions.assertEquals(3.0, meterRegistry.counter("idempotency.purge.deleted").count());
+
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(2)).deleteByIdIn(Mockito.anyList());
+        Mockito.verify(jobLockService, Mockito.times(1)).unlock(Mockito.anyString());
+    }
+
+    @Test
+    public void testPurgeExpiredRecordsLockHeld() {
+        Mockito.when(jobLockService.tryLock(Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(false);
+
+        int deleted = idempotencyService.purgeExpiredRecords();
+
+        Assertions.assertEquals(0, deleted);
+
+        Mockito.verify(idempotencyRecordRepository, Mockito.never()).findExpiredRecordIds(Mockito.any(Date.class), Mockito.any(Pageable.class));
+        Mockito.verify(jobLockService, Mockito.never()).unlock(Mockito.anyString());
+    }
+
+    private Transaction createTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setAmount(1000L);
+        transaction.setDescription("Payment");
+        transaction.setTransactionType(TransactionType.WITHDRAWAL);
+
+        return transaction;
+    }
+
+    private TransactionRequest createTransactionRequest() {
+        TransactionRequest transactionRequest = new TransactionRequest();
+        transactionRequest.setAccountId(1L);
+        transactionRequest.setAmount(1000L);
+        transactionRequest.setDescription("Payment");
+        transactionRequest.setTransactionType(TransactionType.WITHDRAWAL);
+
+        return transactionRequest;
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.JobCheckpoint;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JobCheckpointRepository;
+import com.bank.backend.repository.JobLockRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import com.bank.backend.service.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:interest-accrual;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.interest.annual-rate=0.365",
+        "application.interest.chunk-size=7",
+        "application.interest.parallelism=3"
+})
+@Import({ InterestAccrualServiceImpl.class, JobLockServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InterestAccrualServiceImplTests {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private InterestAccrualServiceImpl interestAccrualService;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    public void teardown() {
+        jobCheckpointRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testAccrueInterest() {
+        List<Account> savings = createAccounts(50);
+        Account current = createAccount(AccountType.CURRENT, 1000000L);
+        double accounts = meterRegistry.counter("interest.accrual.accounts").count();
+
+        long accrued = interestAccrualService.accrueInterest(RUN_DATE);
+
+        Assertions.assertEquals(50L, accrued);
+        for (Account account : savings) {
+            Assertions.assertEquals(account.getBalance() + account.getBalance() / 1000, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        }
+        Assertions.assertEquals(1000000L, accountRepository.findById(current.getId()).orElseThrow().getBalance());
+
+        List<Transaction> transactions = transactionRepository.findAll();
+        Assertions.assertEquals(50, transactions.size());
+        Assertions.assertTrue(transactions.stream().allMatch(transaction -> transaction.getTransactionType() == TransactionType.INTEREST));
+        Assertions.assertTrue(transactions.stream().allMatch(transaction -> transaction.getDescription().equals("Interest 2026-03-01")));
+
+        List<JobCheckpoint> jobCheckpoints = jobCheckpointRepository.findAll();
+        Assertions.assertEquals(3, jobCheckpoints.size());
+        Assertions.assertTrue(jobCheckpoints.stream().allMatch(JobCheckpoint::isCompleted));
+        Assertions.assertEquals(50L, jobCheckpoints.stream().mapToLong(JobCheckpoint::getProcessed).sum());
+        Assertions.assertEquals(accounts + 50, meterRegistry.counter("interest.accrual.accounts").count());
+    }
+
+    @Test
+    public void testAccrueInterestOncePerDay() {
+        Account account = createAccounts(1).get(0);
+
+        Assertions.assertEquals(1L, interestAccrualService.accrueInterest(RUN_DATE));
+        Assertions.assertEquals(0L, interestAccrualService.accrueInterest(RUN_DATE));
+        Assertions.assertEquals(1001000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+
+        Assertions.assertEquals(1L, interestAccrualService.accrueInterest(RUN_DATE.plusDays(1)));
+        Assertions.assertEquals(1002001L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    public void testAccrueInterestResumesFromCheckpoint() {
+        List<Account> savings = createAccounts(20);
+
+        JobCheckpoint jobCheckpoint = new JobCheckpoint();
+        jobCheckpoint.setJob("interest-accrual");
+        jobCheckpoint.setRunDate(RUN_DATE);
+        jobCheckpoint.setLastId(savings.get(11).getId());
+        jobCheckpoint.setEndId(savings.get(19).getId());
+        jobCheckpoint.setProcessed(12);
+        jobCheckpointRepository.save(jobCheckpoint);
+
+        long accrued = interestAccrualService.accrueInterest(RUN_DATE);
+
+        Assertions.assertEquals(8L, accrued);
+        Assertions.assertEquals(1011000L, accountRepository.findById(savings.get(11).getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(1013012L, accountRepository.findById(savings.get(12).getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(8, transactionRepository.count());
+
+        JobCheckpoint stored = jobCheckpointRepository.findById(jobCheckpoint.getId()).orElseThrow();
+        Assertions.assertTrue(stored.isCompleted());
+        Assertions.assertEquals(20L, stored.getProcessed());
+        Assertions.assertEquals(savings.get(19).getId(), stored.getLastId());
+    }
+
+    @Test
+    public void testAccrueInterestPartitionFailure() {
+        List<Account> savings = createAccounts(10);
+        double failed = meterRegistry.counter("interest.accrual.failed").count();
+
+        jdbcTemplate.execute("alter table transaction add constraint ck_interest_failure check (description <> 'Interest 2026-03-01')");
+        try {
+            Assertions.assertThrows(IllegalStateException.class, () -> interestAccrualService.accrueInterest(RUN_DATE));
+        } finally {
+            jdbcTemplate.execute("alter table transaction drop constraint ck_interest_failure");
+        }
+
+        Assertions.assertEquals(failed + 1, meterRegistry.counter("interest.accrual.failed").count());
+        Assertions.assertEquals(1000000L, accountRepository.findById(savings.get(0).getId()).orElseThrow().getBalance());
+        Assertions.assertTrue(jobCheckpointRepository.findAll().stream().noneMatch(JobCheckpoint::isCompleted));
+
+        Assertions.assertEquals(10L, interestAccrualService.accrueInterest(RUN_DATE));
+        Assertions.assertEquals(1001000L, accountRepository.findById(savings.get(0).getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(10, transactionRepository.count());
+    }
+
+    @Test
+    public void testAccrueInterestSkipsZeroInterest() {
+        Account account = createAccount(AccountType.SAVINGS, 999L);
+
+        long accrued = interestAccrualService.accrueInterest(RUN_DATE);
+
+        Assertions.assertEquals(1L, accrued);
+        Assertions.assertEquals(999L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    public void testAccrueInterestCarriesRemainder() {
+        Account account = createAccount(AccountType.SAVINGS, 1500L);
+        Account small = createAccount(AccountType.SAVINGS, 999L);
+
+        interestAccrualService.accrueInterest(RUN_DATE);
+        Assertions.assertEquals(1501L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(500000000L, accountRepository.findById(account.getId()).orElseThrow().getInterestRemainder());
+        Assertions.assertEquals(999L, accountRepository.findById(small.getId()).orElseThrow().getBalance());
+
+        interestAccrualService.accrueInterest(RUN_DATE.plusDays(1));
+        Assertions.assertEquals(1503L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(1000L, accountRepository.findById(small.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(998000000L, accountRepository.findById(small.getId()).orElseThrow().getInterestRemainder());
+        Assertions.assertEquals(3, transactionRepository.count());
+    }
+
+    @Test
+    public void testAccrueInterestNoSavingsAccounts() {
+        createAccount(AccountType.CURRENT, 1000000L);
+
+        Assertions.assertEquals(0L, interestAccrualService.accrueInterest(RUN_DATE));
+
+        List<JobCheckpoint> jobCheckpoints = jobCheckpointRepository.findAll();
+        Assertions.assertEquals(1, jobCheckpoints.size());
+        Assertions.assertTrue(jobCheckpoints.get(0).isCompleted());
+    }
+
+    @Test
+    public void testAccrueInterestLocked() {
+        Account account = createAccounts(1).get(0);
+        Assertions.assertTrue(jobLockService.tryLock("interest-accrual", Duration.ofMinutes(1)));
+
+        Assertions.assertEquals(0L, interestAccrualService.accrueInterest(RUN_DATE));
+        Assertions.assertEquals(1000000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, jobCheckpointRepository.count());
+    }
+
+    private List<Account> createAccounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(createAccount(AccountType.SAVINGS, 1000000L + i * 1000L));
+            if (i % 10 == 0) {
+                createAccount(AccountType.CURRENT, 1000000L);
+            }
+        }
+
+        return accounts;
+    }
+
+    private Account createAccount(AccountType accountType, long balance) {
+        Account account = new Account();
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setBalance(balance);
+        account.setAccountType(accountType);
+        account.setUser(user);
+
+        return accountRepository.save(account);
+    }
+
+}
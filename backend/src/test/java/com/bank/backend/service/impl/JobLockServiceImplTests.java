@@ -0,0 +1,86 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.repository.JobLockRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import java.time.Duration;
+import java.util.Date;
+
+public class JobLockServiceImplTests {
+
+    @Mock
+    private JobLockRepository jobLockRepository;
+
+    @InjectMocks
+    private JobLockServiceImpl jobLockService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testTryLock() {
+        Mockito.when(jobLockRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class))).thenReturn(1);
+
+        boolean locked = jobLockService.tryLock("job", Duration.ofMinutes(1));
+
+        Assertions.assertTrue(locked);
+
+        Mockito.verify(jobLockRepository, Mockito.times(1)).acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class));
+        Mockito.verify(jobLockRepository, Mockito.never()).create(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class));
+    }
+
+    @Test
+    public void testTryLockHeldElsewhere() {
+        Mockito.when(jobLockRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class))).thenReturn(0);
+        Mockito.when(jobLockRepository.existsById("job")).thenReturn(true);
+
+        boolean locked = jobLockService.tryLock("job", Duration.ofMinutes(1));
+
+        Assertions.assertFalse(locked);
+
+        Mockito.verify(jobLockRepository, Mockito.never()).create(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class));
+    }
+
+    @Test
+    public void testTryLockCreatesLock() {
+        Mockito.when(jobLockRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class))).thenReturn(0);
+        Mockito.when(jobLockRepository.existsById("job")).thenReturn(false);
+        Mockito.when(jobLockRepository.create(Mockito.eq("job"), Mockito.anyString(), Mockito.any(Date.class))).thenReturn(1);
+
+        boolean locked = jobLockService.tryLock("job", Duration.ofMinutes(1));
+
+        Assertions.assertTrue(locked);
+
+        Mockito.verify(jobLockRepository, Mockito.times(1)).create(Mockito.eq("job"), Mockito.anyString(), Mockito.any(Date.class));
+        Mockito.verify(jobLockRepository, Mockito.times(1)).acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class));
+    }
+
+    @Test
+    public void testTryLockCreateConflict() {
+        Mockito.when(jobLockRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class))).thenReturn(0);
+        Mockito.when(jobLockRepository.existsById("job")).thenReturn(false);
+        Mockito.when(jobLockRepository.create(Mockito.eq("job"), Mockito.anyString(), Mockito.any(Date.class))).thenThrow(new DataIntegrityViolationException("Duplicate"));
+
+        boolean locked = jobLockService.tryLock("job", Duration.ofMinutes(1));
+
+        Assertions.assertFalse(locked);
+
+        Mockito.verify(jobLockRepository, Mockito.times(1)).acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(Date.class), Mockito.any(Date.class));
+    }
+
+    @Test
+    public void testUnlock() {
+        jobLockService.unlock("job");
+
+        Mockito.verify(jobLockRepository, Mockito.times(1)).release(Mockito.eq("job"), Mockito.anyString(), Mockito.any(Date.class));
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.bank.backend.service.impl;
 
+import com.bank.backend.configuration.JwtKeyRing;
 import com.bank.backend.model.Token;
 import com.bank.backend.model.User;
+import com.bank.backend.model.UserPrincipal;
 import com.bank.backend.model.UserRole;
 import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.util.TokenDigest;
 import io.jsonwebtoken.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,9 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.util.ReflectionTestUtils;
+import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
@@ -24,16 +28,13 @@ import static org.mockito.Mockito.mockStatic;
 @TestPropertySource("classpath:application.properties")
 public class JwtServiceImplTests {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String SECRET_KEY;
-
     @Value("${application.security.jwt.access-token-expiration}")
     private long ACCESS_TOKEN_EXPIRATION;
 
     @Value("${application.security.jwt.refresh-token-expiration}")
     private long REFRESH_TOKEN_EXPIRATION;
 
-    private final Date EXPIRATION_DATE = new Date(1767139200000L);
+    private final Date EXPIRATION_DATE = new Date(4102444800000L);
 
     @Mock
     private TokenRepository tokenRepository;
@@ -45,7 +46,13 @@ public class JwtServiceImplTests {
     private Jws<Claims> jwsClaims;
 
     @Mock
-    private JwtParserBuilder jwtParserBuilder;
+    private JwtKeyRing jwtKeyRing;
+
+    @Mock
+    private TokenCacheService tokenCacheService;
+
+    @Mock
+    private SecretKey secretKey;
 
     @Mock
     private JwtParser jwtParser;
@@ -59,7 +66,6 @@ public class JwtServiceImplTests {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
-        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET_KEY);
         ReflectionTestUtils.setField(jwtService, "ACCESS_TOKEN_EXPIRATION", ACCESS_TOKEN_EXPIRATION);
         ReflectionTestUtils.setField(jwtService, "REFRESH_TOKEN_EXPIRATION", REFRESH_TOKEN_EXPIRATION);
     }
@@ -68,140 +74,182 @@ public class JwtServiceImplTests {
     public void testExtractUsername() {
         User user = createUser();
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
 
-            String username = jwtService.extractUsername("accessToken");
+        String username = jwtService.extractUsername("accessToken");
 
-            Assertions.assertNotNull(username);
-            Assertions.assertEquals(user.getUsername(), username);
+        Assertions.assertNotNull(username);
+        Assertions.assertEquals(user.getUsername(), username);
 
-            Mockito.verify(jwtParserBuilder, Mockito.times(1)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(1)).build();
-            Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-        }
+        Mockito.verify(jwtKeyRing, Mockito.times(1)).getParser();
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+        Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+    }
+
+    @Test
+    public void testParseToken() {
+        User user = createUser();
+
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+
+        Claims parsedClaims = jwtService.parseToken("accessToken");
+
+        Assertions.assertNotNull(parsedClaims);
+        Assertions.assertEquals(user.getUsername(), parsedClaims.getSubject());
+
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+    }
+
+    @Test
+    public void testParseTokenInvalid() {
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenThrow(new JwtException("Invalid Token."));
+
+        Claims parsedClaims = jwtService.parseToken("accessToken");
+
+        Assertions.assertNull(parsedClaims);
+
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
     }
 
     @Test
     public void testisValid() {
-        UserDetails user = createUser();
+        UserPrincipal user = createUserPrincipal(0L);
         Token token = createUser().getTokenList().get(0);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
-            Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
-            Mockito.when(tokenRepository.findByAccessToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValid("accessToken", user);
-
-            Assertions.assertTrue(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).build();
-            Mockito.verify(jwtParser, Mockito.times(2)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(2)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(claims, Mockito.times(1)).getExpiration();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessToken(Mockito.anyString());
-        }
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+        Mockito.when(tokenRepository.findByAccessTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertTrue(isValid);
+
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verify(claims, Mockito.times(2)).getExpiration();
+        Mockito.verify(tokenCacheService, Mockito.times(1)).isCached("accessToken");
+        Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessTokenDigest(Mockito.any(byte[].class));
+        Mockito.verify(tokenCacheService, Mockito.times(1)).cacheToken("accessToken", EXPIRATION_DATE);
+    }
+
+    @Test
+    public void testisValidCached() {
+        UserPrincipal user = createUserPrincipal(0L);
+
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+        Mockito.when(tokenCacheService.isCached(Mockito.anyString())).thenReturn(true);
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertTrue(isValid);
+
+        Mockito.verify(tokenCacheService, Mockito.times(1)).isCached("accessToken");
+        Mockito.verifyNoInteractions(tokenRepository);
     }
 
     @Test
     public void testisValidLoggedOut() {
-        UserDetails user = createUser();
+        UserPrincipal user = createUserPrincipal(0L);
         Token token = createUser().getTokenList().get(0);
         token.setLoggedOut(true);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
-            Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
-            Mockito.when(tokenRepository.findByAccessToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValid("accessToken", user);
-
-            Assertions.assertFalse(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).build();
-            Mockito.verify(jwtParser, Mockito.times(2)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(2)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(claims, Mockito.times(1)).getExpiration();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessToken(Mockito.anyString());
-        }
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+        Mockito.when(tokenRepository.findByAccessTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verify(claims, Mockito.times(1)).getExpiration();
+        Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessTokenDigest(Mockito.any(byte[].class));
+        Mockito.verify(tokenCacheService, Mockito.never()).cacheToken(Mockito.anyString(), Mockito.any(Date.class));
     }
 
     @Test
     public void testisValidExpiredToken() {
-        UserDetails user = createUser();
+        UserPrincipal user = createUserPrincipal(0L);
         Token token = createUser().getTokenList().get(0);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
-            Mockito.when(claims.getExpiration()).thenReturn(new Date(939945600000L));
-            Mockito.when(tokenRepository.findByAccessToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValid("accessToken", user);
-
-            Assertions.assertFalse(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).build();
-            Mockito.verify(jwtParser, Mockito.times(2)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(2)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(claims, Mockito.times(1)).getExpiration();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessToken(Mockito.anyString());
-        }
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+        Mockito.when(claims.getExpiration()).thenReturn(new Date(939945600000L));
+        Mockito.when(tokenRepository.findByAccessTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verify(claims, Mockito.times(1)).getExpiration();
+        Mockito.verifyNoInteractions(tokenCacheService);
+        Mockito.verifyNoInteractions(tokenRepository);
     }
 
     @Test
     public void testisValidInvalidName() {
-        UserDetails user = createUser();
+        UserPrincipal user = createUserPrincipal(0L);
         Token token = createUser().getTokenList().get(0);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn("username");
-            Mockito.when(tokenRepository.findByAccessToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValid("accessToken", user);
-
-            Assertions.assertFalse(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(1)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(1)).build();
-            Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByAccessToken(Mockito.anyString());
-        }
+        Mockito.when(claims.getSubject()).thenReturn("username");
+        Mockito.when(tokenRepository.findByAccessTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verifyNoInteractions(tokenCacheService);
+        Mockito.verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    public void testisValidUserIdMismatch() {
+        UserPrincipal user = createUserPrincipal(0L);
+
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(2L);
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verifyNoInteractions(tokenCacheService);
+        Mockito.verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    public void testisValidStaleEpoch() {
+        UserPrincipal user = createUserPrincipal(1L);
+
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+
+        boolean isValid = jwtService.isValid("accessToken", claims, user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verifyNoInteractions(tokenCacheService);
+        Mockito.verifyNoInteractions(tokenRepository);
     }
 
     @Test
@@ -209,28 +257,25 @@ public class JwtServiceImplTests {
         User user = createUser();
         Token token = user.getTokenList().get(0);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
-            Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
-            Mockito.when(tokenRepository.findByRefreshToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
-
-            Assertions.assertTrue(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).build();
-            Mockito.verify(jwtParser, Mockito.times(2)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(2)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(claims, Mockito.times(1)).getExpiration();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByRefreshToken(Mockito.anyString());
-        }
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+        Mockito.when(tokenRepository.findByRefreshTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
+
+        Assertions.assertTrue(isValid);
+
+        Mockito.verify(jwtKeyRing, Mockito.times(1)).getParser();
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+        Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verify(claims, Mockito.times(1)).getExpiration();
+        Mockito.verify(tokenRepository, Mockito.times(1)).findByRefreshTokenDigest(Mockito.any(byte[].class));
     }
 
     @Test
@@ -239,28 +284,25 @@ public class JwtServiceImplTests {
         Token token = user.getTokenList().get(0);
         token.setLoggedOut(true);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
-            Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
-            Mockito.when(tokenRepository.findByRefreshToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
-
-            Assertions.assertFalse(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).build();
-            Mockito.verify(jwtParser, Mockito.times(2)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(2)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(claims, Mockito.times(1)).getExpiration();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByRefreshToken(Mockito.anyString());
-        }
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+        Mockito.when(tokenRepository.findByRefreshTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(jwtKeyRing, Mockito.times(1)).getParser();
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+        Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verify(claims, Mockito.times(1)).getExpiration();
+        Mockito.verify(tokenRepository, Mockito.times(1)).findByRefreshTokenDigest(Mockito.any(byte[].class));
     }
 
     @Test
@@ -268,28 +310,23 @@ public class JwtServiceImplTests {
         User user = createUser();
         Token token = user.getTokenList().get(0);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
-            Mockito.when(claims.getExpiration()).thenReturn(new Date(939945600000L));
-            Mockito.when(tokenRepository.findByRefreshToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValidRefreshToken("accessToken", user);
-
-            Assertions.assertFalse(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(2)).build();
-            Mockito.verify(jwtParser, Mockito.times(2)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(2)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(claims, Mockito.times(1)).getExpiration();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByRefreshToken(Mockito.anyString());
-        }
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(new Date(939945600000L));
+        Mockito.when(tokenRepository.findByRefreshTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValidRefreshToken("accessToken", user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(jwtKeyRing, Mockito.times(1)).getParser();
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+        Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verify(claims, Mockito.times(1)).getExpiration();
+        Mockito.verifyNoInteractions(tokenRepository);
     }
 
     @Test
@@ -297,26 +334,42 @@ public class JwtServiceImplTests {
         User user = createUser();
         Token token = user.getTokenList().get(0);
 
-        try (MockedStatic<Jwts> mockedJwts = Mockito.mockStatic(Jwts.class)) {
-            mockedJwts.when(Jwts::parserBuilder).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.setSigningKey(Mockito.any(Key.class))).thenReturn(jwtParserBuilder);
-            Mockito.when(jwtParserBuilder.build()).thenReturn(jwtParser);
-            Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
-            Mockito.when(jwsClaims.getBody()).thenReturn(claims);
-            Mockito.when(claims.getSubject()).thenReturn("username");
-            Mockito.when(tokenRepository.findByRefreshToken(Mockito.anyString())).thenReturn(Optional.of(token));
-
-            boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
-
-            Assertions.assertFalse(isValid);
-
-            Mockito.verify(jwtParserBuilder, Mockito.times(1)).setSigningKey(Mockito.any(Key.class));
-            Mockito.verify(jwtParserBuilder, Mockito.times(1)).build();
-            Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
-            Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
-            Mockito.verify(claims, Mockito.times(1)).getSubject();
-            Mockito.verify(tokenRepository, Mockito.times(1)).findByRefreshToken(Mockito.anyString());
-        }
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn("username");
+        Mockito.when(tokenRepository.findByRefreshTokenDigest(Mockito.any(byte[].class))).thenReturn(Optional.of(token));
+
+        boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(jwtKeyRing, Mockito.times(1)).getParser();
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+        Mockito.verify(jwsClaims, Mockito.times(1)).getBody();
+        Mockito.verify(claims, Mockito.times(1)).getSubject();
+        Mockito.verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    public void testisValidRefreshTokenStaleEpoch() {
+        User user = createUser();
+        user.setTokenEpoch(1L);
+
+        Mockito.when(jwtKeyRing.getParser()).thenReturn(jwtParser);
+        Mockito.when(jwtParser.parseClaimsJws(Mockito.anyString())).thenReturn(jwsClaims);
+        Mockito.when(jwsClaims.getBody()).thenReturn(claims);
+        Mockito.when(claims.getSubject()).thenReturn(user.getUsername());
+        Mockito.when(claims.getExpiration()).thenReturn(EXPIRATION_DATE);
+        Mockito.when(claims.get("epoch", Long.class)).thenReturn(0L);
+        Mockito.when(claims.get("uid", Long.class)).thenReturn(1L);
+
+        boolean isValid = jwtService.isValidRefreshToken("refreshToken", user);
+
+        Assertions.assertFalse(isValid);
+
+        Mockito.verify(jwtParser, Mockito.times(1)).parseClaimsJws(Mockito.anyString());
+        Mockito.verifyNoInteractions(tokenRepository);
     }
 
     @Test
@@ -325,7 +378,12 @@ public class JwtServiceImplTests {
 
         try (MockedStatic<Jwts> mockedJwts = mockStatic(Jwts.class)) {
             mockedJwts.when(Jwts::builder).thenReturn(jwtBuilder);
+            Mockito.when(jwtKeyRing.getActiveKeyId()).thenReturn("primary");
+            Mockito.when(jwtKeyRing.getActiveKey()).thenReturn(secretKey);
+            Mockito.when(jwtBuilder.setHeaderParam(JwsHeader.KEY_ID, "primary")).thenReturn(jwtBuilder);
+            Mockito.when(jwtBuilder.setId(Mockito.anyString())).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.setSubject(Mockito.anyString())).thenReturn(jwtBuilder);
+            Mockito.when(jwtBuilder.claim(Mockito.anyString(), Mockito.any())).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.setIssuedAt(Mockito.any(Date.class))).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.setExpiration(Mockito.any(Date.class))).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.signWith(Mockito.any(Key.class))).thenReturn(jwtBuilder);
@@ -334,7 +392,12 @@ public class JwtServiceImplTests {
             String accessToken = jwtService.generateAccessToken(user);
 
             Assertions.assertNotNull(accessToken);
+            Mockito.verify(jwtBuilder, Mockito.times(1)).setHeaderParam(JwsHeader.KEY_ID, "primary");
+            Mockito.verify(jwtBuilder, Mockito.times(1)).setId(Mockito.anyString());
             Mockito.verify(jwtBuilder, Mockito.times(1)).setSubject(Mockito.anyString());
+            Mockito.verify(jwtBuilder, Mockito.times(1)).claim("uid", 1L);
+            Mockito.verify(jwtBuilder, Mockito.times(1)).claim("role", "USER");
+            Mockito.verify(jwtBuilder, Mockito.times(1)).claim("epoch", 0L);
             Mockito.verify(jwtBuilder, Mockito.times(1)).setIssuedAt(Mockito.any(Date.class));
             Mockito.verify(jwtBuilder, Mockito.times(1)).setExpiration(Mockito.any(Date.class));
             Mockito.verify(jwtBuilder, Mockito.times(1)).signWith(Mockito.any(Key.class));
@@ -348,7 +411,12 @@ public class JwtServiceImplTests {
 
         try (MockedStatic<Jwts> mockedJwts = mockStatic(Jwts.class)) {
             mockedJwts.when(Jwts::builder).thenReturn(jwtBuilder);
+            Mockito.when(jwtKeyRing.getActiveKeyId()).thenReturn("primary");
+            Mockito.when(jwtKeyRing.getActiveKey()).thenReturn(secretKey);
+            Mockito.when(jwtBuilder.setHeaderParam(JwsHeader.KEY_ID, "primary")).thenReturn(jwtBuilder);
+            Mockito.when(jwtBuilder.setId(Mockito.anyString())).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.setSubject(Mockito.anyString())).thenReturn(jwtBuilder);
+            Mockito.when(jwtBuilder.claim(Mockito.anyString(), Mockito.any())).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.setIssuedAt(Mockito.any(Date.class))).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.setExpiration(Mockito.any(Date.class))).thenReturn(jwtBuilder);
             Mockito.when(jwtBuilder.signWith(Mockito.any(Key.class))).thenReturn(jwtBuilder);
@@ -357,7 +425,12 @@ public class JwtServiceImplTests {
             String refreshToken = jwtService.generateRefreshToken(user);
 
             Assertions.assertNotNull(refreshToken);
+            Mockito.verify(jwtBuilder, Mockito.times(1)).setHeaderParam(JwsHeader.KEY_ID, "primary");
+            Mockito.verify(jwtBuilder, Mockito.times(1)).setId(Mockito.anyString());
             Mockito.verify(jwtBuilder, Mockito.times(1)).setSubject(Mockito.anyString());
+            Mockito.verify(jwtBuilder, Mockito.times(1)).claim("uid", 1L);
+            Mockito.verify(jwtBuilder, Mockito.times(1)).claim("role", "USER");
+            Mockito.verify(jwtBuilder, Mockito.times(1)).claim("epoch", 0L);
             Mockito.verify(jwtBuilder, Mockito.times(1)).setIssuedAt(Mockito.any(Date.class));
             Mockito.verify(jwtBuilder, Mockito.times(1)).setExpiration(Mockito.any(Date.class));
             Mockito.verify(jwtBuilder, Mockito.times(1)).signWith(Mockito.any(Key.class));
@@ -365,6 +438,10 @@ public class JwtServiceImplTests {
         }
     }
 
+    private UserPrincipal createUserPrincipal(long tokenEpoch) {
+        return new UserPrincipal(1L, "Username", UserRole.USER, tokenEpoch);
+    }
+
     private User createUser() {
         User user = new User();
         user.setId(1L);
@@ -378,8 +455,8 @@ public class JwtServiceImplTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
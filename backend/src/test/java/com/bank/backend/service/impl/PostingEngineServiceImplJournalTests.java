@@ -0,0 +1,271 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.PostingDeadLetter;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JournalWatermarkRepository;
+import com.bank.backend.repository.PostingDeadLetterRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:posting-journal;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.posting-engine.enabled=true",
+        "application.posting-engine.shards=2",
+        "application.posting-engine.batch-size=64",
+        "application.posting-engine.journal.enabled=true",
+        "application.posting-engine.journal.directory=" + PostingEngineServiceImplJournalTests.JOURNAL_DIRECTORY,
+        "application.posting-engine.journal.capacity=16384",
+        "application.posting-engine.journal.flush-batch-size=50",
+        "application.posting-engine.journal.flush-retry-delay=10"
+})
+@Import({ PostingEngineServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PostingEngineServiceImplJournalTests {
+
+    static final String JOURNAL_DIRECTORY = "target/posting-journal-tests";
+
+    @Autowired
+    private PostingEngineServiceImpl postingEngineService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JournalWatermarkRepository journalWatermarkRepository;
+
+    @Autowired
+    private PostingDeadLetterRepository postingDeadLetterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeAll
+    public static void clearJournal() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of(JOURNAL_DIRECTORY));
+    }
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    public void teardown() {
+        postingDeadLetterRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testPostTransactionFlushedAsynchronously() {
+        Account account = createAccount(10000L);
+
+        for (int i = 0; i < 500; i++) {
+            Transaction transaction = postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.LODGEMENT, 100L), user.getId());
+            Assertions.assertNotNull(transaction);
+            Assertions.assertNull(transaction.getId());
+        }
+        Assertions.assertNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 60001L), user.getId()));
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 60000L), user.getId()));
+
+        await(() -> transactionRepository.count() == 501);
+        Assertions.assertEquals(0L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        awaitFlushed();
+    }
+
+    @Test
+    public void testReplayUnflushedEntries() throws Exception {
+        Account account = createAccount(10000L);
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.LODGEMENT, 1000L), user.getId()));
+        await(() -> transactionRepository.count() == 1);
+
+        postingEngineService.destroy();
+
+        String journalName = "node-1-" + Math.floorMod(account.getId(), 2);
+        long flushedSequence = journalWatermarkRepository.findById(journalName).orElseThrow().getFlushedSequence();
+        try (PostingJournal journal = new PostingJournal(Path.of(JOURNAL_DIRECTORY, journalName + ".journal"), 16384)) {
+            journal.append(List.of(
+                    new PostingJournal.Entry(flushedSequence, account.getId(), TransactionType.LODGEMENT, 1000L, System.currentTimeMillis(), "Payment"),
+                    new PostingJournal.Entry(flushedSequence + 1, account.getId(), TransactionType.LODGEMENT, 500L, System.currentTimeMillis(), "Payment"),
+                    new PostingJournal.Entry(flushedSequence + 2, account.getId(), TransactionType.WITHDRAWAL, 200L, System.currentTimeMillis(), "Payment")
+            ));
+        }
+
+        postingEngineService.init();
+
+        Assertions.assertEquals(11300L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(3, transactionRepository.count());
+        Assertions.assertEquals(flushedSequence + 2, journalWatermarkRepository.findById(journalName).orElseThrow().getFlushedSequence());
+
+        Assertions.assertNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 11301L), user.getId()));
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 11300L), user.getId()));
+        await(() -> transactionRepository.count() == 4);
+        Assertions.assertEquals(0L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testFlushRefreshesCachedBalance() {
+        Account account = createAccount(10000L);
+        Account other = createAccount(0L);
+
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId()));
+        awaitFlushed();
+        Assertions.assertEquals(1, accountRepository.applyBalanceChange(account.getId(), user.getId(), -8000L));
+        Assertions.assertEquals(1, accountRepository.creditBalance(other.getId(), 8000L));
+
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId()));
+        awaitFlushed();
+        Assertions.assertEquals(2, transactionRepository.count());
+        Assertions.assertEquals(0L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+
+        Assertions.assertNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1L), user.getId()));
+        Assertions.assertEquals(1, accountRepository.creditBalance(account.getId(), 5000L));
+        Assertions.assertNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1L), user.getId()));
+    }
+
+    @Test
+    public void testFlushAppliesEntryThatWouldOverdraw() throws Exception {
+        Account account = createAccount(10000L);
+        double overdrawn = meterRegistry.counter("posting.journal.overdrawn").count();
+        long acceptedAt = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+        Date flushedAfter = new Date();
+
+        postingEngineService.destroy();
+
+        String journalName = "node-1-" + Math.floorMod(account.getId(), 2);
+        long flushedSequence = journalWatermarkRepository.findById(journalName).orElseThrow().getFlushedSequence();
+        try (PostingJournal journal = new PostingJournal(Path.of(JOURNAL_DIRECTORY, journalName + ".journal"), 16384)) {
+            journal.append(List.of(
+                    new PostingJournal.Entry(flushedSequence + 1, account.getId(), TransactionType.WITHDRAWAL, 6000L, acceptedAt, "Payment"),
+                    new PostingJournal.Entry(flushedSequence + 2, account.getId(), TransactionType.WITHDRAWAL, 6000L, acceptedAt, "Payment"),
+                    new PostingJournal.Entry(flushedSequence + 3, account.getId(), TransactionType.LODGEMENT, 500L, acceptedAt, "Payment")
+            ));
+        }
+
+        postingEngineService.init();
+
+        Assertions.assertEquals(-1500L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        List<Transaction> transactions = transactionRepository.findAll();
+        Assertions.assertEquals(3, transactions.size());
+        Assertions.assertTrue(transactions.stream().noneMatch(transaction -> transaction.getPostedAt().before(flushedAfter)));
+        Assertions.assertEquals(overdrawn + 1, meterRegistry.counter("posting.journal.overdrawn").count());
+        Assertions.assertEquals(0, postingDeadLetterRepository.count());
+        Assertions.assertEquals(flushedSequence + 3, journalWatermarkRepository.findById(journalName).orElseThrow().getFlushedSequence());
+    }
+
+    @Test
+    public void testFlushDeadLettersEntriesForDeletedAccount() throws Exception {
+        Account account = createAccount(10000L);
+        long deletedAccountId = account.getId() + 1000;
+        long acceptedAt = System.currentTimeMillis();
+
+        postingEngineService.destroy();
+
+        String journalName = "node-1-" + Math.floorMod(account.getId(), 2);
+        long flushedSequence = journalWatermarkRepository.findById(journalName).orElseThrow().getFlushedSequence();
+        try (PostingJournal journal = new PostingJournal(Path.of(JOURNAL_DIRECTORY, journalName + ".journal"), 16384)) {
+            journal.append(List.of(
+                    new PostingJournal.Entry(flushedSequence + 1, deletedAccountId, TransactionType.WITHDRAWAL, 600L, acceptedAt, "Payment"),
+                    new PostingJournal.Entry(flushedSequence + 2, account.getId(), TransactionType.LODGEMENT, 500L, acceptedAt, "Payment"),
+                    new PostingJournal.Entry(flushedSequence + 3, deletedAccountId, TransactionType.LODGEMENT, 200L, acceptedAt, "Refund")
+            ));
+        }
+
+        postingEngineService.init();
+
+        Assertions.assertEquals(10500L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(1, transactionRepository.count());
+
+        List<PostingDeadLetter> postingDeadLetters = postingDeadLetterRepository.findAll();
+        Assertions.assertEquals(2, postingDeadLetters.size());
+        Assertions.assertTrue(postingDeadLetters.stream().allMatch(postingDeadLetter -> postingDeadLetter.getAccountId() == deletedAccountId
+                && postingDeadLetter.getJournal().equals(journalName) && postingDeadLetter.getAcceptedAt().getTime() == acceptedAt));
+        Assertions.assertEquals(List.of(flushedSequence + 1, flushedSequence + 3),
+                postingDeadLetters.stream().map(PostingDeadLetter::getJournalSequence).sorted().toList());
+        Assertions.assertEquals(flushedSequence + 3, journalWatermarkRepository.findById(journalName).orElseThrow().getFlushedSequence());
+    }
+
+    private void awaitFlushed() {
+        await(() -> meterRegistry.get("posting.journal.lag").gauges().stream().allMatch(gauge -> gauge.value() == 0));
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assertions.fail(e);
+            }
+        }
+    }
+
+    private Account createAccount(long balance) {
+        Account account = new Account();
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setBalance(balance);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+
+        return accountRepository.save(account);
+    }
+
+    private TransactionRequest createTransactionRequest(Account account, TransactionType transactionType, long amount) {
+        TransactionRequest transactionRequest = new TransactionRequest();
+        transactionRequest.setAccountId(account.getId());
+        transactionRequest.setAmount(amount);
+        transactionRequest.setDescription("Payment");
+        transactionRequest.setTransactionType(transactionType);
+
+        return transactionRequest;
+    }
+
+}
@@ -0,0 +1,294 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.exception.ServiceUnavailableException;
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:posting;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.posting-engine.enabled=true",
+        "application.posting-engine.shards=4",
+        "application.posting-engine.batch-size=64"
+})
+@Import({ PostingEngineServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PostingEngineServiceImplTests {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PostingEngineServiceImpl postingEngineService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    public void teardown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testPostTransactionSuccess() {
+        Account account = createAccount(10000L);
+
+        Transaction transaction = postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId());
+
+        Assertions.assertNotNull(transaction);
+        Assertions.assertNotNull(transaction.getId());
+        Assertions.assertEquals(1000L, transaction.getAmount());
+        Assertions.assertEquals(9000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testPostTransactionOtherUser() {
+        Account account = createAccount(10000L);
+
+        Transaction transaction = postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId() + 1);
+
+        Assertions.assertNull(transaction);
+        Assertions.assertEquals(10000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    public void testPostTransactionUnknownAccount() {
+        TransactionRequest transactionRequest = new TransactionRequest();
+        transactionRequest.setAccountId(Long.MAX_VALUE);
+        transactionRequest.setAmount(1000L);
+        transactionRequest.setDescription("Payment");
+        transactionRequest.setTransactionType(TransactionType.LODGEMENT);
+
+        Assertions.assertNull(postingEngineService.postTransaction(transactionRequest, user.getId()));
+    }
+
+    @Test
+    public void testPostTransactionReloadsChangedBalance() {
+        Account account = createAccount(10000L);
+
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId()));
+        Assertions.assertEquals(1, accountRepository.compareAndSetBalance(account.getId(), 9000L, 5000L));
+
+        Assertions.assertNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 6000L), user.getId()));
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 2000L), user.getId()));
+
+        Assertions.assertEquals(3000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(2, transactionRepository.count());
+    }
+
+    @Test
+    public void testInvalidateBalancesReloadsCache() {
+        Account account = createAccount(10000L);
+
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId()));
+        Assertions.assertEquals(1, accountRepository.compareAndSetBalance(account.getId(), 9000L, 20000L));
+
+        postingEngineService.invalidateBalances();
+
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 15000L), user.getId()));
+        Assertions.assertEquals(5000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testConcurrentWithdrawalsNeverOverdraw() throws Exception {
+        Account account = createAccount(100000L);
+        List<TransactionRequest> transactionRequests = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            transactionRequests.add(createTransactionRequest(account, TransactionType.WITHDRAWAL, 100L));
+        }
+
+        Assertions.assertEquals(1000, run(transactionRequests));
+        Assertions.assertEquals(0L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(1000, transactionRepository.count());
+    }
+
+    @Test
+    public void testConcurrentPostingsAcrossShards() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            accounts.add(createAccount(50000L));
+        }
+
+        List<TransactionRequest> transactionRequests = new ArrayList<>();
+        for (int i = 0; i < 8000; i++) {
+            Account account = accounts.get(i % accounts.size());
+            transactionRequests.add(createTransactionRequest(account, i % 4 == 0 ? TransactionType.LODGEMENT : TransactionType.WITHDRAWAL, 100L));
+        }
+
+        int succeeded = run(transactionRequests);
+
+        Assertions.assertEquals(transactionRepository.count(), succeeded);
+        for (Account account : accounts) {
+            Assertions.assertTrue(accountRepository.findById(account.getId()).orElseThrow().getBalance() >= 0L);
+        }
+        Assertions.assertEquals(8 * 50000L + (2000 - (succeeded - 2000)) * 100L, accounts.stream()
+                .mapToLong(account -> accountRepository.findById(account.getId()).orElseThrow().getBalance())
+                .sum());
+    }
+
+    @Test
+    public void testConflictRetriesOnlyChangedAccount() throws Exception {
+        Account changed = createAccount(1000000L);
+        Account unaffected = createAccount(1000000L);
+        while (Math.floorMod(unaffected.getId(), 4) != Math.floorMod(changed.getId(), 4)) {
+            unaffected = createAccount(1000000L);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<Transaction>> results = new ArrayList<>();
+        try {
+            executor.submit(() -> {
+                while (running.get()) {
+                    accountRepository.creditBalance(changed.getId(), 1L);
+                }
+            });
+
+            for (int i = 0; i < 2000; i++) {
+                Account account = i % 2 == 0 ? changed : unaffected;
+                results.add(executor.submit(() -> postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 100L), user.getId())));
+            }
+
+            for (int i = 1; i < results.size(); i += 2) {
+                Assertions.assertNotNull(results.get(i).get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertEquals(1000000L - 1000 * 100L, accountRepository.findById(unaffected.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testPostTransactionTimeout() throws Exception {
+        Account account = createAccount(10000L);
+        postingEngineService.destroy();
+        ReflectionTestUtils.setField(postingEngineService, "TIMEOUT", 100L);
+
+        try {
+            Assertions.assertThrows(ServiceUnavailableException.class,
+                    () -> postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId()));
+            Assertions.assertEquals(1.0, meterRegistry.counter("posting.engine.timeout").count());
+        } finally {
+            ReflectionTestUtils.setField(postingEngineService, "TIMEOUT", 5000L);
+            postingEngineService.init();
+        }
+
+        Assertions.assertEquals(10000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertNotNull(postingEngineService.postTransaction(createTransactionRequest(account, TransactionType.WITHDRAWAL, 1000L), user.getId()));
+        Assertions.assertEquals(9000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testShardMetricsRegistered() {
+        Assertions.assertEquals(4, meterRegistry.find("posting.engine.queue.size").gauges().size());
+        Assertions.assertEquals(4, meterRegistry.find("posting.engine.latency").timers().size());
+    }
+
+    private int run(List<TransactionRequest> transactionRequests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try {
+            for (TransactionRequest transactionRequest : transactionRequests) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return postingEngineService.postTransaction(transactionRequest, user.getId()) != null;
+                }));
+            }
+
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Account createAccount(long balance) {
+        Account account = new Account();
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setBalance(balance);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+
+        return accountRepository.save(account);
+    }
+
+    private TransactionRequest createTransactionRequest(Account account, TransactionType transactionType, long amount) {
+        TransactionRequest transactionRequest = new TransactionRequest();
+        transactionRequest.setAccountId(account.getId());
+        transactionRequest.setAmount(amount);
+        transactionRequest.setDescription("Payment");
+        transactionRequest.setTransactionType(transactionType);
+
+        return transactionRequest;
+    }
+
+}
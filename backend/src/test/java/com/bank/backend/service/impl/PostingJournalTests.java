@@ -0,0 +1,95 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+public class PostingJournalTests {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testAppendAndRead() throws IOException {
+        Path path = directory.resolve("node-1-0.journal");
+        try (PostingJournal journal = new PostingJournal(path, CAPACITY)) {
+            Assertions.assertTrue(journal.append(List.of(createEntry(1, TransactionType.LODGEMENT), createEntry(2, TransactionType.WITHDRAWAL))));
+            Assertions.assertTrue(journal.append(List.of(createEntry(3, TransactionType.LODGEMENT))));
+        }
+
+        try (PostingJournal journal = new PostingJournal(path, CAPACITY)) {
+            List<PostingJournal.Entry> entries = journal.read();
+
+            Assertions.assertEquals(3, entries.size());
+            Assertions.assertEquals(2L, entries.get(1).getSequence());
+            Assertions.assertEquals(10L, entries.get(1).getAccountId());
+            Assertions.assertEquals(TransactionType.WITHDRAWAL, entries.get(1).getTransactionType());
+            Assertions.assertEquals(-500L, entries.get(1).signedAmount());
+            Assertions.assertEquals(1700000000000L, entries.get(1).getPostedAt());
+            Assertions.assertEquals("Payment €", entries.get(1).getDescription());
+        }
+    }
+
+    @Test
+    public void testReadStopsAtCorruptEntry() throws IOException {
+        Path path = directory.resolve("node-1-0.journal");
+        try (PostingJournal journal = new PostingJournal(path, CAPACITY)) {
+            journal.append(List.of(createEntry(1, TransactionType.LODGEMENT), createEntry(2, TransactionType.LODGEMENT)));
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(90);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        try (PostingJournal journal = new PostingJournal(path, CAPACITY)) {
+            List<PostingJournal.Entry> entries = journal.read();
+
+            Assertions.assertEquals(1, entries.size());
+            Assertions.assertEquals(1L, entries.get(0).getSequence());
+        }
+    }
+
+    @Test
+    public void testResetSkipsStaleEntries() throws IOException {
+        Path path = directory.resolve("node-1-0.journal");
+        try (PostingJournal journal = new PostingJournal(path, CAPACITY)) {
+            journal.append(List.of(createEntry(1, TransactionType.LODGEMENT), createEntry(2, TransactionType.LODGEMENT), createEntry(3, TransactionType.LODGEMENT)));
+            journal.reset();
+            journal.append(List.of(createEntry(4, TransactionType.LODGEMENT)));
+        }
+
+        try (PostingJournal journal = new PostingJournal(path, CAPACITY)) {
+            List<PostingJournal.Entry> entries = journal.read();
+
+            Assertions.assertEquals(1, entries.size());
+            Assertions.assertEquals(4L, entries.get(0).getSequence());
+        }
+    }
+
+    @Test
+    public void testAppendFull() throws IOException {
+        try (PostingJournal journal = new PostingJournal(directory.resolve("node-1-0.journal"), CAPACITY)) {
+            long sequence = 0;
+            while (journal.append(List.of(createEntry(++sequence, TransactionType.LODGEMENT)))) {
+                Assertions.assertTrue(sequence < CAPACITY);
+            }
+
+            Assertions.assertEquals(sequence - 1, journal.read().size());
+            journal.reset();
+            Assertions.assertTrue(journal.append(List.of(createEntry(sequence, TransactionType.LODGEMENT))));
+        }
+    }
+
+    private PostingJournal.Entry createEntry(long sequence, TransactionType transactionType) {
+        return new PostingJournal.Entry(sequence, 10L, transactionType, 500L, 1700000000000L, "Payment €");
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.ReconciliationDiscrepancy;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.JobLockRepository;
+import com.bank.backend.repository.ReconciliationDiscrepancyRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import com.bank.backend.service.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconciliation;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.reconciliation.chunk-size=3",
+        "application.reconciliation.parallelism=2"
+})
+@Import({ ReconciliationServiceImpl.class, JobLockServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReconciliationServiceImplTests {
+
+    @Autowired
+    private ReconciliationServiceImpl reconciliationService;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    public void teardown() {
+        reconciliationDiscrepancyRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testReconcileBalances() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            accounts.add(createAccount(1500L));
+        }
+        accounts.add(createAccount(0L));
+        Account drifted = accounts.get(3);
+        Account missing = accounts.get(8);
+        accountRepository.creditBalance(drifted.getId(), 250L);
+        accountRepository.creditBalance(missing.getId(), -400L);
+        double reconciled = meterRegistry.counter("reconciliation.accounts").count();
+
+        long discrepancies = reconciliationService.reconcileBalances();
+
+        Assertions.assertEquals(2L, discrepancies);
+        List<ReconciliationDiscrepancy> reconciliationDiscrepancies = reconciliationDiscrepancyRepository.findAll();
+        reconciliationDiscrepancies.sort(Comparator.comparing(ReconciliationDiscrepancy::getAccountId));
+        Assertions.assertEquals(drifted.getId(), reconciliationDiscrepancies.get(0).getAccountId());
+        Assertions.assertEquals(1750L, reconciliationDiscrepancies.get(0).getAccountBalance());
+        Assertions.assertEquals(1500L, reconciliationDiscrepancies.get(0).getTransactionBalance());
+        Assertions.assertEquals(missing.getId(), reconciliationDiscrepancies.get(1).getAccountId());
+        Assertions.assertEquals(1100L, reconciliationDiscrepancies.get(1).getAccountBalance());
+        Assertions.assertEquals(reconciliationDiscrepancies.get(0).getRunId(), reconciliationDiscrepancies.get(1).getRunId());
+        Assertions.assertEquals(reconciled + 11, meterRegistry.counter("reconciliation.accounts").count());
+    }
+
+    @Test
+    public void testReconcileBalancesNoDiscrepancies() {
+        for (int i = 0; i < 5; i++) {
+            createAccount(1500L);
+        }
+
+        Assertions.assertEquals(0L, reconciliationService.reconcileBalances());
+        Assertions.assertEquals(0, reconciliationDiscrepancyRepository.count());
+    }
+
+    @Test
+    public void testReconcileBalancesReportsOverdrawnAccount() {
+        createAccount(1500L);
+        Account overdrawn = createAccount(0L);
+        createTransaction(overdrawn, TransactionType.WITHDRAWAL, 300L);
+        accountRepository.creditBalance(overdrawn.getId(), -300L);
+
+        Assertions.assertEquals(1L, reconciliationService.reconcileBalances());
+
+        ReconciliationDiscrepancy reconciliationDiscrepancy = reconciliationDiscrepancyRepository.findAll().get(0);
+        Assertions.assertEquals(overdrawn.getId(), reconciliationDiscrepancy.getAccountId());
+        Assertions.assertEquals(-300L, reconciliationDiscrepancy.getAccountBalance());
+        Assertions.assertEquals(-300L, reconciliationDiscrepancy.getTransactionBalance());
+    }
+
+    @Test
+    public void testReconcileBalancesPartitionFailure() {
+        for (int i = 0; i < 5; i++) {
+            createAccount(1500L);
+        }
+        Account drifted = createAccount(1500L);
+        accountRepository.creditBalance(drifted.getId(), 250L);
+        double failed = meterRegistry.counter("reconciliation.failed").count();
+
+        jdbcTemplate.execute("alter table reconciliation_discrepancy add constraint ck_reconciliation_failure check (account_balance <> 1750)");
+        try {
+            Assertions.assertThrows(IllegalStateException.class, () -> reconciliationService.reconcileBalances());
+        } finally {
+            jdbcTemplate.execute("alter table reconciliation_discrepancy drop constraint ck_reconciliation_failure");
+        }
+
+        Assertions.assertEquals(failed + 1, meterRegistry.counter("reconciliation.failed").count());
+        Assertions.assertEquals(1L, reconciliationService.reconcileBalances());
+    }
+
+    @Test
+    public void testReconcileBalancesNoAccounts() {
+        Assertions.assertEquals(0L, reconciliationService.reconcileBalances());
+    }
+
+    @Test
+    public void testReconcileBalancesLocked() {
+        Account account = createAccount(1500L);
+        accountRepository.creditBalance(account.getId(), 250L);
+        Assertions.assertTrue(jobLockService.tryLock("reconciliation", Duration.ofMinutes(1)));
+
+        Assertions.assertEquals(0L, reconciliationService.reconcileBalances());
+        Assertions.assertEquals(0, reconciliationDiscrepancyRepository.count());
+    }
+
+    private Account createAccount(long balance) {
+        Account account = new Account();
+        account.setAccountNumber(String.valueOf(System.nanoTime()));
+        account.setBalance(balance);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+        account = accountRepository.save(account);
+
+        if (balance > 0) {
+            createTransaction(account, TransactionType.LODGEMENT, balance + 500L);
+            createTransaction(account, TransactionType.WITHDRAWAL, 300L);
+            createTransaction(account, TransactionType.TRANSFER_OUT, 200L);
+        }
+
+        return account;
+    }
+
+    private void createTransaction(Account account, TransactionType transactionType, long amount) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDescription("Payment");
+        transaction.setTransactionType(transactionType);
+        transaction.setPostedAt(new Date());
+        transaction.setAccount(account);
+        transactionRepository.save(transaction);
+    }
+
+}
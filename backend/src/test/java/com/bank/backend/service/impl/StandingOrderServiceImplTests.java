@@ -0,0 +1,287 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.StandingOrder;
+import com.bank.backend.model.StandingOrderFrequency;
+import com.bank.backend.model.StandingOrderRequest;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.StandingOrderRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:standing-orders;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "application.standing-orders.batch-size=10",
+        "application.standing-orders.parallelism=4"
+})
+@Import({ StandingOrderServiceImpl.class, TransactionServiceImpl.class, PostingEngineServiceImpl.class, IdempotencyServiceImpl.class,
+        JobLockServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StandingOrderServiceImplTests {
+
+    @Autowired
+    private StandingOrderServiceImpl standingOrderService;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    private Account current;
+
+    private Account savings;
+
+    private VerifiedToken verifiedToken;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        current = createAccount("123456", 100000L, AccountType.CURRENT);
+        savings = createAccount("654321", 0L, AccountType.SAVINGS);
+
+        verifiedToken = new VerifiedToken("tokenId", user.getId(), user.getUsername(), UserRole.USER, new Date(System.currentTimeMillis() + 60000));
+    }
+
+    @AfterEach
+    public void teardown() {
+        standingOrderRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testCreateStandingOrderSuccess() {
+        Date startAt = new Date(System.currentTimeMillis() + 3600000);
+        StandingOrderRequest standingOrderRequest = createStandingOrderRequest(current, savings, 1000L);
+        standingOrderRequest.setStartAt(startAt);
+
+        StandingOrder standingOrder = standingOrderService.createStandingOrder(standingOrderRequest, verifiedToken);
+
+        Assertions.assertNotNull(standingOrder);
+        Assertions.assertNotNull(standingOrder.getId());
+        Assertions.assertTrue(standingOrder.isActive());
+        Assertions.assertEquals(startAt, standingOrder.getNextRunAt());
+        Assertions.assertEquals(user.getId(), standingOrder.getUserId());
+    }
+
+    @Test
+    public void testCreateStandingOrderInvalid() {
+        VerifiedToken otherUser = new VerifiedToken("tokenId", user.getId() + 1, "Other", UserRole.USER, new Date(System.currentTimeMillis() + 60000));
+        StandingOrderRequest unknownTarget = createStandingOrderRequest(current, savings, 1000L);
+        unknownTarget.setToAccountId(Long.MAX_VALUE);
+        StandingOrderRequest pastStart = createStandingOrderRequest(current, savings, 1000L);
+        pastStart.setStartAt(new Date(System.currentTimeMillis() - 60000));
+
+        Assertions.assertNull(standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), otherUser));
+        Assertions.assertNull(standingOrderService.createStandingOrder(createStandingOrderRequest(current, current, 1000L), verifiedToken));
+        Assertions.assertNull(standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 0L), verifiedToken));
+        Assertions.assertNull(standingOrderService.createStandingOrder(unknownTarget, verifiedToken));
+        Assertions.assertNull(standingOrderService.createStandingOrder(pastStart, verifiedToken));
+        Assertions.assertEquals(0, standingOrderRepository.count());
+    }
+
+    @Test
+    public void testExecuteDueStandingOrders() {
+        for (int i = 0; i < 25; i++) {
+            standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), verifiedToken);
+        }
+        StandingOrderRequest future = createStandingOrderRequest(current, savings, 1000L);
+        future.setStartAt(new Date(System.currentTimeMillis() + 3600000));
+        standingOrderService.createStandingOrder(future, verifiedToken);
+
+        int executed = standingOrderService.executeDueStandingOrders();
+
+        Assertions.assertEquals(25, executed);
+        Assertions.assertEquals(75000L, accountRepository.findById(current.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(25000L, accountRepository.findById(savings.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(50, transactionRepository.count());
+
+        List<StandingOrder> standingOrders = standingOrderRepository.findAll();
+        Assertions.assertEquals(25, standingOrders.stream().filter(standingOrder -> standingOrder.getExecutions() == 1).count());
+        Assertions.assertTrue(standingOrders.stream().allMatch(standingOrder -> standingOrder.getClaimedBy() == null));
+        Assertions.assertTrue(standingOrders.stream().filter(standingOrder -> standingOrder.getExecutions() == 1)
+                .allMatch(standingOrder -> standingOrder.getNextRunAt().toInstant().equals(
+                        standingOrder.getStartAt().toInstant().atZone(ZoneOffset.UTC).plusMonths(1).toInstant())));
+    }
+
+    @Test
+    public void testExecuteDueStandingOrdersCatchesUpOneOccurrencePerRun() {
+        StandingOrder standingOrder = standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), verifiedToken);
+        Date startAt = Date.from(ZonedDateTime.now(ZoneOffset.UTC).minusMonths(2).minusDays(1).toInstant());
+        standingOrder.setStartAt(startAt);
+        standingOrder.setNextRunAt(startAt);
+        standingOrderRepository.save(standingOrder);
+
+        List<Integer> executed = new ArrayList<>();
+        for (int run = 0; run < 4; run++) {
+            executed.add(standingOrderService.executeDueStandingOrders());
+        }
+
+        StandingOrder stored = standingOrderRepository.findById(standingOrder.getId()).orElseThrow();
+        Assertions.assertEquals(List.of(1, 1, 1, 0), executed);
+        Assertions.assertEquals(3, stored.getExecutions());
+        Assertions.assertEquals(Date.from(startAt.toInstant().atZone(ZoneOffset.UTC).plusMonths(3).toInstant()), stored.getNextRunAt());
+        Assertions.assertEquals(3000L, accountRepository.findById(savings.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    public void testExecuteDueStandingOrdersInsufficientFunds() {
+        StandingOrder standingOrder = standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 200000L), verifiedToken);
+
+        int executed = standingOrderService.executeDueStandingOrders();
+
+        StandingOrder stored = standingOrderRepository.findById(standingOrder.getId()).orElseThrow();
+        Assertions.assertEquals(0, executed);
+        Assertions.assertEquals(1, stored.getExecutions());
+        Assertions.assertEquals(1, stored.getFailedExecutions());
+        Assertions.assertNull(stored.getClaimedBy());
+        Assertions.assertEquals(100000L, accountRepository.findById(current.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, transactionRepository.count());
+        Assertions.assertTrue(meterRegistry.counter("standing.order.failed").count() >= 1);
+    }
+
+    @Test
+    public void testExecuteDueStandingOrdersSkipsCancelledAndClaimed() {
+        StandingOrder cancelled = standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), verifiedToken);
+        StandingOrder claimed = standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), verifiedToken);
+        claimed.setClaimedBy("other");
+        claimed.setClaimedUntil(new Date(System.currentTimeMillis() + 60000));
+        standingOrderRepository.save(claimed);
+
+        Assertions.assertTrue(standingOrderService.cancelStandingOrder(cancelled.getId(), verifiedToken));
+        Assertions.assertEquals(0, standingOrderService.executeDueStandingOrders());
+        Assertions.assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    public void testConcurrentRunsExecuteEachOrderOnce() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 100L), verifiedToken);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        int executed = 0;
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return standingOrderService.executeDueStandingOrders();
+                }));
+            }
+
+            start.countDown();
+            for (Future<Integer> result : results) {
+                executed += result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(60, executed);
+        Assertions.assertEquals(94000L, accountRepository.findById(current.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(120, transactionRepository.count());
+        Assertions.assertTrue(standingOrderRepository.findAll().stream().allMatch(standingOrder -> standingOrder.getExecutions() == 1));
+    }
+
+    @Test
+    public void testCancelStandingOrderOtherUser() {
+        StandingOrder standingOrder = standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), verifiedToken);
+        VerifiedToken otherUser = new VerifiedToken("tokenId", user.getId() + 1, "Other", UserRole.USER, new Date(System.currentTimeMillis() + 60000));
+
+        Assertions.assertFalse(standingOrderService.cancelStandingOrder(standingOrder.getId(), otherUser));
+        Assertions.assertFalse(standingOrderService.cancelStandingOrder(standingOrder.getId(), null));
+        Assertions.assertTrue(standingOrderRepository.findById(standingOrder.getId()).orElseThrow().isActive());
+        Assertions.assertEquals(1, standingOrderService.getLoggedInStandingOrders(verifiedToken).size());
+        Assertions.assertTrue(standingOrderService.getLoggedInStandingOrders(otherUser).isEmpty());
+    }
+
+    @Test
+    public void testCancelStandingOrderKeepsExecutionState() {
+        StandingOrder standingOrder = standingOrderService.createStandingOrder(createStandingOrderRequest(current, savings, 1000L), verifiedToken);
+        VerifiedToken admin = new VerifiedToken("tokenId", user.getId() + 1, "Admin", UserRole.ADMIN, new Date(System.currentTimeMillis() + 60000));
+        Assertions.assertEquals(1, standingOrderService.executeDueStandingOrders());
+
+        Assertions.assertTrue(standingOrderService.cancelStandingOrder(standingOrder.getId(), admin));
+        Assertions.assertFalse(standingOrderService.cancelStandingOrder(standingOrder.getId() + 1, admin));
+
+        StandingOrder stored = standingOrderRepository.findById(standingOrder.getId()).orElseThrow();
+        Assertions.assertFalse(stored.isActive());
+        Assertions.assertEquals(1, stored.getExecutions());
+        Assertions.assertNotNull(stored.getLastRunAt());
+    }
+
+    private Account createAccount(String accountNumber, long balance, AccountType accountType) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(balance);
+        account.setAccountType(accountType);
+        account.setUser(user);
+
+        return accountRepository.save(account);
+    }
+
+    private StandingOrderRequest createStandingOrderRequest(Account from, Account to, long amount) {
+        StandingOrderRequest standingOrderRequest = new StandingOrderRequest();
+        standingOrderRequest.setFromAccountId(from.getId());
+        standingOrderRequest.setToAccountId(to.getId());
+        standingOrderRequest.setAmount(amount);
+        standingOrderRequest.setDescription("Savings");
+        standingOrderRequest.setFrequency(StandingOrderFrequency.MONTHLY);
+
+        return standingOrderRequest;
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.StatementFormat;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@Import({ StatementServiceImpl.class, SimpleMeterRegistry.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StatementServiceImplTests {
+
+    @Autowired
+    private StatementServiceImpl statementService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Account account;
+
+    @BeforeEach
+    public void setup() {
+        User user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        account = new Account();
+        account.setAccountNumber("123456");
+        account.setBalance(0L);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+        account = accountRepository.save(account);
+    }
+
+    @AfterEach
+    public void teardown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testWriteStatementCsv() throws IOException {
+        createTransactions(2500);
+        createTransaction(1050L, "Rent, \"March\"");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        double exported = meterRegistry.counter("statement.export.rows", "format", "CSV").count();
+
+        long rows = statementService.writeStatement(account.getId(), StatementFormat.CSV, false, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2501L, rows);
+        Assertions.assertEquals(2502, lines.length);
+        Assertions.assertEquals("id,postedAt,transactionType,amount,description,linkedTransactionId", lines[0]);
+        Assertions.assertTrue(lines[1].contains(",2026-03-01T09:30:00Z,"));
+        Assertions.assertTrue(lines[1].endsWith(",LODGEMENT,1.00,Payment 0,"));
+        Assertions.assertTrue(lines[2501].endsWith(",LODGEMENT,10.50,\"Rent, \"\"March\"\"\","));
+        Assertions.assertEquals(exported + 2501, meterRegistry.counter("statement.export.rows", "format", "CSV").count());
+    }
+
+    @Test
+    public void testWriteStatementNdjson() throws IOException {
+        createTransactions(3);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = statementService.writeStatement(account.getId(), StatementFormat.NDJSON, false, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3L, rows);
+        Assertions.assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        Assertions.assertEquals("Payment 0", first.get("description").asText());
+        Assertions.assertEquals("LODGEMENT", first.get("transactionType").asText());
+        Assertions.assertTrue(lines[0].contains("\"amount\":1.00"));
+    }
+
+    @Test
+    public void testWriteStatementGzip() throws IOException {
+        createTransactions(100);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        statementService.writeStatement(account.getId(), StatementFormat.CSV, true, outputStream);
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            String[] lines = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            Assertions.assertEquals(101, lines.length);
+        }
+    }
+
+    @Test
+    public void testWriteStatementNoTransactions() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = statementService.writeStatement(account.getId(), StatementFormat.NDJSON, false, outputStream);
+
+        Assertions.assertEquals(0L, rows);
+        Assertions.assertEquals(0, outputStream.size());
+    }
+
+    private void createTransactions(int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(createTransactionEntity(100L, "Payment " + i));
+        }
+
+        transactionRepository.saveAll(transactions);
+    }
+
+    private void createTransaction(long amount, String description) {
+        transactionRepository.save(createTransactionEntity(amount, description));
+    }
+
+    private Transaction createTransactionEntity(long amount, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setTransactionType(TransactionType.LODGEMENT);
+        transaction.setPostedAt(Date.from(Instant.parse("2026-03-01T09:30:00Z")));
+        transaction.setAccount(account);
+
+        return transaction;
+    }
+
+}
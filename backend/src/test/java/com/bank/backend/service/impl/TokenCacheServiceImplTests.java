@@ -0,0 +1,76 @@
+package com.bank.backend.service.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Date;
+
+public class TokenCacheServiceImplTests {
+
+    private TokenCacheServiceImpl tokenCacheService;
+
+    @BeforeEach
+    public void setup() {
+        tokenCacheService = new TokenCacheServiceImpl();
+        ReflectionTestUtils.setField(tokenCacheService, "MAX_CACHE_SIZE", 2);
+    }
+
+    @Test
+    public void testCacheToken() {
+        tokenCacheService.cacheToken("accessToken", futureDate());
+
+        Assertions.assertTrue(tokenCacheService.isCached("accessToken"));
+        Assertions.assertFalse(tokenCacheService.isCached("otherToken"));
+    }
+
+    @Test
+    public void testCacheTokenExpired() {
+        tokenCacheService.cacheToken("accessToken", new Date(939945600000L));
+
+        Assertions.assertFalse(tokenCacheService.isCached("accessToken"));
+    }
+
+    @Test
+    public void testCacheTokenNullExpiration() {
+        tokenCacheService.cacheToken("accessToken", null);
+
+        Assertions.assertFalse(tokenCacheService.isCached("accessToken"));
+    }
+
+    @Test
+    public void testEvictToken() {
+        tokenCacheService.cacheToken("accessToken", futureDate());
+        tokenCacheService.evictToken("accessToken");
+
+        Assertions.assertFalse(tokenCacheService.isCached("accessToken"));
+    }
+
+    @Test
+    public void testCacheTokenFull() {
+        tokenCacheService.cacheToken("firstToken", futureDate());
+        tokenCacheService.cacheToken("secondToken", futureDate());
+        tokenCacheService.cacheToken("thirdToken", futureDate());
+
+        Assertions.assertFalse(tokenCacheService.isCached("firstToken"));
+        Assertions.assertTrue(tokenCacheService.isCached("secondToken"));
+        Assertions.assertTrue(tokenCacheService.isCached("thirdToken"));
+    }
+
+    @Test
+    public void testCacheTokenFullEvictsLeastRecentlyUsed() {
+        tokenCacheService.cacheToken("firstToken", futureDate());
+        tokenCacheService.cacheToken("secondToken", futureDate());
+        Assertions.assertTrue(tokenCacheService.isCached("firstToken"));
+        tokenCacheService.cacheToken("thirdToken", futureDate());
+
+        Assertions.assertTrue(tokenCacheService.isCached("firstToken"));
+        Assertions.assertFalse(tokenCacheService.isCached("secondToken"));
+        Assertions.assertTrue(tokenCacheService.isCached("thirdToken"));
+    }
+
+    private Date futureDate() {
+        return new Date(System.currentTimeMillis() + 60000L);
+    }
+
+}
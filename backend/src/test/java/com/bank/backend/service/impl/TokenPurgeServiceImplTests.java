@@ -0,0 +1,99 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.repository.TokenRepository;
+import com.bank.backend.service.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class TokenPurgeServiceImplTests {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TokenPurgeServiceImpl tokenPurgeService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tokenPurgeService, "BATCH_SIZE", 2);
+        ReflectionTestUtils.setField(tokenPurgeService, "MAX_BATCHES", 3);
+        ReflectionTestUtils.setField(tokenPurgeService, "LOCK_DURATION", 60000L);
+    }
+
+    @Test
+    public void testPurgeExpiredTokens() {
+        Mockito.when(jobLockService.tryLock(Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(true);
+        Mockito.when(tokenRepository.findExpiredTokenIds(Mockito.any(Date.class), Mockito.any(Pageable.class))).thenReturn(List.of(1L, 2L)).thenReturn(List.of(3L));
+        Mockito.when(tokenRepository.deleteByIdIn(Mockito.anyList())).thenReturn(2, 1);
+
+        int deleted = tokenPurgeService.purgeExpiredTokens();
+
+        Assertions.assertEquals(3, deleted);
+        Assertions.assertEquals(3.0, meterRegistry.counter("token.purge.deleted").count());
+        Assertions.assertEquals(1L, meterRegistry.timer("token.purge.duration").count());
+
+        Mockito.verify(tokenRepository, Mockito.times(2)).findExpiredTokenIds(Mockito.any(Date.class), Mockito.any(Pageable.class));
+        Mockito.verify(tokenRepository, Mockito.times(2)).deleteByIdIn(Mockito.anyList());
+        Mockito.verify(jobLockService, Mockito.times(1)).unlock(Mockito.anyString());
+    }
+
+    @Test
+    public void testPurgeExpiredTokensMaxBatches() {
+        Mockito.when(jobLockService.tryLock(Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(true);
+        Mockito.when(tokenRepository.findExpiredTokenIds(Mockito.any(Date.class), Mockito.any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        Mockito.when(tokenRepository.deleteByIdIn(Mockito.anyList())).thenReturn(2);
+
+        int deleted = tokenPurgeService.purgeExpiredTokens();
+
+        Assertions.assertEquals(6, deleted);
+
+        Mockito.verify(tokenRepository, Mockito.times(3)).deleteByIdIn(Mockito.anyList());
+    }
+
+    @Test
+    public void testPurgeExpiredTokensNothingExpired() {
+        Mockito.when(jobLockService.tryLock(Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(true);
+        Mockito.when(tokenRepository.findExpiredTokenIds(Mockito.any(Date.class), Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        int deleted = tokenPurgeService.purgeExpiredTokens();
+
+        Assertions.assertEquals(0, deleted);
+
+        Mockito.verify(tokenRepository, Mockito.never()).deleteByIdIn(Mockito.anyList());
+        Mockito.verify(jobLockService, Mockito.times(1)).unlock(Mockito.anyString());
+    }
+
+    @Test
+    public void testPurgeExpiredTokensLocked() {
+        Mockito.when(jobLockService.tryLock(Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(false);
+
+        int deleted = tokenPurgeService.purgeExpiredTokens();
+
+        Assertions.assertEquals(0, deleted);
+
+        Mockito.verifyNoInteractions(tokenRepository);
+        Mockito.verify(jobLockService, Mockito.never()).unlock(Mockito.anyString());
+    }
+
+}
@@ -0,0 +1,339 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.AccountType;
+import com.bank.backend.model.Transaction;
+import com.bank.backend.model.TransactionRequest;
+import com.bank.backend.model.TransactionType;
+import com.bank.backend.model.TransferRequest;
+import com.bank.backend.model.User;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.model.VerifiedToken;
+import com.bank.backend.repository.AccountRepository;
+import com.bank.backend.repository.IdempotencyRecordRepository;
+import com.bank.backend.repository.TransactionRepository;
+import com.bank.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transactions;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@Import({ TransactionServiceImpl.class, PostingEngineServiceImpl.class, IdempotencyServiceImpl.class, JobLockServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TransactionServiceImplConcurrencyTests {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private User user;
+
+    private Account account;
+
+    private VerifiedToken verifiedToken;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setUsername("Username");
+        user.setPassword("Password");
+        user.setUserRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        account = new Account();
+        account.setAccountNumber("123456");
+        account.setBalance(100000L);
+        account.setAccountType(AccountType.CURRENT);
+        account.setUser(user);
+        account = accountRepository.save(account);
+
+        verifiedToken = new VerifiedToken("tokenId", user.getId(), user.getUsername(), UserRole.USER, new Date(System.currentTimeMillis() + 60000));
+    }
+
+    @AfterEach
+    public void teardown() {
+        idempotencyRecordRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testConcurrentWithdrawalsNeverOverdraw() throws Exception {
+        int succeeded = run(4000, i -> createTransactionRequest(TransactionType.WITHDRAWAL, 100L));
+
+        Assertions.assertEquals(1000, succeeded);
+        Assertions.assertEquals(0L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(1000, transactionRepository.count());
+    }
+
+    @Test
+    public void testConcurrentMixedTransactionsKeepBalance() throws Exception {
+        int succeeded = run(4000, i -> createTransactionRequest(i % 2 == 0 ? TransactionType.WITHDRAWAL : TransactionType.LODGEMENT, 100L));
+
+        Assertions.assertEquals(4000, succeeded);
+        Assertions.assertEquals(100000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(4000, transactionRepository.count());
+    }
+
+    @Test
+    public void testConcurrentWithdrawalsOtherUserRejected() throws Exception {
+        verifiedToken = new VerifiedToken("tokenId", user.getId() + 1, "Other", UserRole.USER, new Date(System.currentTimeMillis() + 60000));
+
+        int succeeded = run(200, i -> createTransactionRequest(TransactionType.WITHDRAWAL, 100L));
+
+        Assertions.assertEquals(0, succeeded);
+        Assertions.assertEquals(100000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    public void testConcurrentDuplicatesPostOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Transaction>> results = new ArrayList<>();
+        Set<Long> transactionIds = new HashSet<>();
+
+        try {
+            for (int i = 0; i < 400; i++) {
+                String idempotencyKey = "key-" + (i % 4);
+                TransactionRequest transactionRequest = createTransactionRequest(TransactionType.WITHDRAWAL, 100L);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionService.createTransaction(transactionRequest, verifiedToken, idempotencyKey);
+                }));
+            }
+
+            start.countDown();
+            for (Future<Transaction> result : results) {
+                transactionIds.add(result.get(60, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(4, transactionIds.size());
+        Assertions.assertEquals(99600L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(4, transactionRepository.count());
+        Assertions.assertEquals(4, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    public void testConcurrentOpposingBatches() throws Exception {
+        Account otherAccount = new Account();
+        otherAccount.setAccountNumber("654321");
+        otherAccount.setBalance(100000L);
+        otherAccount.setAccountType(AccountType.SAVINGS);
+        otherAccount.setUser(user);
+        otherAccount = accountRepository.save(otherAccount);
+        Account savings = otherAccount;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 400; i++) {
+                Account from = i % 2 == 0 ? account : savings;
+                Account to = i % 2 == 0 ? savings : account;
+                List<TransactionRequest> batch = List.of(
+                        createTransactionRequest(from, TransactionType.WITHDRAWAL, 100L),
+                        createTransactionRequest(to, TransactionType.LODGEMENT, 100L)
+                );
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionService.createTransactions(batch, verifiedToken) != null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(100000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(100000L, accountRepository.findById(savings.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(800, transactionRepository.count());
+    }
+
+    @Test
+    public void testConcurrentCrossTransfersNeverDeadlock() throws Exception {
+        List<Account> accounts = new ArrayList<>(List.of(account));
+        for (int i = 1; i < 4; i++) {
+            Account otherAccount = new Account();
+            otherAccount.setAccountNumber("65432" + i);
+            otherAccount.setBalance(100000L);
+            otherAccount.setAccountType(AccountType.SAVINGS);
+            otherAccount.setUser(user);
+            accounts.add(accountRepository.save(otherAccount));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Transaction>>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 2000; i++) {
+                Account from = accounts.get(i % 4);
+                Account to = accounts.get((i + 1 + (i / 4) % 3) % 4);
+                TransferRequest transferRequest = createTransferRequest(from, to, 100L);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionService.createTransfer(transferRequest, verifiedToken);
+                }));
+            }
+
+            start.countDown();
+            for (Future<List<Transaction>> result : results) {
+                List<Transaction> transfer = result.get(60, TimeUnit.SECONDS);
+                Assertions.assertNotNull(transfer);
+                Assertions.assertEquals(transfer.get(1).getId(), transfer.get(0).getLinkedTransactionId());
+                Assertions.assertEquals(transfer.get(0).getId(), transfer.get(1).getLinkedTransactionId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = accounts.stream().mapToLong(a -> accountRepository.findById(a.getId()).orElseThrow().getBalance()).sum();
+
+        Assertions.assertEquals(400000L, total);
+        Assertions.assertEquals(4000, transactionRepository.count());
+        Assertions.assertTrue(transactionRepository.findAll().stream().allMatch(transaction -> transaction.getLinkedTransactionId() != null));
+    }
+
+    @Test
+    public void testTransferRejectedAsAWhole() {
+        Account otherAccount = new Account();
+        otherAccount.setAccountNumber("654321");
+        otherAccount.setBalance(0L);
+        otherAccount.setAccountType(AccountType.SAVINGS);
+        otherAccount.setUser(user);
+        otherAccount = accountRepository.save(otherAccount);
+
+        Assertions.assertNull(transactionService.createTransfer(createTransferRequest(otherAccount, account, 100L), verifiedToken));
+        Assertions.assertNull(transactionService.createTransfer(createTransferRequest(account, otherAccount, 100001L), verifiedToken));
+        Assertions.assertEquals(100000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0L, accountRepository.findById(otherAccount.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, transactionRepository.count());
+    }
+
+    @Test
+    public void testBatchRejectedAsAWhole() {
+        List<TransactionRequest> batch = List.of(
+                createTransactionRequest(TransactionType.LODGEMENT, 500L),
+                createTransactionRequest(TransactionType.WITHDRAWAL, 100000L),
+                createTransactionRequest(TransactionType.WITHDRAWAL, 1000L)
+        );
+
+        Assertions.assertNull(transactionService.createTransactions(batch, verifiedToken));
+        Assertions.assertEquals(100000L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(0, transactionRepository.count());
+
+        List<Transaction> transactions = transactionService.createTransactions(batch.subList(0, 2), verifiedToken);
+
+        Assertions.assertNotNull(transactions);
+        Assertions.assertTrue(transactions.stream().allMatch(transaction -> transaction.getId() != null));
+        Assertions.assertEquals(500L, accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        Assertions.assertEquals(2, transactionRepository.count());
+    }
+
+    private int run(int requests, IntFunction<TransactionRequest> requestFactory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < requests; i++) {
+                TransactionRequest transactionRequest = requestFactory.apply(i);
+                Callable<Boolean> task = () -> {
+                    start.await();
+                    return transactionService.createTransaction(transactionRequest, verifiedToken) != null;
+                };
+                results.add(executor.submit(task));
+            }
+
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TransferRequest createTransferRequest(Account from, Account to, long amount) {
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(from.getId());
+        transferRequest.setToAccountId(to.getId());
+        transferRequest.setAmount(amount);
+        transferRequest.setDescription("Transfer");
+
+        return transferRequest;
+    }
+
+    private TransactionRequest createTransactionRequest(TransactionType transactionType, long amount) {
+        return createTransactionRequest(account, transactionType, amount);
+    }
+
+    private TransactionRequest createTransactionRequest(Account account, TransactionType transactionType, long amount) {
+        TransactionRequest transactionRequest = new TransactionRequest();
+        transactionRequest.setAccountId(account.getId());
+        transactionRequest.setAmount(amount);
+        transactionRequest.setDescription("Payment");
+        transactionRequest.setTransactionType(transactionType);
+
+        return transactionRequest;
+    }
+
+}
@@ -3,19 +3,25 @@ package com.bank.backend.service.impl;
 import com.bank.backend.model.*;
 import com.bank.backend.repository.AccountRepository;
 import com.bank.backend.repository.TransactionRepository;
-import com.bank.backend.service.AccountService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.bank.backend.service.IdempotencyService;
+import com.bank.backend.service.PostingEngineService;
+import com.bank.backend.util.TokenDigest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public class TransactionServiceImplTests {
 
@@ -23,13 +29,22 @@ public class TransactionServiceImplTests {
     private AccountRepository accountRepository;
 
     @Mock
-    private AccountService accountService;
+    private TransactionRepository transactionRepository;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private PostingEngineService postingEngineService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionStatus transactionStatus;
 
     @Mock
-    private HttpServletRequest request;
+    private VerifiedToken verifiedToken;
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -37,6 +52,10 @@ public class TransactionServiceImplTests {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(transactionService, "MAX_BATCH_SIZE", 3);
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(transactionStatus)
+        );
     }
 
     @Test
@@ -45,12 +64,12 @@ public class TransactionServiceImplTests {
         Account account = createUser().getAccountList().get(0);
         Transaction transaction = account.getTransactionList().get(0);
 
-        Mockito.when(accountRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(account));
-        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(HttpServletRequest.class))).thenReturn(List.of(account));
-        Mockito.when(accountRepository.save(Mockito.any(Account.class))).thenReturn(account);
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.getReferenceById(Mockito.any(Long.class))).thenReturn(account);
         Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
 
-        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, request);
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken);
 
         Assertions.assertNotNull(transactionResponse);
         Assertions.assertEquals(transaction.getId(), transactionResponse.getId());
@@ -59,9 +78,10 @@ public class TransactionServiceImplTests {
         Assertions.assertEquals(transaction.getAmount(), transactionResponse.getAmount());
         Assertions.assertEquals(transaction.getDescription(), transactionResponse.getDescription());
 
-        Mockito.verify(accountRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
-        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(HttpServletRequest.class));
-        Mockito.verify(accountRepository, Mockito.times(1)).save(Mockito.any(Account.class));
+        Mockito.verify(accountRepository, Mockito.times(1)).applyBalanceChange(1L, 1L, -1000L);
+        Mockito.verify(accountRepository, Mockito.times(1)).getReferenceById(1L);
+        Mockito.verify(accountRepository, Mockito.never()).findById(Mockito.any(Long.class));
+        Mockito.verify(accountRepository, Mockito.never()).save(Mockito.any(Account.class));
         Mockito.verify(transactionRepository, Mockito.times(1)).save(Mockito.any(Transaction.class));
     }
 
@@ -72,82 +92,317 @@ public class TransactionServiceImplTests {
         Transaction transaction = account.getTransactionList().get(0);
         transactionRequest.setTransactionType(TransactionType.LODGEMENT);
 
-        Mockito.when(accountRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(account));
-        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(HttpServletRequest.class))).thenReturn(List.of(account));
-        Mockito.when(accountRepository.save(Mockito.any(Account.class))).thenReturn(account);
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.getReferenceById(Mockito.any(Long.class))).thenReturn(account);
         Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
 
-        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, request);
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken);
 
         Assertions.assertNotNull(transactionResponse);
         Assertions.assertEquals(transaction.getId(), transactionResponse.getId());
-        Assertions.assertEquals(transaction.getTransactionType(), transactionResponse.getTransactionType());
-        Assertions.assertEquals(transaction.getAccount(), transactionResponse.getAccount());
-        Assertions.assertEquals(transaction.getAmount(), transactionResponse.getAmount());
-        Assertions.assertEquals(transaction.getDescription(), transactionResponse.getDescription());
 
-        Mockito.verify(accountRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
-        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(HttpServletRequest.class));
-        Mockito.verify(accountRepository, Mockito.times(1)).save(Mockito.any(Account.class));
+        Mockito.verify(accountRepository, Mockito.times(1)).applyBalanceChange(1L, 1L, 1000L);
         Mockito.verify(transactionRepository, Mockito.times(1)).save(Mockito.any(Transaction.class));
     }
 
+    @Test
+    public void testCreateTransactionPostingEngine() {
+        TransactionRequest transactionRequest = createTransactionRequest();
+        Transaction transaction = createUser().getAccountList().get(0).getTransactionList().get(0);
+
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(postingEngineService.isEnabled()).thenReturn(true);
+        Mockito.when(postingEngineService.postTransaction(transactionRequest, 1L)).thenReturn(transaction);
+
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken);
+
+        Assertions.assertEquals(transaction, transactionResponse);
+
+        Mockito.verify(postingEngineService, Mockito.times(1)).postTransaction(transactionRequest, 1L);
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository, transactionTemplate);
+    }
+
+    @Test
+    public void testCreateTransactionIdempotencyKey() {
+        TransactionRequest transactionRequest = createTransactionRequest();
+        Account account = createUser().getAccountList().get(0);
+        Transaction transaction = account.getTransactionList().get(0);
+
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.getReferenceById(Mockito.any(Long.class))).thenReturn(account);
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
+        Mockito.when(idempotencyService.execute(Mockito.eq(1L), Mockito.eq("key"), Mockito.eq(transactionRequest), Mockito.any())).thenAnswer(
+                invocation -> invocation.<Supplier<Transaction>>getArgument(3).get()
+        );
+
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken, "key");
+
+        Assertions.assertEquals(transaction, transactionResponse);
+
+        Mockito.verify(idempotencyService, Mockito.times(1)).execute(Mockito.eq(1L), Mockito.eq("key"), Mockito.eq(transactionRequest), Mockito.any());
+        Mockito.verify(accountRepository, Mockito.times(1)).applyBalanceChange(1L, 1L, -1000L);
+        Mockito.verify(postingEngineService, Mockito.never()).postTransaction(Mockito.any(TransactionRequest.class), Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    public void testCreateTransactionIdempotencyKeyPostingEngine() {
+        TransactionRequest transactionRequest = createTransactionRequest();
+
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(postingEngineService.isEnabled()).thenReturn(true);
+
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken, "key");
+
+        Assertions.assertNull(transactionResponse);
+
+        Mockito.verify(postingEngineService, Mockito.never()).postTransaction(Mockito.any(TransactionRequest.class), Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(idempotencyService, accountRepository, transactionRepository, transactionTemplate);
+    }
+
+    @Test
+    public void testCreateTransactionIdempotencyKeyInvalidRequest() {
+        TransactionRequest transactionRequest = createTransactionRequest();
+        transactionRequest.setAccountId(null);
+
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken, "key");
+
+        Assertions.assertNull(transactionResponse);
+
+        Mockito.verifyNoInteractions(idempotencyService, accountRepository, transactionRepository);
+    }
+
     @Test
     public void testCreateTransactionInvalidRequest() {
-        Transaction transactionResponse = transactionService.createTransaction(null, request);
+        Transaction transactionResponse = transactionService.createTransaction(null, verifiedToken);
 
         Assertions.assertNull(transactionResponse);
+
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository);
     }
 
     @Test
-    public void testCreateTransactionNullAccount() {
+    public void testCreateTransactionNegativeAmount() {
         TransactionRequest transactionRequest = createTransactionRequest();
+        transactionRequest.setAmount(-1000L);
+
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken);
+
+        Assertions.assertNull(transactionResponse);
 
-        Mockito.when(accountRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.empty());
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository);
+    }
 
-        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, request);
+    @Test
+    public void testCreateTransactionNullToken() {
+        Transaction transactionResponse = transactionService.createTransaction(createTransactionRequest(), null);
 
         Assertions.assertNull(transactionResponse);
 
-        Mockito.verify(accountRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository);
     }
 
     @Test
-    public void testCreateTransactionUserNotAllowed() {
+    public void testCreateTransactionBalanceNotUpdated() {
         TransactionRequest transactionRequest = createTransactionRequest();
+
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(0);
+
+        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, verifiedToken);
+
+        Assertions.assertNull(transactionResponse);
+
+        Mockito.verify(accountRepository, Mockito.times(1)).applyBalanceChange(1L, 1L, -1000L);
+        Mockito.verify(accountRepository, Mockito.never()).getReferenceById(Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    public void testCreateTransactionsSuccess() {
+        TransactionRequest lodgement = createTransactionRequest();
+        lodgement.setTransactionType(TransactionType.LODGEMENT);
+        lodgement.setAmount(2500L);
+        TransactionRequest otherAccount = createTransactionRequest();
+        otherAccount.setAccountId(2L);
+        List<TransactionRequest> transactionRequests = List.of(createTransactionRequest(), lodgement, otherAccount);
         Account account = createUser().getAccountList().get(0);
 
-        Mockito.when(accountRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(account));
-        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(HttpServletRequest.class))).thenReturn(Collections.emptyList());
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.getReferenceById(Mockito.any(Long.class))).thenReturn(account);
+        Mockito.when(transactionRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, request);
+        List<Transaction> transactionResponse = transactionService.createTransactions(transactionRequests, verifiedToken);
+
+        Assertions.assertNotNull(transactionResponse);
+        Assertions.assertEquals(3, transactionResponse.size());
+        Assertions.assertEquals(2500L, transactionResponse.get(1).getAmount());
+        Assertions.assertEquals(TransactionType.LODGEMENT, transactionResponse.get(1).getTransactionType());
+
+        Mockito.verify(accountRepository, Mockito.times(1)).applyBalanceChange(1L, 1L, 1500L);
+        Mockito.verify(accountRepository, Mockito.times(1)).applyBalanceChange(2L, 1L, -1000L);
+        Mockito.verify(transactionRepository, Mockito.times(1)).saveAll(Mockito.anyList());
+        Mockito.verify(transactionStatus, Mockito.never()).setRollbackOnly();
+    }
+
+    @Test
+    public void testCreateTransactionsBalanceNotUpdated() {
+        TransactionRequest otherAccount = createTransactionRequest();
+        otherAccount.setAccountId(2L);
+
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.eq(1L), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.eq(2L), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(0);
+
+        List<Transaction> transactionResponse = transactionService.createTransactions(List.of(createTransactionRequest(), otherAccount), verifiedToken);
 
         Assertions.assertNull(transactionResponse);
 
-        Mockito.verify(accountRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
-        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(transactionStatus, Mockito.times(1)).setRollbackOnly();
+        Mockito.verifyNoInteractions(transactionRepository);
     }
 
     @Test
-    public void testCreateTransactionUserNoMoney() {
-        TransactionRequest transactionRequest = createTransactionRequest();
+    public void testCreateTransactionsInvalidRequest() {
+        TransactionRequest invalid = createTransactionRequest();
+        invalid.setDescription(null);
+
+        List<Transaction> transactionResponse = transactionService.createTransactions(List.of(createTransactionRequest(), invalid), verifiedToken);
+
+        Assertions.assertNull(transactionResponse);
+
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository, transactionTemplate);
+    }
+
+    @Test
+    public void testCreateTransactionsTooLarge() {
+        List<TransactionRequest> transactionRequests = List.of(createTransactionRequest(), createTransactionRequest(),
+                createTransactionRequest(), createTransactionRequest());
+
+        Assertions.assertNull(transactionService.createTransactions(transactionRequests, verifiedToken));
+        Assertions.assertNull(transactionService.createTransactions(List.of(), verifiedToken));
+        Assertions.assertNull(transactionService.createTransactions(List.of(createTransactionRequest()), null));
+
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository, transactionTemplate);
+    }
+
+    @Test
+    public void testCreateTransferSuccess() {
+        Account account = createUser().getAccountList().get(0);
+        AtomicLong ids = new AtomicLong();
+
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.creditBalance(Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.getReferenceById(Mockito.any(Long.class))).thenReturn(account);
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setId(ids.incrementAndGet());
+            return transaction;
+        });
+
+        List<Transaction> transactionResponse = transactionService.createTransfer(createTransferRequest(1L, 2L), verifiedToken);
+
+        Assertions.assertNotNull(transactionResponse);
+        Assertions.assertEquals(2, transactionResponse.size());
+        Assertions.assertEquals(TransactionType.TRANSFER_OUT, transactionResponse.get(0).getTransactionType());
+        Assertions.assertEquals(TransactionType.TRANSFER_IN, transactionResponse.get(1).getTransactionType());
+        Assertions.assertEquals(transactionResponse.get(1).getId(), transactionResponse.get(0).getLinkedTransactionId());
+        Assertions.assertEquals(transactionResponse.get(0).getId(), transactionResponse.get(1).getLinkedTransactionId());
+
+        InOrder inOrder = Mockito.inOrder(accountRepository);
+        inOrder.verify(accountRepository).applyBalanceChange(1L, 1L, -1000L);
+        inOrder.verify(accountRepository).creditBalance(2L, 1000L);
+        Mockito.verify(transactionRepository, Mockito.times(2)).save(Mockito.any(Transaction.class));
+        Mockito.verify(transactionStatus, Mockito.never()).setRollbackOnly();
+    }
+
+    @Test
+    public void testCreateTransferLocksLowerAccountFirst() {
         Account account = createUser().getAccountList().get(0);
-        account.setBalance(5.00);
 
-        Mockito.when(accountRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(account));
-        Mockito.when(accountService.getLoggedInAccounts(Mockito.any(HttpServletRequest.class))).thenReturn(List.of(account));
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.creditBalance(Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.getReferenceById(Mockito.any(Long.class))).thenReturn(account);
+        Mockito.when(transactionRepository.save(Mockito.any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Assertions.assertNotNull(transactionService.createTransfer(createTransferRequest(2L, 1L), verifiedToken));
+
+        InOrder inOrder = Mockito.inOrder(accountRepository);
+        inOrder.verify(accountRepository).creditBalance(1L, 1000L);
+        inOrder.verify(accountRepository).applyBalanceChange(2L, 1L, -1000L);
+    }
+
+    @Test
+    public void testCreateTransferInsufficientFunds() {
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.creditBalance(Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(0);
+
+        List<Transaction> transactionResponse = transactionService.createTransfer(createTransferRequest(2L, 1L), verifiedToken);
+
+        Assertions.assertNull(transactionResponse);
+
+        Mockito.verify(transactionStatus, Mockito.times(1)).setRollbackOnly();
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    public void testCreateTransferUnknownTargetAccount() {
+        Mockito.when(verifiedToken.getUserId()).thenReturn(1L);
+        Mockito.when(accountRepository.applyBalanceChange(Mockito.any(Long.class), Mockito.any(Long.class), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(accountRepository.creditBalance(Mockito.any(Long.class), Mockito.anyLong())).thenReturn(0);
 
-        Transaction transactionResponse = transactionService.createTransaction(transactionRequest, request);
+        List<Transaction> transactionResponse = transactionService.createTransfer(createTransferRequest(1L, 2L), verifiedToken);
 
         Assertions.assertNull(transactionResponse);
 
-        Mockito.verify(accountRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
-        Mockito.verify(accountService, Mockito.times(1)).getLoggedInAccounts(Mockito.any(HttpServletRequest.class));
+        Mockito.verify(transactionStatus, Mockito.times(1)).setRollbackOnly();
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    public void testCreateTransferInvalidRequest() {
+        TransferRequest negativeAmount = createTransferRequest(1L, 2L);
+        negativeAmount.setAmount(-1000L);
+
+        Assertions.assertNull(transactionService.createTransfer(createTransferRequest(1L, 1L), verifiedToken));
+        Assertions.assertNull(transactionService.createTransfer(createTransferRequest(1L, null), verifiedToken));
+        Assertions.assertNull(transactionService.createTransfer(negativeAmount, verifiedToken));
+        Assertions.assertNull(transactionService.createTransfer(createTransferRequest(1L, 2L), null));
+        Assertions.assertNull(transactionService.createTransfer(null, verifiedToken));
+
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository, transactionTemplate);
+    }
+
+    @Test
+    public void testCreateTransactionTransferTypeRejected() {
+        TransactionRequest transactionRequest = createTransactionRequest();
+        transactionRequest.setTransactionType(TransactionType.TRANSFER_IN);
+
+        Assertions.assertNull(transactionService.createTransaction(transactionRequest, verifiedToken));
+        Assertions.assertNull(transactionService.createTransactions(List.of(transactionRequest), verifiedToken));
+
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository, postingEngineService);
+    }
+
+    private TransferRequest createTransferRequest(Long fromAccountId, Long toAccountId) {
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(fromAccountId);
+        transferRequest.setToAccountId(toAccountId);
+        transferRequest.setAmount(1000L);
+        transferRequest.setDescription("Transfer");
+
+        return transferRequest;
     }
 
     private TransactionRequest createTransactionRequest() {
         TransactionRequest transactionRequest = new TransactionRequest();
-        transactionRequest.setAmount(10.00);
+        transactionRequest.setAmount(1000L);
         transactionRequest.setDescription("Payment");
         transactionRequest.setTransactionType(TransactionType.WITHDRAWAL);
         transactionRequest.setAccountId(1L);
@@ -168,21 +423,21 @@ public class TransactionServiceImplTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
         Account account = new Account();
         account.setId(1L);
         account.setAccountNumber("123456");
-        account.setBalance(100.00);
+        account.setBalance(10000L);
         account.setAccountType(AccountType.CURRENT);
         account.setUser(user);
 
         Transaction transaction = new Transaction();
         transaction.setId(1L);
-        transaction.setAmount(10.00);
+        transaction.setAmount(1000L);
         transaction.setDescription("Payment");
         transaction.setTransactionType(TransactionType.WITHDRAWAL);
         transaction.setAccount(account);
@@ -4,6 +4,7 @@ import com.bank.backend.model.Token;
 import com.bank.backend.model.User;
 import com.bank.backend.model.UserRole;
 import com.bank.backend.repository.UserRepository;
+import com.bank.backend.util.TokenDigest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -70,8 +71,8 @@ public class UserDetailsServiceImplTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
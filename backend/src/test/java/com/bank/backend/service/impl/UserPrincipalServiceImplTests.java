@@ -0,0 +1,119 @@
+package com.bank.backend.service.impl;
+
+import com.bank.backend.model.UserPrincipal;
+import com.bank.backend.model.UserRole;
+import com.bank.backend.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Optional;
+
+public class UserPrincipalServiceImplTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserPrincipalServiceImpl userPrincipalService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userPrincipalService, "MAX_CACHE_SIZE", 10);
+        ReflectionTestUtils.setField(userPrincipalService, "CACHE_TTL", 60000L);
+    }
+
+    @Test
+    public void testGetUserPrincipalCached() {
+        UserPrincipal principal = createUserPrincipal(0L);
+
+        Mockito.when(userRepository.findPrincipalByUsername("Username")).thenReturn(Optional.of(principal));
+
+        UserPrincipal first = userPrincipalService.getUserPrincipal("Username", 0L);
+        UserPrincipal second = userPrincipalService.getUserPrincipal("Username", 0L);
+
+        Assertions.assertSame(principal, first);
+        Assertions.assertSame(principal, second);
+
+        Mockito.verify(userRepository, Mockito.times(1)).findPrincipalByUsername("Username");
+    }
+
+    @Test
+    public void testGetUserPrincipalNewerEpoch() {
+        Mockito.when(userRepository.findPrincipalByUsername("Username")).thenReturn(Optional.of(createUserPrincipal(0L))).thenReturn(Optional.of(createUserPrincipal(1L)));
+
+        userPrincipalService.getUserPrincipal("Username", 0L);
+        UserPrincipal principal = userPrincipalService.getUserPrincipal("Username", 1L);
+
+        Assertions.assertEquals(1L, principal.getTokenEpoch());
+
+        Mockito.verify(userRepository, Mockito.times(2)).findPrincipalByUsername("Username");
+    }
+
+    @Test
+    public void testGetUserPrincipalNotFound() {
+        Mockito.when(userRepository.findPrincipalByUsername("Username")).thenReturn(Optional.empty());
+
+        UserPrincipal principal = userPrincipalService.getUserPrincipal("Username", 0L);
+
+        Assertions.assertNull(principal);
+    }
+
+    @Test
+    public void testEvictUserPrincipal() {
+        Mockito.when(userRepository.findPrincipalByUsername("Username")).thenReturn(Optional.of(createUserPrincipal(0L)));
+
+        userPrincipalService.getUserPrincipal("Username", 0L);
+        userPrincipalService.evictUserPrincipal("Username");
+        userPrincipalService.getUserPrincipal("Username", 0L);
+
+        Mockito.verify(userRepository, Mockito.times(2)).findPrincipalByUsername("Username");
+    }
+
+    @Test
+    public void testGetUserPrincipalCacheFull() {
+        ReflectionTestUtils.setField(userPrincipalService, "MAX_CACHE_SIZE", 2);
+        Mockito.when(userRepository.findPrincipalByUsername(Mockito.anyString())).thenAnswer(invocation -> Optional.of(createUserPrincipal(invocation.getArgument(0), 0L)));
+
+        userPrincipalService.getUserPrincipal("First", 0L);
+        userPrincipalService.getUserPrincipal("Second", 0L);
+        userPrincipalService.getUserPrincipal("Third", 0L);
+        userPrincipalService.getUserPrincipal("Third", 0L);
+        userPrincipalService.getUserPrincipal("Second", 0L);
+        userPrincipalService.getUserPrincipal("First", 0L);
+
+        Mockito.verify(userRepository, Mockito.times(2)).findPrincipalByUsername("First");
+        Mockito.verify(userRepository, Mockito.times(1)).findPrincipalByUsername("Second");
+        Mockito.verify(userRepository, Mockito.times(1)).findPrincipalByUsername("Third");
+    }
+
+    @Test
+    public void testGetUserPrincipalCacheFullEvictsLeastRecentlyUsed() {
+        ReflectionTestUtils.setField(userPrincipalService, "MAX_CACHE_SIZE", 2);
+        Mockito.when(userRepository.findPrincipalByUsername(Mockito.anyString())).thenAnswer(invocation -> Optional.of(createUserPrincipal(invocation.getArgument(0), 0L)));
+
+        userPrincipalService.getUserPrincipal("First", 0L);
+        userPrincipalService.getUserPrincipal("Second", 0L);
+        userPrincipalService.getUserPrincipal("First", 0L);
+        userPrincipalService.getUserPrincipal("Third", 0L);
+        userPrincipalService.getUserPrincipal("First", 0L);
+        userPrincipalService.getUserPrincipal("Second", 0L);
+
+        Mockito.verify(userRepository, Mockito.times(1)).findPrincipalByUsername("First");
+        Mockito.verify(userRepository, Mockito.times(2)).findPrincipalByUsername("Second");
+    }
+
+    private UserPrincipal createUserPrincipal(long tokenEpoch) {
+        return createUserPrincipal("Username", tokenEpoch);
+    }
+
+    private UserPrincipal createUserPrincipal(String username, long tokenEpoch) {
+        return new UserPrincipal(1L, username, UserRole.USER, tokenEpoch);
+    }
+
+}
@@ -4,6 +4,9 @@ import com.bank.backend.model.*;
 import com.bank.backend.repository.TokenRepository;
 import com.bank.backend.repository.UserRepository;
 import com.bank.backend.service.JwtService;
+import com.bank.backend.service.TokenCacheService;
+import com.bank.backend.service.UserPrincipalService;
+import com.bank.backend.util.TokenDigest;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,7 +22,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +40,8 @@ public class UserServiceImplTests {
     @Mock
     private HttpServletRequest requestNull;
 
+    private final VerifiedToken verifiedToken = new VerifiedToken("tokenId", 1L, "Username", UserRole.USER, new Date(1767139200000L));
+
     @Mock
     private TokenRepository tokenRepository;
 
@@ -46,6 +51,12 @@ public class UserServiceImplTests {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenCacheService tokenCacheService;
+
+    @Mock
+    private UserPrincipalService userPrincipalService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -109,9 +120,10 @@ public class UserServiceImplTests {
         Mockito.when(authenticationManager.authenticate(Mockito.any(UsernamePasswordAuthenticationToken.class))).thenReturn(Mockito.mock(Authentication.class));
         Mockito.when(jwtService.generateAccessToken(Mockito.any(User.class))).thenReturn("accessToken");
         Mockito.when(jwtService.generateRefreshToken(Mockito.any(User.class))).thenReturn("refreshToken");
-        Mockito.when(tokenRepository.findAllAccessTokensByUser(Mockito.any(Long.class))).thenReturn(user.getTokenList());
-        Mockito.when(tokenRepository.saveAll(Mockito.anyList())).thenReturn(user.getTokenList());
+        Mockito.when(userRepository.incrementTokenEpoch(Mockito.any(Long.class))).thenReturn(1);
+        Mockito.when(userRepository.findTokenEpochById(Mockito.any(Long.class))).thenReturn(1L);
         Mockito.when(tokenRepository.save(Mockito.any(Token.class))).thenReturn(user.getTokenList().get(0));
+        Mockito.when(jwtService.<Date>extractClaim(Mockito.anyString(), Mockito.any())).thenReturn(verifiedToken.getExpiration());
 
         AuthenticationResponse authenticationResponse = userService.loginUser(loginRequest);
 
@@ -125,36 +137,12 @@ public class UserServiceImplTests {
         Mockito.verify(authenticationManager, Mockito.times(1)).authenticate(Mockito.any(UsernamePasswordAuthenticationToken.class));
         Mockito.verify(jwtService, Mockito.times(1)).generateAccessToken(Mockito.any(User.class));
         Mockito.verify(jwtService, Mockito.times(1)).generateRefreshToken(Mockito.any(User.class));
-        Mockito.verify(tokenRepository, Mockito.times(1)).findAllAccessTokensByUser(Mockito.any(Long.class));
-        Mockito.verify(tokenRepository, Mockito.times(1)).saveAll(Mockito.anyList());
-        Mockito.verify(tokenRepository, Mockito.times(1)).save(Mockito.any(Token.class));
-    }
-
-    @Test
-    public void testLoginUserNoTokens() {
-        User user = createUser();
-        LoginRequest loginRequest = createLoginRequest();
-
-        Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
-        Mockito.when(authenticationManager.authenticate(Mockito.any(UsernamePasswordAuthenticationToken.class))).thenReturn(Mockito.mock(Authentication.class));
-        Mockito.when(jwtService.generateAccessToken(Mockito.any(User.class))).thenReturn("accessToken");
-        Mockito.when(jwtService.generateRefreshToken(Mockito.any(User.class))).thenReturn("refreshToken");
-        Mockito.when(tokenRepository.findAllAccessTokensByUser(Mockito.any(Long.class))).thenReturn(Collections.emptyList());
-        Mockito.when(tokenRepository.save(Mockito.any(Token.class))).thenReturn(user.getTokenList().get(0));
-
-        AuthenticationResponse authenticationResponse = userService.loginUser(loginRequest);
-
-        Assertions.assertNotNull(authenticationResponse);
-        Assertions.assertEquals("accessToken", authenticationResponse.getAccessToken());
-        Assertions.assertEquals("refreshToken", authenticationResponse.getRefreshToken());
-        Assertions.assertEquals("User Login Was Successful.", authenticationResponse.getMessage());
-
-        Mockito.verify(userRepository, Mockito.times(2)).findByUsername(Mockito.anyString());
-        Mockito.verify(authenticationManager, Mockito.times(1)).authenticate(Mockito.any(UsernamePasswordAuthenticationToken.class));
-        Mockito.verify(jwtService, Mockito.times(1)).generateAccessToken(Mockito.any(User.class));
-        Mockito.verify(jwtService, Mockito.times(1)).generateRefreshToken(Mockito.any(User.class));
-        Mockito.verify(tokenRepository, Mockito.times(1)).findAllAccessTokensByUser(Mockito.any(Long.class));
+        Mockito.verify(userRepository, Mockito.times(1)).incrementTokenEpoch(user.getId());
+        Mockito.verify(userRepository, Mockito.times(1)).findTokenEpochById(user.getId());
         Mockito.verify(tokenRepository, Mockito.times(1)).save(Mockito.any(Token.class));
+        Assertions.assertEquals(1L, user.getTokenEpoch());
+        Mockito.verify(userPrincipalService, Mockito.times(1)).evictUserPrincipal(user.getUsername());
+        Mockito.verify(tokenCacheService, Mockito.times(1)).cacheToken("accessToken", verifiedToken.getExpiration());
     }
 
     @Test
@@ -181,15 +169,16 @@ public class UserServiceImplTests {
     public void testRefreshTokenSuccess() {
         User user = createUser();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
+        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer refreshToken");
         Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
         Mockito.when(jwtService.isValidRefreshToken(Mockito.anyString(), Mockito.any(User.class))).thenReturn(true);
         Mockito.when(jwtService.generateAccessToken(Mockito.any(User.class))).thenReturn("newAccessToken");
         Mockito.when(jwtService.generateRefreshToken(Mockito.any(User.class))).thenReturn("newRefreshToken");
-        Mockito.when(tokenRepository.findAllAccessTokensByUser(Mockito.any(Long.class))).thenReturn(user.getTokenList());
-        Mockito.when(tokenRepository.saveAll(Mockito.anyList())).thenReturn(user.getTokenList());
+        Mockito.when(userRepository.incrementTokenEpoch(Mockito.any(Long.class))).thenReturn(1);
+        Mockito.when(userRepository.findTokenEpochById(Mockito.any(Long.class))).thenReturn(1L);
         Mockito.when(tokenRepository.save(Mockito.any(Token.class))).thenReturn(user.getTokenList().get(0));
+        Mockito.when(jwtService.<Date>extractClaim(Mockito.anyString(), Mockito.any())).thenReturn(verifiedToken.getExpiration());
 
         AuthenticationResponse authenticationResponse = userService.refreshToken(request);
 
@@ -204,9 +193,11 @@ public class UserServiceImplTests {
         Mockito.verify(jwtService, Mockito.times(1)).isValidRefreshToken(Mockito.anyString(), Mockito.any(User.class));
         Mockito.verify(jwtService, Mockito.times(1)).generateAccessToken(Mockito.any(User.class));
         Mockito.verify(jwtService, Mockito.times(1)).generateRefreshToken(Mockito.any(User.class));
-        Mockito.verify(tokenRepository, Mockito.times(1)).findAllAccessTokensByUser(Mockito.any(Long.class));
-        Mockito.verify(tokenRepository, Mockito.times(1)).saveAll(Mockito.anyList());
+        Mockito.verify(userRepository, Mockito.times(1)).incrementTokenEpoch(user.getId());
+        Mockito.verify(userRepository, Mockito.times(1)).findTokenEpochById(user.getId());
         Mockito.verify(tokenRepository, Mockito.times(1)).save(Mockito.any(Token.class));
+        Assertions.assertEquals(1L, user.getTokenEpoch());
+        Mockito.verify(tokenCacheService, Mockito.times(1)).cacheToken("newAccessToken", verifiedToken.getExpiration());
     }
 
     @Test
@@ -228,7 +219,7 @@ public class UserServiceImplTests {
     public void testRefreshTokenNullUser() {
         User user = createUser();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
+        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer refreshToken");
         Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
 
@@ -245,7 +236,7 @@ public class UserServiceImplTests {
     public void testRefreshTokenInvalidToken() {
         User user = createUser();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
+        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer refreshToken");
         Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
         Mockito.when(jwtService.isValidRefreshToken(Mockito.anyString(), Mockito.any(User.class))).thenReturn(false);
@@ -264,50 +255,33 @@ public class UserServiceImplTests {
     public void testGetLoggedInUserSuccess() {
         User user = createUser();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
 
-        User userResponse = userService.getLoggedInUser(request);
+        User userResponse = userService.getLoggedInUser(verifiedToken);
 
         Assertions.assertNotNull(userResponse);
         Assertions.assertEquals(user, userResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
     }
 
     @Test
-    public void testGetLoggedInUserNullHeader() {
-
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Test: Token");
-        Mockito.when(requestNull.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(null);
-
-        User userResponse = userService.getLoggedInUser(request);
-        User userResponseNullHeader = userService.getLoggedInUser(requestNull);
+    public void testGetLoggedInUserNullToken() {
+        User userResponse = userService.getLoggedInUser(null);
 
         Assertions.assertNull(userResponse);
-        Assertions.assertNull(userResponseNullHeader);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(Mockito.any());
-        Mockito.verify(requestNull, Mockito.times(1)).getHeader(Mockito.any());
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
     public void testGetLoggedInUserNullUser() {
-        User user = createUser();
-
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
 
-        User userResponse = userService.getLoggedInUser(request);
+        User userResponse = userService.getLoggedInUser(verifiedToken);
 
         Assertions.assertNull(userResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
     }
 
@@ -375,37 +349,27 @@ public class UserServiceImplTests {
         User user = createUser();
         UserRequest userRequest = createUserRequest();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
         Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(user);
 
-        User userResponse = userService.updateLoggedInUser(request, userRequest);
+        User userResponse = userService.updateLoggedInUser(verifiedToken, userRequest);
 
         Assertions.assertNotNull(userResponse);
         Assertions.assertEquals(user, userResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).save(Mockito.any(User.class));
     }
 
     @Test
-    public void testUpdateLoggedInUserNullHeader() {
+    public void testUpdateLoggedInUserNullToken() {
         UserRequest userRequest = createUserRequest();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Test: Token");
-        Mockito.when(requestNull.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(null);
-
-        User userResponse = userService.updateLoggedInUser(request, userRequest);
-        User userResponseNullHeader = userService.updateLoggedInUser(requestNull, userRequest);
+        User userResponse = userService.updateLoggedInUser(null, userRequest);
 
         Assertions.assertNull(userResponse);
-        Assertions.assertNull(userResponseNullHeader);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(Mockito.any());
-        Mockito.verify(requestNull, Mockito.times(1)).getHeader(Mockito.any());
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -413,16 +377,12 @@ public class UserServiceImplTests {
         User user = createUser();
         UserRequest userRequest = createUserRequest();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
 
-        User userResponse = userService.updateLoggedInUser(request, userRequest);
+        User userResponse = userService.updateLoggedInUser(verifiedToken, userRequest);
 
         Assertions.assertNull(userResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
     }
 
@@ -448,6 +408,28 @@ public class UserServiceImplTests {
 
         Mockito.verify(userRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
         Mockito.verify(userRepository, Mockito.times(1)).save(Mockito.any(User.class));
+        Mockito.verify(userPrincipalService, Mockito.times(1)).evictUserPrincipal("Username");
+        Mockito.verify(userRepository, Mockito.never()).incrementTokenEpoch(Mockito.any(Long.class));
+    }
+
+    @Test
+    public void testUpdateUserByIdRoleChange() {
+        User user = createUser();
+        UserRequest userRequest = createUserRequest();
+        userRequest.setUserRole(UserRole.ADMIN);
+
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(user);
+        Mockito.when(userRepository.findTokenEpochById(Mockito.any(Long.class))).thenReturn(1L);
+
+        User userResponse = userService.updateUserById(userRequest, 1L);
+
+        Assertions.assertNotNull(userResponse);
+        Assertions.assertEquals(UserRole.ADMIN, userResponse.getUserRole());
+        Assertions.assertEquals(1L, userResponse.getTokenEpoch());
+
+        Mockito.verify(userRepository, Mockito.times(1)).incrementTokenEpoch(user.getId());
+        Mockito.verify(userRepository, Mockito.times(1)).findTokenEpochById(user.getId());
     }
 
     @Test
@@ -467,76 +449,64 @@ public class UserServiceImplTests {
     public void testDeleteLoggedInUserSuccess() {
         User user = createUser();
 
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.of(user));
         Mockito.doNothing().when(userRepository).deleteById(Mockito.any(Long.class));
 
-        boolean userResponse = userService.deleteLoggedInUser(request);
+        boolean userResponse = userService.deleteLoggedInUser(verifiedToken);
 
         Assertions.assertTrue(userResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).deleteById(Mockito.any(Long.class));
+        Mockito.verify(userPrincipalService, Mockito.times(1)).evictUserPrincipal(user.getUsername());
     }
 
     @Test
-    public void testDeleteLoggedInUserNullHeader() {
-
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Test: Token");
-        Mockito.when(requestNull.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(null);
-
-        boolean userResponse = userService.deleteLoggedInUser(request);
-        boolean userResponseNullHeader = userService.deleteLoggedInUser(requestNull);
+    public void testDeleteLoggedInUserNullToken() {
+        boolean userResponse = userService.deleteLoggedInUser(null);
 
         Assertions.assertFalse(userResponse);
-        Assertions.assertFalse(userResponseNullHeader);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(Mockito.any());
-        Mockito.verify(requestNull, Mockito.times(1)).getHeader(Mockito.any());
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
     public void testDeleteLoggedInUserNullUser() {
-        User user = createUser();
-
-        Mockito.when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + user.getTokenList().get(0).getRefreshToken());
-        Mockito.when(jwtService.extractUsername(Mockito.anyString())).thenReturn(user.getUsername());
         Mockito.when(userRepository.findByUsername(Mockito.anyString())).thenReturn(Optional.empty());
 
-        boolean userResponse = userService.deleteLoggedInUser(request);
+        boolean userResponse = userService.deleteLoggedInUser(verifiedToken);
 
         Assertions.assertFalse(userResponse);
 
-        Mockito.verify(request, Mockito.times(1)).getHeader(HttpHeaders.AUTHORIZATION);
-        Mockito.verify(jwtService, Mockito.times(1)).extractUsername(Mockito.anyString());
         Mockito.verify(userRepository, Mockito.times(1)).findByUsername(Mockito.anyString());
     }
 
     @Test
     public void testDeleteUserByIdSuccess() {
-        Mockito.when(userRepository.existsById(Mockito.any(Long.class))).thenReturn(true);
+        User user = createUser();
+
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(user));
         Mockito.doNothing().when(userRepository).deleteById(Mockito.any(Long.class));
 
         boolean response = userService.deleteUserById(1L);
 
         Assertions.assertTrue(response);
 
-        Mockito.verify(userRepository, Mockito.times(1)).existsById(Mockito.any(Long.class));
+        Mockito.verify(userRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
         Mockito.verify(userRepository, Mockito.times(1)).deleteById(Mockito.any(Long.class));
+        Mockito.verify(userPrincipalService, Mockito.times(1)).evictUserPrincipal(user.getUsername());
     }
 
     @Test
     public void testDeleteUserByIdNull() {
-        Mockito.when(userRepository.existsById(Mockito.any(Long.class))).thenReturn(false);
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.empty());
 
         boolean response = userService.deleteUserById(1L);
 
         Assertions.assertFalse(response);
 
-        Mockito.verify(userRepository, Mockito.times(1)).existsById(Mockito.any(Long.class));
+        Mockito.verify(userRepository, Mockito.times(1)).findById(Mockito.any(Long.class));
+        Mockito.verifyNoInteractions(userPrincipalService);
     }
 
     private User createUser() {
@@ -552,8 +522,8 @@ public class UserServiceImplTests {
 
         Token token = new Token();
         token.setId(1L);
-        token.setAccessToken("accessToken");
-        token.setRefreshToken("refreshToken");
+        token.setAccessTokenDigest(TokenDigest.digest("accessToken"));
+        token.setRefreshTokenDigest(TokenDigest.digest("refreshToken"));
         token.setLoggedOut(false);
         token.setUser(user);
 
@@ -0,0 +1,52 @@
+package com.bank.backend.util;
+
+import com.bank.backend.model.Account;
+import com.bank.backend.model.TransactionRequest;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+
+public class MoneyTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testToMinorUnits() {
+        Assertions.assertEquals(1050L, Money.toMinorUnits(new BigDecimal("10.5")));
+        Assertions.assertEquals(1000L, Money.toMinorUnits(new BigDecimal("10")));
+        Assertions.assertEquals(-1L, Money.toMinorUnits(new BigDecimal("-0.01")));
+        Assertions.assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("10.255")));
+    }
+
+    @Test
+    public void testToDecimal() {
+        Assertions.assertEquals(new BigDecimal("10.50"), Money.toDecimal(1050L));
+        Assertions.assertEquals(new BigDecimal("0.00"), Money.toDecimal(0L));
+    }
+
+    @Test
+    public void testDeserializeDecimalAmount() throws Exception {
+        Assertions.assertEquals(1050L, objectMapper.readValue("{\"amount\": 10.50}", TransactionRequest.class).getAmount());
+        Assertions.assertEquals(1000L, objectMapper.readValue("{\"amount\": 10}", TransactionRequest.class).getAmount());
+        Assertions.assertEquals(1025L, objectMapper.readValue("{\"amount\": \"10.25\"}", TransactionRequest.class).getAmount());
+        Assertions.assertEquals(10L, objectMapper.readValue("{\"amount\": 0.1}", TransactionRequest.class).getAmount());
+    }
+
+    @Test
+    public void testDeserializeInvalidAmount() {
+        Assertions.assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"amount\": 10.255}", TransactionRequest.class));
+        Assertions.assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"amount\": \"ten\"}", TransactionRequest.class));
+        Assertions.assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"amount\": true}", TransactionRequest.class));
+    }
+
+    @Test
+    public void testSerializeBalance() throws Exception {
+        Account account = new Account();
+        account.setBalance(10050L);
+
+        Assertions.assertTrue(objectMapper.writeValueAsString(account).contains("\"balance\":100.50"));
+    }
+
+}